@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.benchmarks;
+
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.InMemoryRequestJournal;
+import com.github.tomakehurst.wiremock.verification.RequestJournal;
+import com.github.tomakehurst.wiremock.verification.RingBufferRequestJournal;
+import com.google.common.base.Optional;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
+import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.newRequestPattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestJournalBenchmark {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    @Param({"inMemory", "ringBuffer"})
+    public String journalType;
+
+    private RequestJournal journal;
+    private ServeEvent serveEvent;
+    private RequestPattern exactUrlPattern;
+    private RequestPattern urlRegexPattern;
+
+    @Setup
+    public void setup() {
+        journal = "ringBuffer".equals(journalType) ?
+            new RingBufferRequestJournal(MAX_ENTRIES) :
+            new InMemoryRequestJournal(Optional.of(MAX_ENTRIES));
+
+        for (int i = 0; i < MAX_ENTRIES; i++) {
+            journal.requestReceived(ServeEvent.of(
+                mockRequest().method(i % 2 == 0 ? GET : POST).url("/things/" + (i % 100)).asLoggedRequest(),
+                ResponseDefinition.ok()
+            ));
+        }
+
+        serveEvent = ServeEvent.of(mockRequest().method(GET).url("/things/1").asLoggedRequest(), ResponseDefinition.ok());
+        exactUrlPattern = newRequestPattern(GET, urlEqualTo("/things/42")).build();
+        urlRegexPattern = newRequestPattern(POST, urlPathMatching("/things/[0-9]")).build();
+    }
+
+    @Benchmark
+    public void append() {
+        journal.requestReceived(serveEvent);
+    }
+
+    @Benchmark
+    public int countByExactUrl() {
+        return journal.countRequestsMatching(exactUrlPattern);
+    }
+
+    @Benchmark
+    public int countByUrlRegex() {
+        return journal.countRequestsMatching(urlRegexPattern);
+    }
+}
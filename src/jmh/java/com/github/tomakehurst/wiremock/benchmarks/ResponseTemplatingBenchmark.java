@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.benchmarks;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseTemplatingBenchmark {
+
+    private ResponseTemplateTransformer transformer;
+    private ResponseDefinition responseDefinition;
+    private FileSource files;
+    private Request request;
+
+    @Setup
+    public void setup() {
+        transformer = new ResponseTemplateTransformer(true);
+        responseDefinition = aResponse()
+            .withHeader("Content-Type", "application/json")
+            .withHeader("X-Request-Path", "{{request.path}}")
+            .withBody("{ \"id\": \"{{request.path.[1]}}\", \"query\": \"{{request.query.q}}\", " +
+                "\"agent\": \"{{request.headers.User-Agent}}\" }")
+            .build();
+        files = new SingleRootFileSource(".");
+        request = mockRequest()
+            .url("/things/123?q=search")
+            .header("User-Agent", "benchmark");
+    }
+
+    @Benchmark
+    public ResponseDefinition transform() {
+        return transformer.transform(request, responseDefinition, files, Parameters.empty());
+    }
+}
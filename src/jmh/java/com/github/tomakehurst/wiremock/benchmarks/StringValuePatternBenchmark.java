@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.benchmarks;
+
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringValuePatternBenchmark {
+
+    private static final String JSON =
+        "{ \"id\": 123, \"name\": \"thing\", \"tags\": [\"one\", \"two\", \"three\"], " +
+        "\"owner\": { \"id\": 456, \"email\": \"someone@example.com\" } }";
+
+    private static final String XML =
+        "<thing id=\"123\"><name>thing</name><tags><tag>one</tag><tag>two</tag><tag>three</tag></tags>" +
+        "<owner id=\"456\"><email>someone@example.com</email></owner></thing>";
+
+    @Param({"equalToJson", "matchesJsonPath", "matchesXPath", "regex"})
+    public String patternType;
+
+    private StringValuePattern pattern;
+    private String value;
+
+    @Setup
+    public void setup() {
+        switch (patternType) {
+            case "equalToJson":
+                pattern = equalToJson(
+                    "{ \"name\": \"thing\", \"id\": 123, \"tags\": [\"one\", \"two\", \"three\"], " +
+                    "\"owner\": { \"email\": \"someone@example.com\", \"id\": 456 } }");
+                value = JSON;
+                break;
+            case "matchesJsonPath":
+                pattern = matchingJsonPath("$.owner.email", containing("@example.com"));
+                value = JSON;
+                break;
+            case "matchesXPath":
+                pattern = matchingXPath("//owner/email/text()", containing("@example.com"));
+                value = XML;
+                break;
+            case "regex":
+                pattern = matching(".*\"email\": \"[a-z]+@example\\.com\".*");
+                value = JSON;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown pattern type " + patternType);
+        }
+    }
+
+    @Benchmark
+    public boolean match() {
+        return pattern.match(value).isExactMatch();
+    }
+}
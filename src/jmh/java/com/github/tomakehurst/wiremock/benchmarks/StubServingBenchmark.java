@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.benchmarks;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.stubbing.InMemoryStubMappings;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StubServingBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int stubCount;
+
+    private InMemoryStubMappings stubMappings;
+    private Request exactUrlRequest;
+    private Request jsonBodyRequest;
+    private Request unmatchedRequest;
+
+    @Setup
+    public void setup() {
+        stubMappings = new InMemoryStubMappings();
+        for (int i = 0; i < stubCount; i++) {
+            stubMappings.addMapping(stubNumber(i));
+        }
+
+        int middle = stubCount / 2;
+        exactUrlRequest = mockRequest()
+            .method(GET)
+            .url("/things/" + (middle - middle % 4));
+        jsonBodyRequest = mockRequest()
+            .method(POST)
+            .url("/things/" + (middle - middle % 4 + 1))
+            .body("{ \"id\": " + (middle - middle % 4 + 1) + ", \"name\": \"thing\" }");
+        unmatchedRequest = mockRequest()
+            .method(GET)
+            .url("/not-a-thing");
+    }
+
+    // A mix of the kinds of stub seen in real suites: exact URLs, JSON bodies, path regexes and header matches
+    private static StubMapping stubNumber(int i) {
+        switch (i % 4) {
+            case 0:
+                return get(urlEqualTo("/things/" + i)).willReturn(ok()).build();
+            case 1:
+                return post(urlPathEqualTo("/things/" + i))
+                    .withRequestBody(equalToJson("{ \"id\": " + i + ", \"name\": \"thing\" }"))
+                    .willReturn(ok())
+                    .build();
+            case 2:
+                return get(urlPathMatching("/things/" + i + "/.*")).willReturn(ok()).build();
+            default:
+                return any(urlMatching("/other/" + i + ".*"))
+                    .withHeader("X-Id", equalTo(String.valueOf(i)))
+                    .willReturn(ok())
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public ServeEvent serveExactUrlStub() {
+        return stubMappings.serveFor(exactUrlRequest);
+    }
+
+    @Benchmark
+    public ServeEvent serveJsonBodyStub() {
+        return stubMappings.serveFor(jsonBodyRequest);
+    }
+
+    @Benchmark
+    public ServeEvent serveUnmatchedRequest() {
+        return stubMappings.serveFor(unmatchedRequest);
+    }
+}
@@ -64,6 +64,8 @@ public class WireMockServer implements Container, Stubbing, Admin {
 
     protected final WireMock client;
 
+    private StubMappingJsonRecorder mappingsRecorder;
+
     public WireMockServer(Options options) {
         this.options = options;
         this.notifier = options.notifier();
@@ -131,13 +133,21 @@ public class WireMockServer implements Container, Stubbing, Admin {
 	}
 
 	public void enableRecordMappings(FileSource mappingsFileSource, FileSource filesFileSource) {
-	    addMockServiceRequestListener(
-                new StubMappingJsonRecorder(mappingsFileSource, filesFileSource, wireMockApp, options.matchingHeaders()));
+	    enableRecordMappings(mappingsFileSource, filesFileSource, false);
+	}
+
+	public void enableRecordMappings(FileSource mappingsFileSource, FileSource filesFileSource, boolean writeAsynchronously) {
+	    mappingsRecorder = new StubMappingJsonRecorder(mappingsFileSource, filesFileSource, options.matchingHeaders(), writeAsynchronously);
+	    addMockServiceRequestListener(mappingsRecorder);
         notifier.info("Recording mappings to " + mappingsFileSource.getPath());
 	}
 
     public void stop() {
         httpServer.stop();
+        wireMockApp.stop();
+        if (mappingsRecorder != null) {
+            mappingsRecorder.stop();
+        }
 	}
 
 	public void start() {
@@ -429,6 +439,26 @@ public class WireMockServer implements Container, Stubbing, Admin {
         return wireMockApp.getRecordingStatus();
     }
 
+    @Override
+    public GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats() {
+        return wireMockApp.getProxyConnectionPoolStats();
+    }
+
+    @Override
+    public GetProxyCacheResult getProxyCache() {
+        return wireMockApp.getProxyCache();
+    }
+
+    @Override
+    public void purgeProxyCache() {
+        wireMockApp.purgeProxyCache();
+    }
+
+    @Override
+    public GetDelaySchedulerStatsResult getDelaySchedulerStats() {
+        return wireMockApp.getDelaySchedulerStats();
+    }
+
     @Override
     public SnapshotRecordResult snapshotRecord() {
         return wireMockApp.snapshotRecord();
@@ -98,6 +98,12 @@ public class AdminRoutes {
         router.add(POST, "/near-misses/request", FindNearMissesForRequestTask.class);
         router.add(POST, "/near-misses/request-pattern", FindNearMissesForRequestPatternTask.class);
 
+        router.add(GET,  "/proxy/connection-pool", GetProxyConnectionPoolStatsTask.class);
+        router.add(GET,  "/proxy/cache", GetProxyCacheTask.class);
+        router.add(DELETE, "/proxy/cache", PurgeProxyCacheTask.class);
+
+        router.add(GET,  "/delay-scheduler", GetDelaySchedulerStatsTask.class);
+
         router.add(POST, "/settings", GlobalSettingsUpdateTask.class);
         router.add(POST, "/shutdown", ShutdownServerTask.class);
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@JsonInclude(NON_NULL)
+public class ConnectionPoolStats {
+
+    private final String route;
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+
+    @JsonCreator
+    public ConnectionPoolStats(@JsonProperty("route") String route,
+                               @JsonProperty("leased") int leased,
+                               @JsonProperty("pending") int pending,
+                               @JsonProperty("available") int available,
+                               @JsonProperty("max") int max) {
+        this.route = route;
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+
+    /**
+     * The target the connections are to, or null for the pool as a whole
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Connections in use
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * Requests waiting for a connection
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Idle connections kept open for reuse
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    public int getMax() {
+        return max;
+    }
+}
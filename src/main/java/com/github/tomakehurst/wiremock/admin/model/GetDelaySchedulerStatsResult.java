@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class GetDelaySchedulerStatsResult {
+
+    private final int pending;
+    private final long expired;
+    private final double meanLatenessMillis;
+    private final long maxLatenessMillis;
+
+    @JsonCreator
+    public GetDelaySchedulerStatsResult(@JsonProperty("pending") int pending,
+                                        @JsonProperty("expired") long expired,
+                                        @JsonProperty("meanLatenessMillis") double meanLatenessMillis,
+                                        @JsonProperty("maxLatenessMillis") long maxLatenessMillis) {
+        this.pending = pending;
+        this.expired = expired;
+        this.meanLatenessMillis = meanLatenessMillis;
+        this.maxLatenessMillis = maxLatenessMillis;
+    }
+
+    /**
+     * Delayed responses and chunks waiting to be sent
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Delayed responses and chunks sent so far
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    /**
+     * How long after it was due, on average, each was sent
+     */
+    public double getMeanLatenessMillis() {
+        return meanLatenessMillis;
+    }
+
+    public long getMaxLatenessMillis() {
+        return maxLatenessMillis;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class GetProxyCacheResult {
+
+    private final List<ProxyCacheEntry> entries;
+    private final long sizeBytes;
+    private final long hits;
+    private final long misses;
+    private final long revalidations;
+
+    @JsonCreator
+    public GetProxyCacheResult(@JsonProperty("entries") List<ProxyCacheEntry> entries,
+                               @JsonProperty("sizeBytes") long sizeBytes,
+                               @JsonProperty("hits") long hits,
+                               @JsonProperty("misses") long misses,
+                               @JsonProperty("revalidations") long revalidations) {
+        this.entries = entries;
+        this.sizeBytes = sizeBytes;
+        this.hits = hits;
+        this.misses = misses;
+        this.revalidations = revalidations;
+    }
+
+    public List<ProxyCacheEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * The total size of the cached response bodies
+     */
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Requests answered from the cache without asking the target
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Requests that had to be sent on to the target, including those revalidating a stale response
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Requests answered from the cache after the target confirmed a stale response was still current
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class GetProxyConnectionPoolStatsResult {
+
+    private final ConnectionPoolStats total;
+    private final List<ConnectionPoolStats> routes;
+    private final int peakLeased;
+
+    @JsonCreator
+    public GetProxyConnectionPoolStatsResult(@JsonProperty("total") ConnectionPoolStats total,
+                                             @JsonProperty("routes") List<ConnectionPoolStats> routes,
+                                             @JsonProperty("peakLeased") int peakLeased) {
+        this.total = total;
+        this.routes = routes;
+        this.peakLeased = peakLeased;
+    }
+
+    public ConnectionPoolStats getTotal() {
+        return total;
+    }
+
+    public List<ConnectionPoolStats> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * The most connections that have been in use at once
+     */
+    public int getPeakLeased() {
+        return peakLeased;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.admin.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class ProxyCacheEntry {
+
+    private final String method;
+    private final String url;
+    private final int status;
+    private final int sizeBytes;
+    private final long ageSeconds;
+    private final long ttlSeconds;
+
+    @JsonCreator
+    public ProxyCacheEntry(@JsonProperty("method") String method,
+                           @JsonProperty("url") String url,
+                           @JsonProperty("status") int status,
+                           @JsonProperty("sizeBytes") int sizeBytes,
+                           @JsonProperty("ageSeconds") long ageSeconds,
+                           @JsonProperty("ttlSeconds") long ttlSeconds) {
+        this.method = method;
+        this.url = url;
+        this.status = status;
+        this.sizeBytes = sizeBytes;
+        this.ageSeconds = ageSeconds;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * The URL of the target the response came from
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * The size of the response body
+     */
+    public int getSizeBytes() {
+        return sizeBytes;
+    }
+
+    /**
+     * Seconds since the response was received from, or last revalidated with, the target
+     */
+    public long getAgeSeconds() {
+        return ageSeconds;
+    }
+
+    /**
+     * Seconds the response is served for without asking the target again, counting from when it was received
+     */
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+}
@@ -335,6 +335,26 @@ public class HttpAdminClient implements Admin {
         return executeRequest(adminRoutes.requestSpecForTask(GetRecordingStatusTask.class), RecordingStatusResult.class);
     }
 
+    @Override
+    public GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats() {
+        return executeRequest(adminRoutes.requestSpecForTask(GetProxyConnectionPoolStatsTask.class), GetProxyConnectionPoolStatsResult.class);
+    }
+
+    @Override
+    public GetProxyCacheResult getProxyCache() {
+        return executeRequest(adminRoutes.requestSpecForTask(GetProxyCacheTask.class), GetProxyCacheResult.class);
+    }
+
+    @Override
+    public void purgeProxyCache() {
+        executeRequest(adminRoutes.requestSpecForTask(PurgeProxyCacheTask.class));
+    }
+
+    @Override
+    public GetDelaySchedulerStatsResult getDelaySchedulerStats() {
+        return executeRequest(adminRoutes.requestSpecForTask(GetDelaySchedulerStatsTask.class), GetDelaySchedulerStatsResult.class);
+    }
+
     @Override
     public Options getOptions() {
         return new WireMockConfiguration().port(port).bindAddress(host);
@@ -41,6 +41,7 @@ public class ResponseDefinitionBuilder {
 	protected Integer fixedDelayMilliseconds;
 	protected DelayDistribution delayDistribution;
 	protected ChunkedDribbleDelay chunkedDribbleDelay;
+	protected Integer throttleBytesPerSecond;
 	protected String proxyBaseUrl;
 	protected Fault fault;
 	protected List<String> responseTransformerNames;
@@ -61,6 +62,7 @@ public class ResponseDefinitionBuilder {
 		builder.fixedDelayMilliseconds = responseDefinition.getFixedDelayMilliseconds();
 		builder.delayDistribution = responseDefinition.getDelayDistribution();
 		builder.chunkedDribbleDelay = responseDefinition.getChunkedDribbleDelay();
+		builder.throttleBytesPerSecond = responseDefinition.getThrottleBytesPerSecond();
 		builder.proxyBaseUrl = responseDefinition.getProxyBaseUrl();
 		builder.fault = responseDefinition.getFault();
 		builder.responseTransformerNames = responseDefinition.getTransformers();
@@ -135,6 +137,11 @@ public class ResponseDefinitionBuilder {
 		return this;
 	}
 
+	public ResponseDefinitionBuilder withThrottleBytesPerSecond(int bytesPerSecond) {
+		this.throttleBytesPerSecond = bytesPerSecond;
+		return this;
+	}
+
 	public ResponseDefinitionBuilder withTransformers(String... responseTransformerNames) {
 		this.responseTransformerNames = asList(responseTransformerNames);
 		return this;
@@ -205,6 +212,7 @@ public class ResponseDefinitionBuilder {
 			this.fixedDelayMilliseconds = from.fixedDelayMilliseconds;
 			this.delayDistribution = from.delayDistribution;
 			this.chunkedDribbleDelay = from.chunkedDribbleDelay;
+			this.throttleBytesPerSecond = from.throttleBytesPerSecond;
 			this.proxyBaseUrl = from.proxyBaseUrl;
 			this.responseTransformerNames = from.responseTransformerNames;
 			this.transformerParameters = from.transformerParameters;
@@ -252,6 +260,7 @@ public class ResponseDefinitionBuilder {
 						fixedDelayMilliseconds,
 						delayDistribution,
 						chunkedDribbleDelay,
+						throttleBytesPerSecond,
 						proxyBaseUrl,
 						fault,
 						responseTransformerNames,
@@ -269,6 +278,7 @@ public class ResponseDefinitionBuilder {
 						fixedDelayMilliseconds,
 						delayDistribution,
 						chunkedDribbleDelay,
+						throttleBytesPerSecond,
 						proxyBaseUrl,
 						fault,
 						responseTransformerNames,
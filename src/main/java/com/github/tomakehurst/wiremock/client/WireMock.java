@@ -15,6 +15,9 @@
  */
 package com.github.tomakehurst.wiremock.client;
 
+import com.github.tomakehurst.wiremock.admin.model.GetDelaySchedulerStatsResult;
+import com.github.tomakehurst.wiremock.admin.model.GetProxyCacheResult;
+import com.github.tomakehurst.wiremock.admin.model.GetProxyConnectionPoolStatsResult;
 import com.github.tomakehurst.wiremock.admin.model.ListStubMappingsResult;
 import com.github.tomakehurst.wiremock.admin.model.SingleStubMappingResult;
 import com.github.tomakehurst.wiremock.recording.RecordingStatusResult;
@@ -757,6 +760,38 @@ public class WireMock {
         return admin.getRecordingStatus();
     }
 
+    public static GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats() {
+        return defaultInstance.get().getProxyConnectionPool();
+    }
+
+    public GetProxyConnectionPoolStatsResult getProxyConnectionPool() {
+        return admin.getProxyConnectionPoolStats();
+    }
+
+    public static GetProxyCacheResult getProxyCache() {
+        return defaultInstance.get().getProxyCacheContents();
+    }
+
+    public GetProxyCacheResult getProxyCacheContents() {
+        return admin.getProxyCache();
+    }
+
+    public static void purgeProxyCache() {
+        defaultInstance.get().purgeProxyCacheContents();
+    }
+
+    public void purgeProxyCacheContents() {
+        admin.purgeProxyCache();
+    }
+
+    public static GetDelaySchedulerStatsResult getDelaySchedulerStats() {
+        return defaultInstance.get().getDelayScheduler();
+    }
+
+    public GetDelaySchedulerStatsResult getDelayScheduler() {
+        return admin.getDelaySchedulerStats();
+    }
+
     public static RecordSpecBuilder recordSpec() {
         return new RecordSpecBuilder();
     }
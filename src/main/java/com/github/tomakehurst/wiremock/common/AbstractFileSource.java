@@ -33,17 +33,28 @@ import static com.google.common.collect.Lists.newArrayList;
 public abstract class AbstractFileSource implements FileSource {
 
     protected final File rootDirectory;
-    
+    final BodyFileCache bodyFileCache;
+
     public AbstractFileSource(File rootDirectory) {
+        this(rootDirectory, new BodyFileCache());
+    }
+
+    AbstractFileSource(File rootDirectory, BodyFileCache bodyFileCache) {
         this.rootDirectory = rootDirectory;
+        this.bodyFileCache = bodyFileCache;
     }
 
     protected abstract boolean readOnly();
 
     @Override
     public BinaryFile getBinaryFileNamed(final String name) {
+        BinaryFile binaryFile = bodyFileCache.getVerified(rootDirectory, name);
+        if (binaryFile != null) {
+            return binaryFile;
+        }
+
         assertFilePathIsUnderRoot(name);
-        return new BinaryFile(new File(rootDirectory, name).toURI());
+        return bodyFileCache.putVerified(rootDirectory, name, new File(rootDirectory, name));
     }
 
     @Override
@@ -101,17 +112,23 @@ public abstract class AbstractFileSource implements FileSource {
 
     @Override
     public void writeTextFile(String name, String contents) {
-    	writeTextFileAndTranslateExceptions(contents, writableFileFor(name));
+        File file = writableFileFor(name);
+        writeTextFileAndTranslateExceptions(contents, file);
+        bodyFileCache.invalidate(file);
     }
 
     @Override
     public void writeBinaryFile(String name, byte[] contents) {
-        writeBinaryFileAndTranslateExceptions(contents, writableFileFor(name));
+        File file = writableFileFor(name);
+        writeBinaryFileAndTranslateExceptions(contents, file);
+        bodyFileCache.invalidate(file);
     }
 
     @Override
     public void deleteFile(String name) {
-        writableFileFor(name).delete();
+        File file = writableFileFor(name);
+        file.delete();
+        bodyFileCache.invalidate(file);
     }
 
     @Override
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.util.concurrent.Uninterruptibles.putUninterruptibly;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Hands messages to another notifier on a background thread, so that formatting and writing them doesn't hold up
+ * the threads serving requests. Messages are queued as given, with {@link LogMessage}s formatted only once they're
+ * taken off the queue, and nothing at all is queued for informational messages the delegate wouldn't write.
+ *
+ * The queue is bounded. When it's full, informational messages are either dropped (the default), with a count of
+ * those dropped reported once there's room, or wait for space. Error messages always wait rather than being lost.
+ *
+ * The writer thread is started when a message is queued and exits once the queue has been empty for a while, so an
+ * idle notifier holds no threads and needs no shutting down.
+ */
+public class AsynchronousNotifier implements StructuredNotifier {
+
+    public static final int DEFAULT_QUEUE_SIZE = 8192;
+
+    private static final long IDLE_TIMEOUT_MILLIS = 10000;
+
+    private final Notifier delegate;
+    private final boolean blockWhenFull;
+    private final BlockingQueue<Entry> queue;
+    private final AtomicBoolean writerRunning = new AtomicBoolean();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong unreportedDroppedCount = new AtomicLong();
+
+    public AsynchronousNotifier(Notifier delegate) {
+        this(delegate, DEFAULT_QUEUE_SIZE, false);
+    }
+
+    public AsynchronousNotifier(Notifier delegate, int queueSize, boolean blockWhenFull) {
+        this.delegate = delegate;
+        this.blockWhenFull = blockWhenFull;
+        queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return Notifiers.isInfoEnabled(delegate);
+    }
+
+    @Override
+    public void info(String message) {
+        if (isInfoEnabled()) {
+            enqueueInfo(new Entry(message, null, false, null));
+        }
+    }
+
+    @Override
+    public void info(LogMessage message) {
+        if (isInfoEnabled()) {
+            enqueueInfo(new Entry(null, message, false, null));
+        }
+    }
+
+    @Override
+    public void error(String message) {
+        enqueue(new Entry(message, null, true, null));
+    }
+
+    @Override
+    public void error(String message, Throwable t) {
+        enqueue(new Entry(message, null, true, t));
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void enqueueInfo(Entry entry) {
+        if (blockWhenFull) {
+            enqueue(entry);
+        } else if (queue.offer(entry)) {
+            startWriterIfStopped();
+        } else {
+            droppedCount.incrementAndGet();
+            unreportedDroppedCount.incrementAndGet();
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        putUninterruptibly(queue, entry);
+        startWriterIfStopped();
+    }
+
+    private void startWriterIfStopped() {
+        if (writerRunning.compareAndSet(false, true)) {
+            Thread writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runWriter();
+                }
+            }, "wiremock-notifier");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            Entry entry;
+            try {
+                entry = queue.poll(IDLE_TIMEOUT_MILLIS, MILLISECONDS);
+            } catch (InterruptedException e) {
+                entry = null;
+            }
+
+            if (entry == null) {
+                if (stopWriterIfStillIdle()) {
+                    return;
+                }
+                continue;
+            }
+
+            write(entry);
+
+            if (queue.isEmpty()) {
+                reportDroppedMessages();
+            }
+        }
+    }
+
+    private void reportDroppedMessages() {
+        long dropped = unreportedDroppedCount.getAndSet(0);
+        if (dropped > 0) {
+            delegate.error("Dropped " + dropped + " log messages because the queue was full");
+        }
+    }
+
+    // A message queued while stopping either sees the writer stopped and starts another, or is seen here
+    private boolean stopWriterIfStillIdle() {
+        writerRunning.set(false);
+        return queue.isEmpty() || !writerRunning.compareAndSet(false, true);
+    }
+
+    private void write(Entry entry) {
+        try {
+            if (!entry.error) {
+                delegate.info(entry.text != null ? entry.text : entry.message.format());
+            } else if (entry.throwable != null) {
+                delegate.error(entry.text, entry.throwable);
+            } else {
+                delegate.error(entry.text);
+            }
+        } catch (RuntimeException e) {
+            delegate.error("Failed to write log message", e);
+        }
+    }
+
+    private static class Entry {
+
+        final String text;
+        final LogMessage message;
+        final boolean error;
+        final Throwable throwable;
+
+        Entry(String text, LogMessage message, boolean error, Throwable throwable) {
+            this.text = text;
+            this.message = message;
+            this.error = error;
+            this.throwable = throwable;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+public class AsynchronousProxySettings {
+
+    public static final AsynchronousProxySettings DISABLED = new AsynchronousProxySettings(false, 0);
+
+    private final boolean enabled;
+    private final int threads;
+
+    public AsynchronousProxySettings(boolean enabled, int threads) {
+        this.enabled = enabled;
+        this.threads = threads;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The most proxy round trips in flight at once, or 0 to allow one per pooled connection
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public int threadsFor(ProxyConnectionPoolSettings poolSettings) {
+        return threads > 0 ? threads : poolSettings.getMaxConnections();
+    }
+}
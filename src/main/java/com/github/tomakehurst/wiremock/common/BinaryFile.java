@@ -17,6 +17,7 @@ package com.github.tomakehurst.wiremock.common;
 
 import com.google.common.io.ByteStreams;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -43,6 +44,14 @@ public class BinaryFile implements InputStreamSource {
 		return uri;
 	}
 
+	/**
+	 * Returns the time the file was last modified, or 0 if it isn't on the file system (e.g. it's in a jar)
+	 * and so can't change while running.
+	 */
+	public long lastModified() {
+		return "file".equals(uri.getScheme()) ? new File(uri).lastModified() : 0;
+	}
+
 	public String name() {
 		return uri.toString();
 	}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * Holds the contents of body files in memory so that serving one doesn't mean re-opening and re-reading it.
+ * Small files are kept on the heap in a size bounded LRU, and larger ones are memory-mapped. Each use checks
+ * the file's modification time and length, so files changed on disk are reloaded. Files written or deleted
+ * through a {@link FileSource} sharing this cache are dropped immediately.
+ *
+ * Files aren't mapped on Windows, as a mapping there stops the file from being edited or deleted until the
+ * buffer is garbage collected. Such files are streamed from disk as before.
+ *
+ * A mapping can't safely be unmapped while a response might still be reading from it, so invalidating one only
+ * drops it from the cache and the memory is released once the buffer is garbage collected. Reads from a mapping
+ * check the file hasn't been truncated first, and fail with an IOException rather than faulting if it is
+ * truncated part way through a read.
+ */
+class BodyFileCache {
+
+    private static final int MAX_VERIFIED_PATHS = 10000;
+
+    private static final boolean CAN_MAP_FILES =
+        !System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("windows");
+
+    private final BodyFileCacheSettings settings;
+
+    private final Cache<VerifiedKey, BinaryFile> verifiedFiles = CacheBuilder.newBuilder()
+        .maximumSize(MAX_VERIFIED_PATHS)
+        .build();
+
+    private final Cache<String, Contents> heapContents;
+    private final Cache<String, Contents> mappedContents;
+
+    BodyFileCache() {
+        this(BodyFileCacheSettings.DEFAULTS);
+    }
+
+    BodyFileCache(BodyFileCacheSettings settings) {
+        this.settings = settings;
+        heapContents = CacheBuilder.newBuilder()
+            .maximumWeight(settings.getMaxHeapBytes())
+            .weigher(new Weigher<String, Contents>() {
+                @Override
+                public int weigh(String key, Contents value) {
+                    return (int) value.length;
+                }
+            })
+            .build();
+        mappedContents = CacheBuilder.newBuilder()
+            .maximumSize(settings.getMaxMappedFiles())
+            .build();
+    }
+
+    /**
+     * Returns the file previously verified as being under the given root, or null if it hasn't been.
+     */
+    BinaryFile getVerified(File rootDirectory, String name) {
+        return verifiedFiles.getIfPresent(verifiedKey(rootDirectory, name));
+    }
+
+    BinaryFile putVerified(File rootDirectory, String name, File file) {
+        BinaryFile binaryFile = new CachedBinaryFile(file);
+        verifiedFiles.put(verifiedKey(rootDirectory, name), binaryFile);
+        return binaryFile;
+    }
+
+    void invalidate(File file) {
+        String key = file.getAbsolutePath();
+        heapContents.invalidate(key);
+        mappedContents.invalidate(key);
+    }
+
+    /**
+     * Returns a stream over the file's current contents, or null if they can't be cached (e.g. because the
+     * file doesn't exist) and so should be read from disk.
+     */
+    InputStream openStream(File file) throws IOException {
+        String key = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        if (lastModified == 0) {
+            invalidate(file);
+            return null;
+        }
+
+        Contents contents = heapContents.getIfPresent(key);
+        if (contents == null) {
+            contents = mappedContents.getIfPresent(key);
+        }
+
+        if (contents == null || contents.lastModified != lastModified || contents.length != length) {
+            contents = load(file, lastModified, length);
+            if (contents == null) {
+                invalidate(file);
+                return null;
+            }
+
+            invalidate(file);
+            (contents.mapped ? mappedContents : heapContents).put(key, contents);
+        }
+
+        ByteBuffer buffer = contents.buffer.duplicate();
+        return contents.mapped ?
+            new MappedFileInputStream(file, contents.length, buffer) :
+            new ByteBufferInputStream(buffer);
+    }
+
+    private Contents load(File file, long lastModified, long length) throws IOException {
+        if (length <= settings.getMaxHeapFileBytes()) {
+            byte[] bytes = Files.toByteArray(file);
+            return new Contents(lastModified, bytes.length, ByteBuffer.wrap(bytes).asReadOnlyBuffer(), false);
+        }
+
+        if (!CAN_MAP_FILES || settings.getMaxMappedFiles() == 0 || length > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            long size = channel.size();
+            return new Contents(lastModified, size, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), true);
+        }
+    }
+
+    private static VerifiedKey verifiedKey(File rootDirectory, String name) {
+        return new VerifiedKey(rootDirectory, name);
+    }
+
+    private static class VerifiedKey {
+
+        private final File rootDirectory;
+        private final String name;
+
+        VerifiedKey(File rootDirectory, String name) {
+            this.rootDirectory = rootDirectory;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            VerifiedKey that = (VerifiedKey) o;
+            return rootDirectory.equals(that.rootDirectory) && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rootDirectory.hashCode() + name.hashCode();
+        }
+    }
+
+    /**
+     * Reads a mapped file, checking before each read that it's still at least as long as when it was mapped.
+     * Truncating a mapped file makes reading past its new end fault, which surfaces as an InternalError.
+     */
+    private class MappedFileInputStream extends ByteBufferInputStream {
+
+        private final File file;
+        private final long mappedLength;
+
+        MappedFileInputStream(File file, long mappedLength, ByteBuffer buffer) {
+            super(buffer);
+            this.file = file;
+            this.mappedLength = mappedLength;
+        }
+
+        @Override
+        public ByteBuffer remainingBuffer() {
+            try {
+                assertNotTruncated();
+            } catch (IOException e) {
+                return Exceptions.throwUnchecked(e, ByteBuffer.class);
+            }
+            return super.remainingBuffer();
+        }
+
+        @Override
+        public int read() throws IOException {
+            assertNotTruncated();
+            try {
+                return super.read();
+            } catch (InternalError e) {
+                throw truncated(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            assertNotTruncated();
+            try {
+                return super.read(bytes, offset, length);
+            } catch (InternalError e) {
+                throw truncated(e);
+            }
+        }
+
+        private void assertNotTruncated() throws IOException {
+            if (file.length() < mappedLength) {
+                throw truncated(null);
+            }
+        }
+
+        private IOException truncated(Throwable cause) {
+            invalidate(file);
+            return new IOException(file + " was truncated while being read", cause);
+        }
+    }
+
+    private class CachedBinaryFile extends BinaryFile {
+
+        private final File file;
+
+        CachedBinaryFile(File file) {
+            super(file.toURI());
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getStream() {
+            try {
+                InputStream stream = openStream(file);
+                return stream != null ? stream : super.getStream();
+            } catch (IOException e) {
+                return Exceptions.throwUnchecked(e, InputStream.class);
+            }
+        }
+    }
+
+    private static class Contents {
+
+        final long lastModified;
+        final long length;
+        final ByteBuffer buffer;
+        final boolean mapped;
+
+        Contents(long lastModified, long length, ByteBuffer buffer, boolean mapped) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.buffer = buffer;
+            this.mapped = mapped;
+        }
+    }
+}
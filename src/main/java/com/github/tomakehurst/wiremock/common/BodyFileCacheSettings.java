@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+public class BodyFileCacheSettings {
+
+    public static final long DEFAULT_MAX_HEAP_BYTES = 64 * 1024 * 1024;
+    public static final long DEFAULT_MAX_HEAP_FILE_BYTES = 1024 * 1024;
+    public static final int DEFAULT_MAX_MAPPED_FILES = 64;
+
+    public static final BodyFileCacheSettings DEFAULTS =
+        new BodyFileCacheSettings(DEFAULT_MAX_HEAP_BYTES, DEFAULT_MAX_HEAP_FILE_BYTES, DEFAULT_MAX_MAPPED_FILES);
+
+    private final long maxHeapBytes;
+    private final long maxHeapFileBytes;
+    private final int maxMappedFiles;
+
+    public BodyFileCacheSettings(long maxHeapBytes, long maxHeapFileBytes, int maxMappedFiles) {
+        this.maxHeapBytes = maxHeapBytes;
+        this.maxHeapFileBytes = maxHeapFileBytes;
+        this.maxMappedFiles = maxMappedFiles;
+    }
+
+    /**
+     * The most bytes of body file contents held on the heap in total
+     */
+    public long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    /**
+     * Files up to this size are held on the heap. Larger ones are memory-mapped.
+     */
+    public long getMaxHeapFileBytes() {
+        return maxHeapFileBytes;
+    }
+
+    /**
+     * The most files kept memory-mapped at once. Zero means larger files are always streamed from disk.
+     */
+    public int getMaxMappedFiles() {
+        return maxMappedFiles;
+    }
+}
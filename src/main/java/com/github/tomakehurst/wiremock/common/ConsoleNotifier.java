@@ -15,14 +15,14 @@
  */
 package com.github.tomakehurst.wiremock.common;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import org.apache.commons.lang3.time.FastDateFormat;
 
 import static java.lang.System.err;
 import static java.lang.System.out;
 
-public class ConsoleNotifier implements Notifier {
+public class ConsoleNotifier implements StructuredNotifier {
+
+    private static final FastDateFormat DATE_FORMAT = FastDateFormat.getInstance("yyyy-MM-dd HH:mm:ss.SSS");
 
     private final boolean verbose;
 
@@ -33,6 +33,11 @@ public class ConsoleNotifier implements Notifier {
         }
     }
 
+    @Override
+    public boolean isInfoEnabled() {
+        return verbose;
+    }
+
     @Override
     public void info(String message) {
         if (verbose) {
@@ -40,6 +45,13 @@ public class ConsoleNotifier implements Notifier {
         }
     }
 
+    @Override
+    public void info(LogMessage message) {
+        if (verbose) {
+            out.println(formatMessage(message.format()));
+        }
+    }
+
     @Override
     public void error(String message) {
         err.println(formatMessage(message));
@@ -52,8 +64,6 @@ public class ConsoleNotifier implements Notifier {
     }
 
     private static String formatMessage(String message) {
-        DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
-        String date = df.format(new Date());
-        return String.format("%s %s", date, message);
+        return DATE_FORMAT.format(System.currentTimeMillis()) + " " + message;
     }
 }
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Runs tasks after a delay, bucketed by the tick they fall due in on a fixed size wheel, so scheduling and
+ * expiring a task costs the same however many are pending, unlike the heap behind a ScheduledThreadPoolExecutor.
+ * Tasks are run on the timer's own thread and so must hand off anything that might block.
+ *
+ * The thread is started when a task is scheduled and exits once nothing has been pending for a while, so an
+ * idle timer holds no threads and needs no shutting down. Lateness (how long after its due time each task
+ * actually ran) is tracked, and reported to the notifier when it's significant.
+ */
+public class HashedWheelTimer {
+
+    private static final long DEFAULT_TICK_MILLIS = 1;
+    private static final int DEFAULT_TICKS_PER_WHEEL = 1024;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 10000;
+    private static final long LATENESS_REPORTING_THRESHOLD_NANOS = MILLISECONDS.toNanos(50);
+    private static final long LATENESS_REPORTING_INTERVAL_NANOS = SECONDS.toNanos(10);
+
+    private final String name;
+    private final Notifier notifier;
+    private final long tickNanos;
+    private final long idleTimeoutNanos;
+    private final List<List<Timeout>> wheel;
+    private final int mask;
+    private final long startTime = System.nanoTime();
+
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean workerRunning = new AtomicBoolean();
+    private volatile Thread worker;
+    private volatile boolean workerIdle;
+
+    // Only touched by the worker thread
+    private long processedTick;
+    private long maxLatenessSinceReport;
+    private long lastReportTime = startTime - LATENESS_REPORTING_INTERVAL_NANOS;
+
+    private volatile long expiredCount;
+    private volatile long totalLatenessNanos;
+    private volatile long maxLatenessNanos;
+
+    public HashedWheelTimer(String name, Notifier notifier) {
+        this(name, notifier, DEFAULT_TICK_MILLIS, MILLISECONDS, DEFAULT_TICKS_PER_WHEEL, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    HashedWheelTimer(String name, Notifier notifier, long tickDuration, TimeUnit unit, int ticksPerWheel, long idleTimeoutMillis) {
+        int wheelSize = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        this.name = name;
+        this.notifier = notifier;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.idleTimeoutNanos = MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.wheel = new ArrayList<>(wheelSize);
+        this.mask = wheelSize - 1;
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayList<Timeout>());
+        }
+    }
+
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        // Counted before it's queued, so the worker never sees it without it being counted and goes idle
+        pendingCount.incrementAndGet();
+        newTimeouts.add(new Timeout(task, System.nanoTime() + unit.toNanos(delay)));
+
+        if (workerRunning.compareAndSet(false, true)) {
+            startWorker();
+        } else if (workerIdle) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * The number of tasks scheduled but not yet run.
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    public double getMeanLatenessMillis() {
+        long expired = expiredCount;
+        return expired == 0 ? 0 : (double) NANOSECONDS.toMicros(totalLatenessNanos) / 1000 / expired;
+    }
+
+    public long getMaxLatenessMillis() {
+        return NANOSECONDS.toMillis(maxLatenessNanos);
+    }
+
+    private void startWorker() {
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runWorker();
+            }
+        }, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void runWorker() {
+        processedTick = currentTick(System.nanoTime());
+        long idleSince = -1;
+
+        while (true) {
+            long now = System.nanoTime();
+            long currentTick = currentTick(now);
+            transferNewTimeouts();
+            while (processedTick < currentTick) {
+                processedTick++;
+                expireTimeouts(wheel.get((int) (processedTick & mask)), now);
+            }
+            reportLatenessIfSignificant(now);
+
+            if (pendingCount.get() > 0) {
+                idleSince = -1;
+                LockSupport.parkNanos(this, startTime + (processedTick + 1) * tickNanos - System.nanoTime());
+                continue;
+            }
+
+            if (idleSince < 0) {
+                idleSince = now;
+            } else if (now - idleSince >= idleTimeoutNanos && stopWorkerIfStillIdle()) {
+                return;
+            }
+
+            workerIdle = true;
+            if (pendingCount.get() == 0) {
+                LockSupport.parkNanos(this, idleTimeoutNanos);
+            }
+            workerIdle = false;
+
+            // Nothing is in the wheel, so there's no need to step through the ticks that passed while parked
+            processedTick = currentTick(System.nanoTime());
+        }
+    }
+
+    // A task scheduled while stopping either sees the worker stopped and starts another, or is seen here
+    private boolean stopWorkerIfStillIdle() {
+        workerRunning.set(false);
+        if (pendingCount.get() == 0 || !workerRunning.compareAndSet(false, true)) {
+            return true;
+        }
+
+        return false;
+    }
+
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            long deadlineTick = Math.max(
+                (timeout.deadline - startTime + tickNanos - 1) / tickNanos,
+                processedTick + 1);
+            timeout.remainingRounds = (deadlineTick - processedTick - 1) / wheel.size();
+            wheel.get((int) (deadlineTick & mask)).add(timeout);
+        }
+    }
+
+    private void expireTimeouts(List<Timeout> bucket, long now) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+
+            iterator.remove();
+            pendingCount.decrementAndGet();
+            recordLateness(Math.max(0, now - timeout.deadline));
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                if (notifier != null) {
+                    notifier.error("Scheduled task failed", e);
+                }
+            }
+        }
+    }
+
+    private void recordLateness(long latenessNanos) {
+        expiredCount++;
+        totalLatenessNanos += latenessNanos;
+        if (latenessNanos > maxLatenessNanos) {
+            maxLatenessNanos = latenessNanos;
+        }
+        if (latenessNanos > maxLatenessSinceReport) {
+            maxLatenessSinceReport = latenessNanos;
+        }
+    }
+
+    private void reportLatenessIfSignificant(long now) {
+        if (notifier == null ||
+            maxLatenessSinceReport < LATENESS_REPORTING_THRESHOLD_NANOS ||
+            now - lastReportTime < LATENESS_REPORTING_INTERVAL_NANOS) {
+            return;
+        }
+
+        notifier.info(String.format(
+            "%s is running late: tasks ran up to %dms after they were due, with %d still pending",
+            name,
+            NANOSECONDS.toMillis(maxLatenessSinceReport),
+            pendingCount.get()));
+        maxLatenessSinceReport = 0;
+        lastReportTime = now;
+    }
+
+    private long currentTick(long now) {
+        return (now - startTime) / tickNanos;
+    }
+
+    private static class Timeout {
+
+        final Runnable task;
+        final long deadline;
+        long remainingRounds;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+}
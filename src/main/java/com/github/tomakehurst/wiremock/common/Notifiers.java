@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+/**
+ * Deferred logging for any notifier. Those that can't defer formatting are given the formatted message straight away.
+ */
+public class Notifiers {
+
+    public static boolean isInfoEnabled(Notifier notifier) {
+        return !(notifier instanceof StructuredNotifier) || ((StructuredNotifier) notifier).isInfoEnabled();
+    }
+
+    public static void info(Notifier notifier, LogMessage message) {
+        if (notifier instanceof StructuredNotifier) {
+            ((StructuredNotifier) notifier).info(message);
+        } else {
+            notifier.info(message.format());
+        }
+    }
+}
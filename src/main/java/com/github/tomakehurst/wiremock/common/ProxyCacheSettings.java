@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Settings for caching the responses of services being proxied to.
+ */
+public class ProxyCacheSettings {
+
+    public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+
+    public static final ProxyCacheSettings DISABLED = new ProxyCacheSettings(false, DEFAULT_MAX_BYTES, 0, Collections.<String>emptyList());
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final int defaultTtlSeconds;
+    private final List<String> keyHeaders;
+
+    public ProxyCacheSettings(boolean enabled, long maxBytes, int defaultTtlSeconds, List<String> keyHeaders) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.keyHeaders = ImmutableList.copyOf(keyHeaders);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The most bytes of response bodies held at once, beyond which the least recently used are evicted
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * How long a response that doesn't say how long it may be cached for is served without asking the target again.
+     * With 0, such responses are only kept if they can be revalidated, i.e. carry an ETag or Last-Modified header.
+     */
+    public int getDefaultTtlSeconds() {
+        return defaultTtlSeconds;
+    }
+
+    /**
+     * Request headers whose values, along with the method and URL, identify a cached response
+     */
+    public List<String> getKeyHeaders() {
+        return keyHeaders;
+    }
+}
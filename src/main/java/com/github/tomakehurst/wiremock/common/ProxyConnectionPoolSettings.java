@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.base.Optional;
+
+/**
+ * Tuning options for the pool of connections used when proxying to other services.
+ */
+public class ProxyConnectionPoolSettings {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 1000;
+
+    public static final ProxyConnectionPoolSettings DEFAULTS = Builder.aProxyConnectionPoolSettings().build();
+
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final Optional<Integer> connectTimeout;
+    private final Optional<Integer> leaseTimeout;
+    private final Optional<Long> keepAlive;
+    private final Optional<Long> maxIdleTime;
+    private final int staleCheckAfterInactivity;
+
+    private ProxyConnectionPoolSettings(int maxConnections,
+                                        int maxConnectionsPerRoute,
+                                        Optional<Integer> connectTimeout,
+                                        Optional<Integer> leaseTimeout,
+                                        Optional<Long> keepAlive,
+                                        Optional<Long> maxIdleTime,
+                                        int staleCheckAfterInactivity) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.connectTimeout = connectTimeout;
+        this.leaseTimeout = leaseTimeout;
+        this.keepAlive = keepAlive;
+        this.maxIdleTime = maxIdleTime;
+        this.staleCheckAfterInactivity = staleCheckAfterInactivity;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Milliseconds to wait for a connection to the target to be established
+     */
+    public Optional<Integer> getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Milliseconds to wait for a connection to become free when the pool is at its limit
+     */
+    public Optional<Integer> getLeaseTimeout() {
+        return leaseTimeout;
+    }
+
+    /**
+     * The most milliseconds a connection is kept for reuse, whatever the target says
+     */
+    public Optional<Long> getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Milliseconds after which connections left unused are closed in the background
+     */
+    public Optional<Long> getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    /**
+     * Milliseconds a pooled connection must have been unused before it's checked for having gone stale. 0 checks it
+     * every time, and a negative value never does.
+     */
+    public int getStaleCheckAfterInactivity() {
+        return staleCheckAfterInactivity;
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyConnectionPoolSettings{" +
+                "maxConnections=" + maxConnections +
+                ", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+                ", connectTimeout=" + connectTimeout +
+                ", leaseTimeout=" + leaseTimeout +
+                ", keepAlive=" + keepAlive +
+                ", maxIdleTime=" + maxIdleTime +
+                ", staleCheckAfterInactivity=" + staleCheckAfterInactivity +
+                '}';
+    }
+
+    public static class Builder {
+        private Integer maxConnections;
+        private Integer maxConnectionsPerRoute;
+        private Integer connectTimeout;
+        private Integer leaseTimeout;
+        private Long keepAlive;
+        private Long maxIdleTime;
+        private Integer staleCheckAfterInactivity;
+
+        private Builder() {
+        }
+
+        public static Builder aProxyConnectionPoolSettings() {
+            return new Builder();
+        }
+
+        public Builder withMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder withMaxConnectionsPerRoute(Integer maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        public Builder withConnectTimeout(Integer connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder withLeaseTimeout(Integer leaseTimeout) {
+            this.leaseTimeout = leaseTimeout;
+            return this;
+        }
+
+        public Builder withKeepAlive(Long keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        public Builder withMaxIdleTime(Long maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        public Builder withStaleCheckAfterInactivity(Integer staleCheckAfterInactivity) {
+            this.staleCheckAfterInactivity = staleCheckAfterInactivity;
+            return this;
+        }
+
+        // Proxying is usually to one or two targets, so by default a single route may use the whole pool
+        public ProxyConnectionPoolSettings build() {
+            int total = maxConnections != null ? maxConnections : DEFAULT_MAX_CONNECTIONS;
+            return new ProxyConnectionPoolSettings(
+                    total,
+                    maxConnectionsPerRoute != null ? maxConnectionsPerRoute : total,
+                    Optional.fromNullable(connectTimeout),
+                    Optional.fromNullable(leaseTimeout),
+                    Optional.fromNullable(keepAlive),
+                    Optional.fromNullable(maxIdleTime),
+                    staleCheckAfterInactivity != null ? staleCheckAfterInactivity : 0);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+public class ProxyStreamingSettings {
+
+    public static final int DEFAULT_BUFFER_BYTES = 1024 * 1024;
+
+    public static final ProxyStreamingSettings DISABLED = new ProxyStreamingSettings(false, DEFAULT_BUFFER_BYTES);
+
+    private final boolean enabled;
+    private final int bufferBytes;
+
+    public ProxyStreamingSettings(boolean enabled, int bufferBytes) {
+        this.enabled = enabled;
+        this.bufferBytes = bufferBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The most bytes of each streamed response body kept for the request journal
+     */
+    public int getBufferBytes() {
+        return bufferBytes;
+    }
+}
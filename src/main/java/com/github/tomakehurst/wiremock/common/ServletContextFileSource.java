@@ -24,7 +24,11 @@ public class ServletContextFileSource extends AbstractFileSource {
     private final ServletContext servletContext;
     
     public ServletContextFileSource(ServletContext servletContext, String rootPath) {
-        super(getRootFile(servletContext, rootPath));
+        this(servletContext, rootPath, new BodyFileCache());
+    }
+
+    private ServletContextFileSource(ServletContext servletContext, String rootPath, BodyFileCache bodyFileCache) {
+        super(getRootFile(servletContext, rootPath), bodyFileCache);
         this.rootPath = rootPath;
         this.servletContext = servletContext;
     }
@@ -38,7 +42,7 @@ public class ServletContextFileSource extends AbstractFileSource {
 
     @Override
     public FileSource child(String subDirectoryName) {
-        return new ServletContextFileSource(servletContext, rootPath + '/' + subDirectoryName);
+        return new ServletContextFileSource(servletContext, rootPath + '/' + subDirectoryName, bodyFileCache);
     }
 
     @Override
@@ -26,10 +26,18 @@ public class SingleRootFileSource extends AbstractFileSource {
 	public SingleRootFileSource(String rootPath) {
 	    super(new File(rootPath));
 	}
+
+	public SingleRootFileSource(File rootDirectory, BodyFileCacheSettings bodyFileCacheSettings) {
+		super(rootDirectory, new BodyFileCache(bodyFileCacheSettings));
+	}
+
+	private SingleRootFileSource(File rootDirectory, BodyFileCache bodyFileCache) {
+		super(rootDirectory, bodyFileCache);
+	}
 	
 	@Override
     public FileSource child(String subDirectoryName) {
-        return new SingleRootFileSource(new File(rootDirectory, subDirectoryName));
+        return new SingleRootFileSource(new File(rootDirectory, subDirectoryName), bodyFileCache);
     }
 
     @Override
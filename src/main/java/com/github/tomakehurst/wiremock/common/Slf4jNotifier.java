@@ -18,7 +18,7 @@ package com.github.tomakehurst.wiremock.common;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class Slf4jNotifier implements Notifier {
+public class Slf4jNotifier implements StructuredNotifier {
 
     private static final Logger log = LoggerFactory.getLogger("WireMock");
 
@@ -28,6 +28,11 @@ public class Slf4jNotifier implements Notifier {
         this.verbose = verbose;
     }
 
+    @Override
+    public boolean isInfoEnabled() {
+        return verbose && log.isInfoEnabled();
+    }
+
     @Override
     public void info(String message) {
         if (verbose) {
@@ -35,6 +40,13 @@ public class Slf4jNotifier implements Notifier {
         }
     }
 
+    @Override
+    public void info(LogMessage message) {
+        if (isInfoEnabled()) {
+            log.info(message.format());
+        }
+    }
+
     @Override
     public void error(String message) {
         log.error(message);
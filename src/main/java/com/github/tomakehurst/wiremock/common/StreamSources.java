@@ -17,6 +17,7 @@ package com.github.tomakehurst.wiremock.common;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 public class StreamSources {
@@ -27,7 +28,7 @@ public class StreamSources {
         return new InputStreamSource() {
             @Override
             public InputStream getStream() {
-                return string == null ? null : new ByteArrayInputStream(Strings.bytesFromString(string, charset));
+                return string == null ? null : new ByteBufferInputStream(ByteBuffer.wrap(Strings.bytesFromString(string, charset)));
             }
         };
     }
@@ -36,7 +37,7 @@ public class StreamSources {
         return new InputStreamSource() {
             @Override
             public InputStream getStream() {
-                return bytes == null ? null : new ByteArrayInputStream(bytes);
+                return bytes == null ? null : new ByteBufferInputStream(ByteBuffer.wrap(bytes));
             }
         };
     }
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+/**
+ * A notifier that can say whether it would write informational messages, and can be given them unformatted.
+ */
+public interface StructuredNotifier extends Notifier {
+
+    boolean isInfoEnabled();
+
+    /**
+     * Writes the message if informational messages are enabled, formatting it no earlier than it's written
+     */
+    void info(LogMessage message);
+}
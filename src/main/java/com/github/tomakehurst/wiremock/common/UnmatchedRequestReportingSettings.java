@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+/**
+ * Settings for reporting requests no stub matched to the notifier, along with a diff against the nearest stub.
+ */
+public class UnmatchedRequestReportingSettings {
+
+    public static final UnmatchedRequestReportingSettings DEFAULTS = new UnmatchedRequestReportingSettings(false, 0);
+
+    private final boolean asynchronous;
+    private final int maxReportsPerSecond;
+
+    public UnmatchedRequestReportingSettings(boolean asynchronous, int maxReportsPerSecond) {
+        this.asynchronous = asynchronous;
+        this.maxReportsPerSecond = maxReportsPerSecond;
+    }
+
+    /**
+     * Whether the nearest stub is found and the diff rendered on a background thread, after the response is sent
+     */
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    /**
+     * The most unmatched requests reported each second, with any beyond that counted but not diffed. 0 for no limit.
+     */
+    public int getMaxReportsPerSecond() {
+        return maxReportsPerSecond;
+    }
+}
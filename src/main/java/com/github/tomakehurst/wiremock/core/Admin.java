@@ -71,6 +71,12 @@ public interface Admin {
     SnapshotRecordResult stopRecording();
     RecordingStatusResult getRecordingStatus();
 
+    GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats();
+    GetProxyCacheResult getProxyCache();
+    void purgeProxyCache();
+
+    GetDelaySchedulerStatsResult getDelaySchedulerStats();
+
     Options getOptions();
 
     void shutdownServer();
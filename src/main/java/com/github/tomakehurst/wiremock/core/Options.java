@@ -15,12 +15,18 @@
  */
 package com.github.tomakehurst.wiremock.core;
 
+import com.github.tomakehurst.wiremock.common.AsynchronousProxySettings;
 import com.github.tomakehurst.wiremock.common.AsynchronousResponseSettings;
+import com.github.tomakehurst.wiremock.common.BodyFileCacheSettings;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.HttpsSettings;
 import com.github.tomakehurst.wiremock.common.JettySettings;
 import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.common.ProxyCacheSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.ProxyStreamingSettings;
+import com.github.tomakehurst.wiremock.common.UnmatchedRequestReportingSettings;
 import com.github.tomakehurst.wiremock.extension.Extension;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
@@ -65,4 +71,11 @@ public interface Options {
     boolean getHttpsRequiredForAdminApi();
     NotMatchedRenderer getNotMatchedRenderer();
     AsynchronousResponseSettings getAsynchronousResponseSettings();
+    ProxyStreamingSettings getProxyStreamingSettings();
+    ProxyConnectionPoolSettings getProxyConnectionPoolSettings();
+    AsynchronousProxySettings getAsynchronousProxySettings();
+    ProxyCacheSettings getProxyCacheSettings();
+    boolean shouldCoalesceProxyRequests();
+    UnmatchedRequestReportingSettings getUnmatchedRequestReportingSettings();
+    BodyFileCacheSettings getBodyFileCacheSettings();
 }
@@ -19,6 +19,9 @@ import com.github.tomakehurst.wiremock.admin.AdminRoutes;
 import com.github.tomakehurst.wiremock.admin.LimitAndOffsetPaginator;
 import com.github.tomakehurst.wiremock.admin.model.*;
 import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
+import com.github.tomakehurst.wiremock.common.ProxyStreamingSettings;
+import com.github.tomakehurst.wiremock.common.UnmatchedRequestReportingSettings;
 import com.github.tomakehurst.wiremock.common.Xml;
 import com.github.tomakehurst.wiremock.extension.*;
 import com.github.tomakehurst.wiremock.global.GlobalSettings;
@@ -36,18 +39,25 @@ import com.github.tomakehurst.wiremock.stubbing.StubMappings;
 import com.github.tomakehurst.wiremock.verification.*;
 import com.github.tomakehurst.wiremock.verification.diff.PlainTextDiffRenderer;
 import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.jsonResponse;
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 import static com.github.tomakehurst.wiremock.stubbing.ServeEvent.NOT_MATCHED;
 import static com.github.tomakehurst.wiremock.stubbing.ServeEvent.TO_LOGGED_REQUEST;
 import static com.google.common.collect.FluentIterable.from;
+import static com.google.common.util.concurrent.MoreExecutors.shutdownAndAwaitTermination;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class WireMockApp implements StubServer, Admin {
 
@@ -55,6 +65,7 @@ public class WireMockApp implements StubServer, Admin {
     public static final String ADMIN_CONTEXT_ROOT = "/__admin";
     public static final String MAPPINGS_ROOT = "mappings";
 
+    private static final long PROXY_SHUTDOWN_TIMEOUT_SECONDS = 10;
 
     private final StubMappings stubMappings;
     private final RequestJournal requestJournal;
@@ -64,11 +75,14 @@ public class WireMockApp implements StubServer, Admin {
     private final Container container;
     private final MappingsSaver mappingsSaver;
     private final NearMissCalculator nearMissCalculator;
-    private final PlainTextDiffRenderer diffRenderer;
+    private final UnmatchedRequestReporter unmatchedRequestReporter;
+    private final HashedWheelTimer delayScheduler;
 
     private final Recorder recorder;
 
     private Options options;
+    private volatile ProxyResponseRenderer proxyResponseRenderer;
+    private ExecutorService proxyExecutor;
 
     static {
         Xml.optimizeFactoriesLoading();
@@ -83,15 +97,19 @@ public class WireMockApp implements StubServer, Admin {
         this.defaultMappingsLoader = options.mappingsLoader();
         this.mappingsSaver = options.mappingsSaver();
         globalSettingsHolder = new GlobalSettingsHolder();
-        requestJournal = options.requestJournalDisabled() ? new DisabledRequestJournal() : new InMemoryRequestJournal(options.maxRequestJournalEntries());
+        requestJournal = createRequestJournal(options.requestJournalDisabled(), options.maxRequestJournalEntries());
         Map<String, RequestMatcherExtension> customMatchers = options.extensionsOfType(RequestMatcherExtension.class);
         stubMappings = new InMemoryStubMappings(
                 customMatchers,
             options.extensionsOfType(ResponseDefinitionTransformer.class),
             fileSource);
         nearMissCalculator = new NearMissCalculator(stubMappings, requestJournal);
-        diffRenderer = new PlainTextDiffRenderer(customMatchers);
-        recorder = new Recorder(this);
+        unmatchedRequestReporter = new UnmatchedRequestReporter(
+            nearMissCalculator,
+            new PlainTextDiffRenderer(customMatchers),
+            options.getUnmatchedRequestReportingSettings());
+        recorder = new Recorder(this, requestJournal);
+        delayScheduler = new HashedWheelTimer("wiremock-delay-scheduler", options.notifier());
         this.container = container;
         loadDefaultMappings();
     }
@@ -111,12 +129,16 @@ public class WireMockApp implements StubServer, Admin {
         this.defaultMappingsLoader = defaultMappingsLoader;
         this.mappingsSaver = mappingsSaver;
         globalSettingsHolder = new GlobalSettingsHolder();
-        requestJournal = requestJournalDisabled ? new DisabledRequestJournal() : new InMemoryRequestJournal(maxRequestJournalEntries);
+        requestJournal = createRequestJournal(requestJournalDisabled, maxRequestJournalEntries);
         stubMappings = new InMemoryStubMappings(requestMatchers, transformers, rootFileSource);
         this.container = container;
         nearMissCalculator = new NearMissCalculator(stubMappings, requestJournal);
-        diffRenderer = new PlainTextDiffRenderer(requestMatchers);
-        recorder = new Recorder(this);
+        unmatchedRequestReporter = new UnmatchedRequestReporter(
+            nearMissCalculator,
+            new PlainTextDiffRenderer(requestMatchers),
+            UnmatchedRequestReportingSettings.DEFAULTS);
+        recorder = new Recorder(this, requestJournal);
+        delayScheduler = new HashedWheelTimer("wiremock-delay-scheduler", notifier());
         loadDefaultMappings();
     }
 
@@ -136,29 +158,99 @@ public class WireMockApp implements StubServer, Admin {
 
     public StubRequestHandler buildStubRequestHandler() {
         Map<String, PostServeAction> postServeActions = options.extensionsOfType(PostServeAction.class);
+        proxyResponseRenderer = new ProxyResponseRenderer(
+            options.proxyVia(),
+            options.httpsSettings().trustStore(),
+            options.shouldPreserveHostHeader(),
+            options.proxyHostHeader(),
+            globalSettingsHolder,
+            proxyStreamingSettings(),
+            options.getProxyConnectionPoolSettings(),
+            options.getProxyCacheSettings(),
+            options.shouldCoalesceProxyRequests());
         return new StubRequestHandler(
             this,
             new StubResponseRenderer(
                 options.filesRoot().child(FILES_ROOT),
                 getGlobalSettingsHolder(),
-                new ProxyResponseRenderer(
-                    options.proxyVia(),
-                    options.httpsSettings().trustStore(),
-                    options.shouldPreserveHostHeader(),
-                    options.proxyHostHeader(),
-                    globalSettingsHolder),
+                proxyResponseRenderer,
                 ImmutableList.copyOf(options.extensionsOfType(ResponseTransformer.class).values())
             ),
             this,
             postServeActions,
-            requestJournal
+            requestJournal,
+            options.getAsynchronousProxySettings().isEnabled() ? sharedProxyExecutor() : null,
+            delayScheduler
         );
     }
 
+    // Every handler built shares the one pool, which is made on first use and made afresh after the server is
+    // stopped, so that a restarted server can still proxy
+    private Executor sharedProxyExecutor() {
+        return new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                proxyExecutor().execute(command);
+            }
+        };
+    }
+
+    // Sized to the connection pool by default, since a round trip beyond that would only wait for a connection
+    private synchronized ExecutorService proxyExecutor() {
+        if (proxyExecutor == null) {
+            int threads = options.getAsynchronousProxySettings().threadsFor(options.getProxyConnectionPoolSettings());
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("wiremock-proxy-%d").setDaemon(true).build()
+            );
+            executor.allowCoreThreadTimeOut(true);
+            proxyExecutor = executor;
+        }
+
+        return proxyExecutor;
+    }
+
+    /**
+     * Releases the threads used to serve requests and find near misses, and closes the proxy's connections. Proxy
+     * requests already in flight are given a few seconds to finish first, since they need those connections.
+     */
+    public synchronized void stop() {
+        if (proxyExecutor != null) {
+            shutdownAndAwaitTermination(proxyExecutor, PROXY_SHUTDOWN_TIMEOUT_SECONDS, SECONDS);
+            proxyExecutor = null;
+        }
+
+        nearMissCalculator.stop();
+
+        if (proxyResponseRenderer != null) {
+            proxyResponseRenderer.stop();
+        }
+    }
+
+    // Nothing of a streamed body need be kept when there's no journal to keep it in
+    private ProxyStreamingSettings proxyStreamingSettings() {
+        ProxyStreamingSettings settings = options.getProxyStreamingSettings();
+        return options.requestJournalDisabled() ?
+            new ProxyStreamingSettings(settings.isEnabled(), 0) :
+            settings;
+    }
+
     public GlobalSettingsHolder getGlobalSettingsHolder() {
         return globalSettingsHolder;
     }
 
+    private static RequestJournal createRequestJournal(boolean requestJournalDisabled, Optional<Integer> maxRequestJournalEntries) {
+        if (requestJournalDisabled) {
+            return new DisabledRequestJournal();
+        }
+
+        return maxRequestJournalEntries.isPresent() ?
+            new RingBufferRequestJournal(maxRequestJournalEntries.get()) :
+            new InMemoryRequestJournal(maxRequestJournalEntries);
+    }
+
     private void loadDefaultMappings() {
         loadMappingsUsing(defaultMappingsLoader);
     }
@@ -172,28 +264,17 @@ public class WireMockApp implements StubServer, Admin {
         ServeEvent serveEvent = stubMappings.serveFor(request);
 
         if (serveEvent.isNoExactMatch()) {
-            LoggedRequest loggedRequest = LoggedRequest.createFrom(request);
+            LoggedRequest loggedRequest = serveEvent.getRequest();
             if (request.isBrowserProxyRequest() && browserProxyingEnabled) {
                 return ServeEvent.of(loggedRequest, ResponseDefinition.browserProxy(request));
             }
 
-            logUnmatchedRequest(loggedRequest);
+            unmatchedRequestReporter.report(loggedRequest);
         }
 
         return serveEvent;
     }
 
-    private void logUnmatchedRequest(LoggedRequest request) {
-        List<NearMiss> nearest = nearMissCalculator.findNearestTo(request);
-        String message;
-        if (!nearest.isEmpty()) {
-            message = diffRenderer.render(nearest.get(0).getDiff());
-        } else {
-            message = "Request was not matched as there were no stubs registered:\n" + request;
-        }
-        notifier().error(message);
-    }
-
     @Override
     public void addStubMapping(StubMapping stubMapping) {
         stubMappings.addMapping(stubMapping);
@@ -314,21 +395,13 @@ public class WireMockApp implements StubServer, Admin {
 
     @Override
     public FindNearMissesResult findNearMissesForUnmatchedRequests() {
-        ImmutableList.Builder<NearMiss> listBuilder = ImmutableList.builder();
-        Iterable<ServeEvent> unmatchedServeEvents =
+        List<LoggedRequest> unmatchedRequests =
             from(requestJournal.getAllServeEvents())
-                .filter(new Predicate<ServeEvent>() {
-                    @Override
-                    public boolean apply(ServeEvent input) {
-                        return input.isNoExactMatch();
-                    }
-                });
-
-        for (ServeEvent serveEvent : unmatchedServeEvents) {
-            listBuilder.addAll(nearMissCalculator.findNearestTo(serveEvent.getRequest()));
-        }
+                .filter(NOT_MATCHED)
+                .transform(TO_LOGGED_REQUEST)
+                .toList();
 
-        return new FindNearMissesResult(listBuilder.build());
+        return new FindNearMissesResult(ImmutableList.copyOf(nearMissCalculator.findNearestToEach(unmatchedRequests)));
     }
 
     @Override
@@ -377,7 +450,7 @@ public class WireMockApp implements StubServer, Admin {
     }
 
     public SnapshotRecordResult snapshotRecord(RecordSpec recordSpec) {
-        return recorder.takeSnapshot(getServeEvents().getServeEvents(), recordSpec);
+        return recorder.takeSnapshot(recordSpec);
     }
 
     @Override
@@ -405,6 +478,45 @@ public class WireMockApp implements StubServer, Admin {
         return new RecordingStatusResult(recorder.getStatus().name());
     }
 
+    @Override
+    public GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats() {
+        if (proxyResponseRenderer == null) {
+            return new GetProxyConnectionPoolStatsResult(
+                new ConnectionPoolStats(null, 0, 0, 0, 0),
+                Collections.<ConnectionPoolStats>emptyList(),
+                0
+            );
+        }
+
+        return proxyResponseRenderer.getConnectionPoolStats();
+    }
+
+    @Override
+    public GetDelaySchedulerStatsResult getDelaySchedulerStats() {
+        return new GetDelaySchedulerStatsResult(
+            delayScheduler.getPendingCount(),
+            delayScheduler.getExpiredCount(),
+            delayScheduler.getMeanLatenessMillis(),
+            delayScheduler.getMaxLatenessMillis()
+        );
+    }
+
+    @Override
+    public GetProxyCacheResult getProxyCache() {
+        if (proxyResponseRenderer == null) {
+            return new GetProxyCacheResult(Collections.<ProxyCacheEntry>emptyList(), 0, 0, 0, 0);
+        }
+
+        return proxyResponseRenderer.getCacheContents();
+    }
+
+    @Override
+    public void purgeProxyCache() {
+        if (proxyResponseRenderer != null) {
+            proxyResponseRenderer.purgeCache();
+        }
+    }
+
     @Override
     public ListStubMappingsResult findAllStubsByMetadata(StringValuePattern pattern) {
         return new ListStubMappingsResult(LimitAndOffsetPaginator.none(stubMappings.findByMetadata(pattern)));
@@ -37,6 +37,7 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Maps;
 import com.google.common.io.Resources;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 
@@ -65,6 +66,7 @@ public class WireMockConfiguration implements Options {
 
     private boolean browserProxyingEnabled = false;
     private ProxySettings proxySettings = ProxySettings.NO_PROXY;
+    private String filesRootDirectory = "src/test/resources";
     private FileSource filesRoot = new SingleRootFileSource("src/test/resources");
     private MappingsSource mappingsSource;
 
@@ -91,6 +93,27 @@ public class WireMockConfiguration implements Options {
     private NotMatchedRenderer notMatchedRenderer = new PlainTextStubNotMatchedRenderer();
     private boolean asynchronousResponseEnabled;
     private int asynchronousResponseThreads;
+    private boolean streamProxyResponses;
+    private int proxyStreamBufferBytes = ProxyStreamingSettings.DEFAULT_BUFFER_BYTES;
+    private long bodyFileCacheMaxHeapBytes = BodyFileCacheSettings.DEFAULT_MAX_HEAP_BYTES;
+    private long bodyFileCacheMaxHeapFileBytes = BodyFileCacheSettings.DEFAULT_MAX_HEAP_FILE_BYTES;
+    private int bodyFileCacheMaxMappedFiles = BodyFileCacheSettings.DEFAULT_MAX_MAPPED_FILES;
+    private Integer proxyMaxConnections;
+    private Integer proxyMaxConnectionsPerRoute;
+    private Integer proxyConnectTimeout;
+    private Integer proxyConnectionLeaseTimeout;
+    private Long proxyKeepAlive;
+    private Long proxyMaxIdleTime;
+    private Integer proxyStaleCheckAfterInactivity;
+    private boolean asynchronousProxyEnabled;
+    private int asynchronousProxyThreads;
+    private boolean proxyCacheEnabled;
+    private long proxyCacheMaxBytes = ProxyCacheSettings.DEFAULT_MAX_BYTES;
+    private int proxyCacheDefaultTtl;
+    private List<String> proxyCacheKeyHeaders = emptyList();
+    private boolean proxyRequestCoalescingEnabled;
+    private boolean asynchronousUnmatchedRequestReporting;
+    private int maxUnmatchedRequestReportsPerSecond;
 
     private MappingsSource getMappingsSource() {
         if (mappingsSource == null) {
@@ -204,7 +227,8 @@ public class WireMockConfiguration implements Options {
     }
 
     public WireMockConfiguration withRootDirectory(String path) {
-        this.filesRoot = new SingleRootFileSource(path);
+        this.filesRootDirectory = path;
+        this.filesRoot = new SingleRootFileSource(new File(path), getBodyFileCacheSettings());
         return this;
     }
 
@@ -218,6 +242,7 @@ public class WireMockConfiguration implements Options {
     }
 
     public WireMockConfiguration fileSource(FileSource fileSource) {
+        this.filesRootDirectory = null;
         this.filesRoot = fileSource;
         return this;
     }
@@ -330,6 +355,115 @@ public class WireMockConfiguration implements Options {
         return this;
     }
 
+    public WireMockConfiguration streamProxyResponses(boolean streamProxyResponses) {
+        this.streamProxyResponses = streamProxyResponses;
+        return this;
+    }
+
+    public WireMockConfiguration proxyStreamBufferBytes(int proxyStreamBufferBytes) {
+        this.proxyStreamBufferBytes = proxyStreamBufferBytes;
+        return this;
+    }
+
+    public WireMockConfiguration bodyFileCacheMaxHeapBytes(long bodyFileCacheMaxHeapBytes) {
+        this.bodyFileCacheMaxHeapBytes = bodyFileCacheMaxHeapBytes;
+        return withBodyFileCacheSettingsApplied();
+    }
+
+    public WireMockConfiguration bodyFileCacheMaxHeapFileBytes(long bodyFileCacheMaxHeapFileBytes) {
+        this.bodyFileCacheMaxHeapFileBytes = bodyFileCacheMaxHeapFileBytes;
+        return withBodyFileCacheSettingsApplied();
+    }
+
+    public WireMockConfiguration bodyFileCacheMaxMappedFiles(int bodyFileCacheMaxMappedFiles) {
+        this.bodyFileCacheMaxMappedFiles = bodyFileCacheMaxMappedFiles;
+        return withBodyFileCacheSettingsApplied();
+    }
+
+    private WireMockConfiguration withBodyFileCacheSettingsApplied() {
+        return filesRootDirectory != null ? withRootDirectory(filesRootDirectory) : this;
+    }
+
+    public WireMockConfiguration proxyMaxConnections(int proxyMaxConnections) {
+        this.proxyMaxConnections = proxyMaxConnections;
+        return this;
+    }
+
+    public WireMockConfiguration proxyMaxConnectionsPerRoute(int proxyMaxConnectionsPerRoute) {
+        this.proxyMaxConnectionsPerRoute = proxyMaxConnectionsPerRoute;
+        return this;
+    }
+
+    public WireMockConfiguration proxyConnectTimeout(int proxyConnectTimeoutMilliseconds) {
+        this.proxyConnectTimeout = proxyConnectTimeoutMilliseconds;
+        return this;
+    }
+
+    public WireMockConfiguration proxyConnectionLeaseTimeout(int proxyConnectionLeaseTimeoutMilliseconds) {
+        this.proxyConnectionLeaseTimeout = proxyConnectionLeaseTimeoutMilliseconds;
+        return this;
+    }
+
+    public WireMockConfiguration proxyKeepAlive(long proxyKeepAliveMilliseconds) {
+        this.proxyKeepAlive = proxyKeepAliveMilliseconds;
+        return this;
+    }
+
+    public WireMockConfiguration proxyMaxIdleTime(long proxyMaxIdleTimeMilliseconds) {
+        this.proxyMaxIdleTime = proxyMaxIdleTimeMilliseconds;
+        return this;
+    }
+
+    public WireMockConfiguration proxyStaleCheckAfterInactivity(int proxyStaleCheckAfterInactivityMilliseconds) {
+        this.proxyStaleCheckAfterInactivity = proxyStaleCheckAfterInactivityMilliseconds;
+        return this;
+    }
+
+    public WireMockConfiguration asynchronousProxyEnabled(boolean asynchronousProxyEnabled) {
+        this.asynchronousProxyEnabled = asynchronousProxyEnabled;
+        return this;
+    }
+
+    public WireMockConfiguration asynchronousProxyThreads(int asynchronousProxyThreads) {
+        this.asynchronousProxyThreads = asynchronousProxyThreads;
+        return this;
+    }
+
+    public WireMockConfiguration proxyCacheEnabled(boolean proxyCacheEnabled) {
+        this.proxyCacheEnabled = proxyCacheEnabled;
+        return this;
+    }
+
+    public WireMockConfiguration proxyCacheMaxBytes(long proxyCacheMaxBytes) {
+        this.proxyCacheMaxBytes = proxyCacheMaxBytes;
+        return this;
+    }
+
+    public WireMockConfiguration proxyCacheDefaultTtl(int proxyCacheDefaultTtlSeconds) {
+        this.proxyCacheDefaultTtl = proxyCacheDefaultTtlSeconds;
+        return this;
+    }
+
+    public WireMockConfiguration proxyCacheKeyHeaders(String... proxyCacheKeyHeaders) {
+        this.proxyCacheKeyHeaders = asList(proxyCacheKeyHeaders);
+        return this;
+    }
+
+    public WireMockConfiguration proxyRequestCoalescingEnabled(boolean proxyRequestCoalescingEnabled) {
+        this.proxyRequestCoalescingEnabled = proxyRequestCoalescingEnabled;
+        return this;
+    }
+
+    public WireMockConfiguration asynchronousUnmatchedRequestReporting(boolean asynchronousUnmatchedRequestReporting) {
+        this.asynchronousUnmatchedRequestReporting = asynchronousUnmatchedRequestReporting;
+        return this;
+    }
+
+    public WireMockConfiguration maxUnmatchedRequestReportsPerSecond(int maxUnmatchedRequestReportsPerSecond) {
+        this.maxUnmatchedRequestReportsPerSecond = maxUnmatchedRequestReportsPerSecond;
+        return this;
+    }
+
     @Override
     public int portNumber() {
         return portNumber;
@@ -465,4 +599,47 @@ public class WireMockConfiguration implements Options {
         return new AsynchronousResponseSettings(asynchronousResponseEnabled, asynchronousResponseThreads);
     }
 
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return new ProxyStreamingSettings(streamProxyResponses, proxyStreamBufferBytes);
+    }
+
+    @Override
+    public BodyFileCacheSettings getBodyFileCacheSettings() {
+        return new BodyFileCacheSettings(bodyFileCacheMaxHeapBytes, bodyFileCacheMaxHeapFileBytes, bodyFileCacheMaxMappedFiles);
+    }
+
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        return ProxyConnectionPoolSettings.Builder.aProxyConnectionPoolSettings()
+                .withMaxConnections(proxyMaxConnections)
+                .withMaxConnectionsPerRoute(proxyMaxConnectionsPerRoute)
+                .withConnectTimeout(proxyConnectTimeout)
+                .withLeaseTimeout(proxyConnectionLeaseTimeout)
+                .withKeepAlive(proxyKeepAlive)
+                .withMaxIdleTime(proxyMaxIdleTime)
+                .withStaleCheckAfterInactivity(proxyStaleCheckAfterInactivity)
+                .build();
+    }
+
+    @Override
+    public AsynchronousProxySettings getAsynchronousProxySettings() {
+        return new AsynchronousProxySettings(asynchronousProxyEnabled, asynchronousProxyThreads);
+    }
+
+    @Override
+    public ProxyCacheSettings getProxyCacheSettings() {
+        return new ProxyCacheSettings(proxyCacheEnabled, proxyCacheMaxBytes, proxyCacheDefaultTtl, proxyCacheKeyHeaders);
+    }
+
+    @Override
+    public boolean shouldCoalesceProxyRequests() {
+        return proxyRequestCoalescingEnabled;
+    }
+
+    @Override
+    public UnmatchedRequestReportingSettings getUnmatchedRequestReportingSettings() {
+        return new UnmatchedRequestReportingSettings(asynchronousUnmatchedRequestReporting, maxUnmatchedRequestReportsPerSecond);
+    }
+
 }
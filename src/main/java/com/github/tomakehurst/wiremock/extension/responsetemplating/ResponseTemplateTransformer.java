@@ -33,14 +33,19 @@ import com.github.tomakehurst.wiremock.http.HttpHeaders;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.google.common.base.MoreObjects.firstNonNull;
@@ -49,10 +54,20 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer {
 
     public static final String NAME = "response-template";
 
+    private static final int MAX_CACHED_TEMPLATES = 1000;
+
     private final boolean global;
 
     private final Handlebars handlebars;
 
+    private final Cache<String, Template> templateCache = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_TEMPLATES)
+        .build();
+
+    private final Cache<String, BodyFileTemplate> bodyFileTemplateCache = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_TEMPLATES)
+        .build();
+
     public ResponseTemplateTransformer(boolean global) {
         this(global, Collections.<String, Helper>emptyMap());
     }
@@ -119,7 +134,7 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer {
             Template filePathTemplate = uncheckedCompileTemplate(responseDefinition.getBodyFileName());
             String compiledFilePath = uncheckedApplyTemplate(filePathTemplate, model);
             TextFile file = files.getTextFileNamed(compiledFilePath);
-            Template bodyTemplate = uncheckedCompileTemplate(file.readContentsAsString());
+            Template bodyTemplate = getBodyFileTemplate(file);
             applyTemplatedResponseBody(newResponseDefBuilder, model, bodyTemplate);
         }
 
@@ -163,11 +178,48 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer {
         }
     }
 
-    private Template uncheckedCompileTemplate(String content) {
+    private Template uncheckedCompileTemplate(final String content) {
+        try {
+            return templateCache.get(content, new Callable<Template>() {
+                @Override
+                public Template call() throws Exception {
+                    return handlebars.compileInline(content);
+                }
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            return throwUnchecked(e.getCause(), Template.class);
+        }
+    }
+
+    private Template getBodyFileTemplate(TextFile file) {
+        long lastModified = file.lastModified();
+        BodyFileTemplate cached = bodyFileTemplateCache.getIfPresent(file.name());
+        if (cached != null && cached.lastModified == lastModified) {
+            return cached.template;
+        }
+
+        // Compiled directly rather than via templateCache so that large file contents aren't held twice
+        Template template = uncheckedCompileInline(file.readContentsAsString());
+        bodyFileTemplateCache.put(file.name(), new BodyFileTemplate(lastModified, template));
+        return template;
+    }
+
+    private Template uncheckedCompileInline(String content) {
         try {
             return handlebars.compileInline(content);
         } catch (IOException e) {
             return throwUnchecked(e, Template.class);
         }
     }
+
+    private static class BodyFileTemplate {
+
+        final long lastModified;
+        final Template template;
+
+        BodyFileTemplate(long lastModified, Template template) {
+            this.lastModified = lastModified;
+            this.template = template;
+        }
+    }
 }
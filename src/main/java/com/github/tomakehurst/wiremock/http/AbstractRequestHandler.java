@@ -15,12 +15,20 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.github.tomakehurst.wiremock.common.LocalNotifier;
+import com.github.tomakehurst.wiremock.common.LogMessage;
+import com.github.tomakehurst.wiremock.common.Notifier;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Stopwatch;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static com.github.tomakehurst.wiremock.common.Notifiers.info;
+import static com.github.tomakehurst.wiremock.common.Notifiers.isInfoEnabled;
 import static com.google.common.collect.Lists.newArrayList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -41,20 +49,61 @@ public abstract class AbstractRequestHandler implements RequestHandler, RequestE
 	protected void beforeResponseSent(ServeEvent serveEvent, Response response) {}
     protected void afterResponseSent(ServeEvent serveEvent, Response response) {}
 
+	/**
+	 * The executor to render the response for the given event on, freeing the thread handling the request
+	 * if the responder allows it, or null to render it on that thread
+	 */
+	protected Executor renderingExecutorFor(ServeEvent serveEvent) {
+		return null;
+	}
+
 	@Override
-	public void handle(Request request, HttpResponder httpResponder) {
-        Stopwatch stopwatch = Stopwatch.createStarted();
-		ServeEvent serveEvent = handleRequest(request);
+	public void handle(final Request request, final HttpResponder httpResponder) {
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+		final ServeEvent serveEvent = handleRequest(request);
+		serveEvent.getResponseDefinition().setOriginalRequest(request);
+
+		Executor renderingExecutor = renderingExecutorFor(serveEvent);
+		if (renderingExecutor != null &&
+			httpResponder instanceof AsynchronousHttpResponder &&
+			((AsynchronousHttpResponder) httpResponder).suspend()) {
+			renderAndRespondOn(renderingExecutor, request, serveEvent, (AsynchronousHttpResponder) httpResponder, stopwatch);
+		} else {
+			renderAndRespond(request, serveEvent, httpResponder, stopwatch);
+		}
+	}
+
+	private void renderAndRespondOn(Executor renderingExecutor,
+									final Request request,
+									final ServeEvent serveEvent,
+									final AsynchronousHttpResponder httpResponder,
+									final Stopwatch stopwatch) {
+		final Notifier notifier = notifier();
+		try {
+			renderingExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					LocalNotifier.set(notifier);
+					try {
+						renderAndRespond(request, serveEvent, httpResponder, stopwatch);
+					} catch (Exception e) {
+						httpResponder.failed(e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			httpResponder.failed(e);
+		}
+	}
+
+	private void renderAndRespond(Request request, ServeEvent serveEvent, HttpResponder httpResponder, Stopwatch stopwatch) {
 		ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
-		responseDefinition.setOriginalRequest(request);
 		Response response = responseRenderer.render(serveEvent);
 		ServeEvent completedServeEvent = serveEvent.complete(response, (int) stopwatch.elapsed(MILLISECONDS));
 
-		if (logRequests()) {
-			notifier().info("Request received:\n" +
-					formatRequest(request) +
-					"\n\nMatched response definition:\n" + responseDefinition +
-					"\n\nResponse:\n" + response);
+		Notifier notifier = notifier();
+		if (logRequests() && isInfoEnabled(notifier)) {
+			info(notifier, requestReceivedMessage(completedServeEvent.getRequest(), responseDefinition, response));
 		}
 
 		for (RequestListener listener: listeners) {
@@ -63,15 +112,29 @@ public abstract class AbstractRequestHandler implements RequestHandler, RequestE
 
         beforeResponseSent(completedServeEvent, response);
 
+		// Given the journalled copy, so that a responder needing one after dispatching the request elsewhere needn't take another
 		stopwatch.reset();
 		stopwatch.start();
-		httpResponder.respond(request, response);
+		httpResponder.respond(completedServeEvent.getRequest(), response);
 
         completedServeEvent.afterSend((int) stopwatch.elapsed(MILLISECONDS));
         afterResponseSent(completedServeEvent, response);
         stopwatch.stop();
 	}
 
+	// The logged request is a copy, so can still be formatted once the request itself has been recycled
+	private LogMessage requestReceivedMessage(final LoggedRequest request, final ResponseDefinition responseDefinition, final Response response) {
+		return new LogMessage() {
+			@Override
+			public String format() {
+				return "Request received:\n" +
+					formatRequest(request) +
+					"\n\nMatched response definition:\n" + responseDefinition +
+					"\n\nResponse:\n" + response;
+			}
+		};
+	}
+
 	protected String formatRequest(Request request) {
 		StringBuilder sb = new StringBuilder();
 		sb.append(request.getClientIp())
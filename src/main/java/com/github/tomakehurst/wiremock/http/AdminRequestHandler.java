@@ -21,6 +21,8 @@ import com.github.tomakehurst.wiremock.admin.AdminUriTemplate;
 import com.github.tomakehurst.wiremock.admin.NotFoundException;
 import com.github.tomakehurst.wiremock.admin.model.PathParams;
 import com.github.tomakehurst.wiremock.common.InvalidInputException;
+import com.github.tomakehurst.wiremock.common.LogMessage;
+import com.github.tomakehurst.wiremock.common.Notifier;
 import com.github.tomakehurst.wiremock.core.Admin;
 import com.github.tomakehurst.wiremock.security.Authenticator;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
@@ -29,6 +31,8 @@ import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import java.net.URI;
 
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static com.github.tomakehurst.wiremock.common.Notifiers.info;
+import static com.github.tomakehurst.wiremock.common.Notifiers.isInfoEnabled;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.ADMIN_CONTEXT_ROOT;
 
 public class AdminRequestHandler extends AbstractRequestHandler {
@@ -64,7 +68,18 @@ public class AdminRequestHandler extends AbstractRequestHandler {
             );
         }
 
-        notifier().info("Admin request received:\n" + formatRequest(request));
+        Notifier notifier = notifier();
+        if (isInfoEnabled(notifier)) {
+            // Taken now, as the message may be written after the request has been recycled
+            final LoggedRequest loggedRequest = LoggedRequest.createFrom(request);
+            info(notifier, new LogMessage() {
+                @Override
+                public String format() {
+                    return "Admin request received:\n" + formatRequest(loggedRequest);
+                }
+            });
+        }
+
         String path = URI.create(withoutAdminRoot(request.getUrl())).getPath();
 
         try {
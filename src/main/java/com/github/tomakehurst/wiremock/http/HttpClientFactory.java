@@ -16,23 +16,33 @@
 package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.common.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.AuthenticationStrategy;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
+import org.apache.http.config.RegistryBuilder;
 import org.apache.http.config.SocketConfig;
-import org.apache.http.conn.ssl.AllowAllHostnameVerifier;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLContexts;
 import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.conn.ssl.TrustStrategy;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.ProxyAuthenticationStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
 
 import javax.net.ssl.SSLContext;
 import java.security.KeyStore;
@@ -44,6 +54,8 @@ import static com.github.tomakehurst.wiremock.common.KeyStoreSettings.NO_STORE;
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 import static com.github.tomakehurst.wiremock.common.ProxySettings.NO_PROXY;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 public class HttpClientFactory {
@@ -67,8 +79,91 @@ public class HttpClientFactory {
                 .setDefaultRequestConfig(RequestConfig.custom().setStaleConnectionCheckEnabled(true).build())
                 .setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(timeoutMilliseconds).build())
                 .useSystemProperties()
-                .setHostnameVerifier(new AllowAllHostnameVerifier());
+                .setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+                .setSSLContext(buildSSLContext(trustStoreSettings));
 
+        routeVia(builder, proxySettings);
+
+        return builder.build();
+	}
+
+    /**
+     * Creates a client whose connections come from the given pool, as made by
+     * {@link #createConnectionManager(ProxyConnectionPoolSettings, int, KeyStoreSettings)}, so that the pool can be
+     * inspected while the client is in use.
+     */
+    public static CloseableHttpClient createClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            ProxyConnectionPoolSettings poolSettings,
+            ProxySettings proxySettings) {
+
+        RequestConfig.Builder requestConfig = RequestConfig.custom();
+        if (poolSettings.getConnectTimeout().isPresent()) {
+            requestConfig.setConnectTimeout(poolSettings.getConnectTimeout().get());
+        }
+        if (poolSettings.getLeaseTimeout().isPresent()) {
+            requestConfig.setConnectionRequestTimeout(poolSettings.getLeaseTimeout().get());
+        }
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .disableAuthCaching()
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                .disableRedirectHandling()
+                .disableContentCompression()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig.build())
+                .useSystemProperties();
+
+        if (poolSettings.getKeepAlive().isPresent()) {
+            builder.setKeepAliveStrategy(new CappedKeepAliveStrategy(poolSettings.getKeepAlive().get()));
+        }
+
+        if (poolSettings.getMaxIdleTime().isPresent()) {
+            builder.evictIdleConnections(poolSettings.getMaxIdleTime().get().longValue(), MILLISECONDS);
+        }
+
+        routeVia(builder, proxySettings);
+
+        return builder.build();
+    }
+
+    public static PeakTrackingConnectionManager createConnectionManager(
+            ProxyConnectionPoolSettings poolSettings,
+            int timeoutMilliseconds,
+            KeyStoreSettings trustStoreSettings) {
+
+        SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(
+                buildSSLContext(trustStoreSettings),
+                splitSystemProperty("https.protocols"),
+                splitSystemProperty("https.cipherSuites"),
+                NoopHostnameVerifier.INSTANCE);
+
+        PeakTrackingConnectionManager connectionManager = new PeakTrackingConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", sslSocketFactory)
+                        .build());
+
+        connectionManager.setMaxTotal(poolSettings.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(poolSettings.getMaxConnectionsPerRoute());
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(timeoutMilliseconds).build());
+        connectionManager.setValidateAfterInactivity(validateAfterInactivity(poolSettings.getStaleCheckAfterInactivity()));
+
+        return connectionManager;
+    }
+
+    // The pool only validates a connection that has been idle for a positive interval, so checking on every use is
+    // the shortest one, and never checking is zero
+    private static int validateAfterInactivity(int staleCheckAfterInactivity) {
+        if (staleCheckAfterInactivity < 0) {
+            return 0;
+        }
+
+        return Math.max(staleCheckAfterInactivity, 1);
+    }
+
+    private static void routeVia(HttpClientBuilder builder, ProxySettings proxySettings) {
         if (proxySettings != NO_PROXY) {
             HttpHost proxyHost = new HttpHost(proxySettings.host(), proxySettings.port());
             builder.setProxy(proxyHost);
@@ -81,15 +176,19 @@ public class HttpClientFactory {
                 builder.setDefaultCredentialsProvider(credentialsProvider);
             }
         }
+    }
 
-        if (trustStoreSettings != NO_STORE) {
-            builder.setSslcontext(buildSSLContextWithTrustStore(trustStoreSettings));
-        } else {
-            builder.setSslcontext(buildAllowAnythingSSLContext());
-        }
+    private static SSLContext buildSSLContext(KeyStoreSettings trustStoreSettings) {
+        return trustStoreSettings != NO_STORE ?
+                buildSSLContextWithTrustStore(trustStoreSettings) :
+                buildAllowAnythingSSLContext();
+    }
 
-        return builder.build();
-	}
+    // As the client builder does for its own connection pool when using system properties
+    private static String[] splitSystemProperty(String name) {
+        String value = System.getProperty(name);
+        return isBlank(value) ? null : value.split(" *, *");
+    }
 
     private static SSLContext buildSSLContextWithTrustStore(KeyStoreSettings trustStoreSettings) {
         try {
@@ -133,6 +232,22 @@ public class HttpClientFactory {
       return createClient(DEFAULT_TIMEOUT);
     }
 
+    // Keeps a connection no longer than the target allows, nor than the configured maximum
+    private static class CappedKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        private final long maxKeepAliveMilliseconds;
+
+        CappedKeepAliveStrategy(long maxKeepAliveMilliseconds) {
+            this.maxKeepAliveMilliseconds = maxKeepAliveMilliseconds;
+        }
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? Math.min(keepAlive, maxKeepAliveMilliseconds) : maxKeepAliveMilliseconds;
+        }
+    }
+
     public static HttpUriRequest getHttpRequestFor(RequestMethod method, String url) {
         notifier().info("Proxying: " + method + " " + url);
 
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+
+/**
+ * Lets concurrent callers asking for the same thing share a single call to fetch it. The first caller with a given key
+ * makes the call, and any others arriving before it finishes wait for and receive its result, or its exception.
+ */
+class InFlightRequests<K, V> {
+
+    private final ConcurrentMap<K, SettableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    V join(K key, Callable<V> call) {
+        SettableFuture<V> ours = SettableFuture.create();
+        SettableFuture<V> existing = inFlight.putIfAbsent(key, ours);
+        if (existing != null) {
+            try {
+                return Uninterruptibles.getUninterruptibly(existing);
+            } catch (ExecutionException e) {
+                return throwUnchecked(e.getCause(), null);
+            }
+        }
+
+        try {
+            V result = call.call();
+            ours.set(result);
+            return result;
+        } catch (Throwable e) {
+            ours.setException(e);
+            return throwUnchecked(e, null);
+        } finally {
+            inFlight.remove(key, ours);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.github.tomakehurst.wiremock.http;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.tomakehurst.wiremock.common.Encoding;
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
 import com.github.tomakehurst.wiremock.common.Strings;
 import com.google.common.net.MediaType;
 
@@ -31,27 +32,36 @@ public class LoggedResponse {
     private final HttpHeaders headers;
     private final byte[] body;
     private final Fault fault;
+    private final StreamedProxyResponseBody streamedBody;
 
     public LoggedResponse(@JsonProperty("status") int status,
                           @JsonProperty("headers") HttpHeaders headers,
                           @JsonProperty("bodyAsBase64") String bodyAsBase64,
                           @JsonProperty("fault") Fault fault,
                           @JsonProperty("body") String ignoredBodyOnlyUsedForBinding) {
-        this(status, headers, Encoding.decodeBase64(bodyAsBase64), fault);
+        this(status, headers, Encoding.decodeBase64(bodyAsBase64), null, fault);
     }
 
-    private LoggedResponse(int status, HttpHeaders headers, byte[] body, Fault fault) {
+    private LoggedResponse(int status, HttpHeaders headers, byte[] body, StreamedProxyResponseBody streamedBody, Fault fault) {
         this.status = status;
         this.headers = headers;
         this.body = body;
+        this.streamedBody = streamedBody;
         this.fault = fault;
     }
 
+    /**
+     * A streamed proxy response's body is taken from what was kept of it as it was sent, so logging the response
+     * beforehand doesn't read the whole body in.
+     */
     public static LoggedResponse from(Response response) {
+        InputStreamSource bodySource = response.getBodyStreamSource();
+        boolean streamed = bodySource instanceof StreamedProxyResponseBody;
         return new LoggedResponse(
             response.getStatus(),
             response.getHeaders() == null || response.getHeaders().all().isEmpty() ? null : response.getHeaders(),
-            response.getBody(),
+            streamed ? null : response.getBody(),
+            streamed ? (StreamedProxyResponseBody) bodySource : null,
             response.getFault()
         );
     }
@@ -72,6 +82,7 @@ public class LoggedResponse {
      */
     @JsonProperty("body")
     public String getBodyAsString() {
+        byte[] body = getBody();
         if (body == null) {
             return "";
         }
@@ -93,12 +104,12 @@ public class LoggedResponse {
 
     @JsonIgnore
     public byte[] getBody() {
-        return body;
+        return streamedBody != null ? streamedBody.keptBytes() : body;
     }
 
     @JsonProperty("bodyAsBase64")
     public String getBodyAsBase64() {
-        return Encoding.encodeBase64(body);
+        return Encoding.encodeBase64(getBody());
     }
 
     public Fault getFault() {
@@ -0,0 +1,529 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.admin.model.GetProxyCacheResult;
+import com.github.tomakehurst.wiremock.admin.model.ProxyCacheEntry;
+import com.github.tomakehurst.wiremock.common.ProxyCacheSettings;
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.HEAD;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.OPTIONS;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.TRACE;
+import static com.google.common.base.MoreObjects.firstNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A shared cache of proxied responses, following the HTTP caching rules (RFC 7234) as far as a proxy stub needs them:
+ * responses are kept for as long as their Cache-Control or Expires headers allow, revalidated with their ETag or
+ * Last-Modified once stale, and evicted least recently used first once their bodies exceed the memory bound.
+ */
+class ProxyResponseCache {
+
+    private static final List<Integer> CACHEABLE_STATUSES = ImmutableList.of(200, 203, 204, 300, 301, 404, 410);
+    private static final List<String> HEADERS_NOT_UPDATED_ON_REVALIDATION = ImmutableList.of("content-length", "transfer-encoding", "content-encoding");
+
+    private final ProxyCacheSettings settings;
+    private final Cache<Key, CachedResponse> responses;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final ConcurrentMap<String, Set<Key>> keysByUrl = new ConcurrentHashMap<>();
+
+    ProxyResponseCache(ProxyCacheSettings settings) {
+        this.settings = settings;
+        // Guava divides the weight bound between segments, so with more than one a response well within the bound
+        // could still be too large for its segment
+        responses = CacheBuilder.newBuilder()
+            .concurrencyLevel(1)
+            .maximumWeight(settings.getMaxBytes())
+            .weigher(new Weigher<Key, CachedResponse>() {
+                @Override
+                public int weigh(Key key, CachedResponse response) {
+                    return response.body.length + response.headers.toString().length();
+                }
+            })
+            .removalListener(new RemovalListener<Key, CachedResponse>() {
+                @Override
+                public void onRemoval(RemovalNotification<Key, CachedResponse> notification) {
+                    if (notification.getCause() != RemovalCause.REPLACED) {
+                        unindex(notification.getKey());
+                    }
+                }
+            })
+            .build();
+    }
+
+    /**
+     * The key the response to the request would be cached under, or null if it mustn't be served from or stored in
+     * the cache
+     */
+    Key keyFor(Request request, String url, HttpHeaders additionalProxyRequestHeaders) {
+        return settings.isEnabled() ? shareableKeyFor(request, url, additionalProxyRequestHeaders) : null;
+    }
+
+    /**
+     * The key identifying the requests the response to this one could also be given to, whether or not it's
+     * cached, or null if it mustn't be given to any other. Headers the stub adds to the proxied request are part of
+     * the key, since two stubs proxying the same URL may be asking the target for different things.
+     */
+    Key shareableKeyFor(Request request, String url, HttpHeaders additionalProxyRequestHeaders) {
+        return shareableKeyFor(request, url, additionalProxyRequestHeaders, settings.getKeyHeaders());
+    }
+
+    /**
+     * The key identifying the requests in flight at the same time that can share one trip to the target, or null if
+     * this one must make its own. As well as what the cache is keyed on, the Accept headers the request carries are
+     * part of the key, since the target will often negotiate the content on them. A request carrying cookies is never
+     * shared, as they are likely to identify a session the response is specific to.
+     */
+    Key coalescingKeyFor(Request request, String url, HttpHeaders additionalProxyRequestHeaders) {
+        if (request.containsHeader("Cookie")) {
+            return null;
+        }
+
+        List<String> keyHeaders = new ArrayList<>(settings.getKeyHeaders());
+        for (String header: request.getAllHeaderKeys()) {
+            if (header.toLowerCase().startsWith("accept")) {
+                keyHeaders.add(header);
+            }
+        }
+
+        return shareableKeyFor(request, url, additionalProxyRequestHeaders, keyHeaders);
+    }
+
+    private Key shareableKeyFor(Request request, String url, HttpHeaders additionalProxyRequestHeaders, List<String> keyHeaders) {
+        if (!request.getMethod().isOneOf(GET, HEAD)) {
+            return null;
+        }
+
+        // Whatever the client is asking to be revalidated is its own business, and a response to a request carrying
+        // credentials can only be shared between requests carrying the same ones
+        if (hasDirective(request.header("Cache-Control"), "no-store") ||
+            request.containsHeader("If-None-Match") ||
+            request.containsHeader("If-Modified-Since") ||
+            (request.containsHeader("Authorization") && !isKeyHeader("Authorization"))) {
+            return null;
+        }
+
+        Map<String, List<String>> headerValues = new LinkedHashMap<>();
+        for (String keyHeader: keyHeaders) {
+            headerValues.put(keyHeader.toLowerCase(), valuesOf(request.header(keyHeader)));
+        }
+
+        return new Key(request.getMethod(), url, headerValues, valuesByName(additionalProxyRequestHeaders));
+    }
+
+    /**
+     * The response cached for the request, fresh or not, unless the request asks for it not to be used
+     */
+    CachedResponse get(Key key, Request request) {
+        CachedResponse response = responses.getIfPresent(key);
+        if (response == null ||
+            !response.variesAsFor(request) ||
+            hasDirective(request.header("Cache-Control"), "no-cache") ||
+            hasDirective(request.header("Pragma"), "no-cache")) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (response.isFresh()) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        return response;
+    }
+
+    boolean isStorable(int status, HttpHeaders headers) {
+        HttpHeader cacheControl = headers.getHeader("Cache-Control");
+        return CACHEABLE_STATUSES.contains(status) &&
+            !hasDirective(cacheControl, "no-store") &&
+            !hasDirective(cacheControl, "private") &&
+            !headers.getHeader("Vary").containsValue("*") &&
+            (freshnessLifetimeMillis(headers, settings.getDefaultTtlSeconds()) > 0 || hasValidator(headers));
+    }
+
+    void put(Key key, Request request, int status, HttpHeaders headers, byte[] body) {
+        responses.put(key, new CachedResponse(
+            key,
+            status,
+            headers,
+            body,
+            varyingHeaderValues(headers, request),
+            System.currentTimeMillis(),
+            initialAgeMillis(headers),
+            freshnessLifetimeMillis(headers, settings.getDefaultTtlSeconds())
+        ));
+        index(key);
+    }
+
+    /**
+     * Refreshes a stale response the target has confirmed is still current, taking on the headers it sent with
+     * the confirmation
+     */
+    CachedResponse revalidated(CachedResponse response, HttpHeaders notModifiedHeaders) {
+        revalidations.incrementAndGet();
+
+        List<HttpHeader> headers = new ArrayList<>();
+        // The age the target now gives the response replaces the one it had when first stored
+        for (HttpHeader header: response.headers.all()) {
+            if (header.keyEquals("Age")) {
+                continue;
+            }
+
+            if (!notModifiedHeaders.getHeader(header.key()).isPresent() ||
+                HEADERS_NOT_UPDATED_ON_REVALIDATION.contains(header.key().toLowerCase())) {
+                headers.add(header);
+            }
+        }
+        for (HttpHeader header: notModifiedHeaders.all()) {
+            if (!HEADERS_NOT_UPDATED_ON_REVALIDATION.contains(header.key().toLowerCase())) {
+                headers.add(header);
+            }
+        }
+
+        HttpHeaders updatedHeaders = new HttpHeaders(headers);
+        CachedResponse refreshed = new CachedResponse(
+            response.key,
+            response.status,
+            updatedHeaders,
+            response.body,
+            response.varyingHeaderValues,
+            System.currentTimeMillis(),
+            initialAgeMillis(updatedHeaders),
+            freshnessLifetimeMillis(updatedHeaders, settings.getDefaultTtlSeconds())
+        );
+        responses.put(response.key, refreshed);
+        return refreshed;
+    }
+
+    void invalidate(Key key) {
+        responses.invalidate(key);
+    }
+
+    // A request that may change the resource makes whatever was cached for it out of date (RFC 7234 section 4.4)
+    void invalidateIfUnsafe(Request request, String url) {
+        if (!settings.isEnabled() || request.getMethod().isOneOf(GET, HEAD, OPTIONS, TRACE)) {
+            return;
+        }
+
+        Set<Key> keys = keysByUrl.get(url);
+        if (keys != null) {
+            responses.invalidateAll(ImmutableList.copyOf(keys));
+        }
+    }
+
+    void purge() {
+        responses.invalidateAll();
+    }
+
+    GetProxyCacheResult getContents() {
+        List<ProxyCacheEntry> entries = new ArrayList<>();
+        long sizeBytes = 0;
+        for (CachedResponse response: responses.asMap().values()) {
+            entries.add(new ProxyCacheEntry(
+                response.key.method.value(),
+                response.key.url,
+                response.status,
+                response.body.length,
+                MILLISECONDS.toSeconds(response.ageMillis()),
+                MILLISECONDS.toSeconds(response.freshnessLifetimeMillis)
+            ));
+            sizeBytes += response.body.length;
+        }
+
+        return new GetProxyCacheResult(entries, sizeBytes, hits.get(), misses.get(), revalidations.get());
+    }
+
+    // An index that has just been dropped for being empty is not the one to add to, so this adds again until the key
+    // is in the index that's current
+    private void index(Key key) {
+        while (true) {
+            Set<Key> keys = keysByUrl.get(key.url);
+            if (keys == null) {
+                Set<Key> created = Sets.newConcurrentHashSet();
+                keys = firstNonNull(keysByUrl.putIfAbsent(key.url, created), created);
+            }
+
+            keys.add(key);
+            if (keysByUrl.get(key.url) == keys) {
+                return;
+            }
+        }
+    }
+
+    // The same key may have been stored again since this entry was removed, in which case it stays indexed
+    private void unindex(Key key) {
+        Set<Key> keys = keysByUrl.get(key.url);
+        if (keys == null || responses.asMap().containsKey(key)) {
+            return;
+        }
+
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            keysByUrl.remove(key.url, keys);
+        }
+    }
+
+    private boolean isKeyHeader(String header) {
+        for (String keyHeader: settings.getKeyHeaders()) {
+            if (keyHeader.equalsIgnoreCase(header)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    static long freshnessLifetimeMillis(HttpHeaders headers, int defaultTtlSeconds) {
+        HttpHeader cacheControl = headers.getHeader("Cache-Control");
+        if (hasDirective(cacheControl, "no-cache")) {
+            return 0;
+        }
+
+        Long sharedMaxAge = directiveSeconds(cacheControl, "s-maxage");
+        if (sharedMaxAge != null) {
+            return SECONDS.toMillis(sharedMaxAge);
+        }
+
+        Long maxAge = directiveSeconds(cacheControl, "max-age");
+        if (maxAge != null) {
+            return SECONDS.toMillis(maxAge);
+        }
+
+        HttpHeader expires = headers.getHeader("Expires");
+        if (expires.isPresent()) {
+            Date expiry = DateUtils.parseDate(expires.firstValue());
+            HttpHeader dateHeader = headers.getHeader("Date");
+            Date date = dateHeader.isPresent() ? DateUtils.parseDate(dateHeader.firstValue()) : null;
+            long now = date != null ? date.getTime() : System.currentTimeMillis();
+            return expiry != null ? Math.max(0, expiry.getTime() - now) : 0;
+        }
+
+        return SECONDS.toMillis(defaultTtlSeconds);
+    }
+
+    // How old the response already was when it arrived, if it came from a cache further upstream (RFC 7234 section 4.2.3)
+    static long initialAgeMillis(HttpHeaders headers) {
+        HttpHeader age = headers.getHeader("Age");
+        Integer seconds = age.isPresent() ? Ints.tryParse(age.firstValue().trim()) : null;
+        return seconds != null ? SECONDS.toMillis(Math.max(0, seconds)) : 0;
+    }
+
+    static boolean hasValidator(HttpHeaders headers) {
+        return headers.getHeader("ETag").isPresent() || headers.getHeader("Last-Modified").isPresent();
+    }
+
+    static boolean hasDirective(HttpHeader header, String directive) {
+        for (String value: valuesOf(header)) {
+            for (String part: value.split(",")) {
+                String name = part.trim().split("=", 2)[0].trim();
+                if (name.equalsIgnoreCase(directive)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static Long directiveSeconds(HttpHeader header, String directive) {
+        for (String value: valuesOf(header)) {
+            for (String part: value.split(",")) {
+                String[] nameAndValue = part.trim().split("=", 2);
+                if (nameAndValue[0].trim().equalsIgnoreCase(directive) && nameAndValue.length == 2) {
+                    Integer seconds = Ints.tryParse(nameAndValue[1].trim().replace("\"", ""));
+                    return seconds != null ? Long.valueOf(Math.max(0, seconds)) : null;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static List<String> valuesOf(HttpHeader header) {
+        return header.isPresent() ? header.values() : ImmutableList.<String>of();
+    }
+
+    private static Map<String, List<String>> valuesByName(HttpHeaders headers) {
+        Map<String, List<String>> values = new TreeMap<>();
+        if (headers != null) {
+            for (HttpHeader header: headers.all()) {
+                values.put(header.key().toLowerCase(), header.values());
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Whether the response, fetched for one request, is just as much the response to another, i.e. they don't differ
+     * in any of the headers it varies on
+     */
+    static boolean appliesAlikeTo(HttpHeaders responseHeaders, Request fetchedFor, Request other) {
+        return !responseHeaders.getHeader("Vary").containsValue("*") &&
+            varyingHeaderValues(responseHeaders, fetchedFor).equals(varyingHeaderValues(responseHeaders, other));
+    }
+
+    private static Map<String, List<String>> varyingHeaderValues(HttpHeaders responseHeaders, Request request) {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        for (String vary: valuesOf(responseHeaders.getHeader("Vary"))) {
+            for (String header: vary.split(",")) {
+                if (!header.trim().isEmpty()) {
+                    values.put(header.trim().toLowerCase(), valuesOf(request.header(header.trim())));
+                }
+            }
+        }
+
+        return values;
+    }
+
+    static class Key {
+
+        private final RequestMethod method;
+        private final String url;
+        private final Map<String, List<String>> headerValues;
+        private final Map<String, List<String>> additionalHeaderValues;
+
+        Key(RequestMethod method, String url, Map<String, List<String>> headerValues, Map<String, List<String>> additionalHeaderValues) {
+            this.method = method;
+            this.url = url;
+            this.headerValues = headerValues;
+            this.additionalHeaderValues = additionalHeaderValues;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equal(method, key.method) &&
+                Objects.equal(url, key.url) &&
+                Objects.equal(headerValues, key.headerValues) &&
+                Objects.equal(additionalHeaderValues, key.additionalHeaderValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(method, url, headerValues, additionalHeaderValues);
+        }
+    }
+
+    static class CachedResponse {
+
+        private final Key key;
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final Map<String, List<String>> varyingHeaderValues;
+        private final long storedAt;
+        private final long initialAgeMillis;
+        private final long freshnessLifetimeMillis;
+
+        private CachedResponse(Key key,
+                               int status,
+                               HttpHeaders headers,
+                               byte[] body,
+                               Map<String, List<String>> varyingHeaderValues,
+                               long storedAt,
+                               long initialAgeMillis,
+                               long freshnessLifetimeMillis) {
+            this.key = key;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.varyingHeaderValues = varyingHeaderValues;
+            this.storedAt = storedAt;
+            this.initialAgeMillis = initialAgeMillis;
+            this.freshnessLifetimeMillis = freshnessLifetimeMillis;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * The headers as the target sent them, with the Age a cache gives in place of any the target sent
+         */
+        HttpHeaders getHeaders() {
+            List<HttpHeader> withAge = new ArrayList<>();
+            for (HttpHeader header: headers.all()) {
+                if (!header.keyEquals("Age")) {
+                    withAge.add(header);
+                }
+            }
+            withAge.add(new HttpHeader("Age", String.valueOf(MILLISECONDS.toSeconds(ageMillis()))));
+            return new HttpHeaders(withAge);
+        }
+
+        boolean isFresh() {
+            return ageMillis() < freshnessLifetimeMillis;
+        }
+
+        String getETag() {
+            HttpHeader eTag = headers.getHeader("ETag");
+            return eTag.isPresent() ? eTag.firstValue() : null;
+        }
+
+        String getLastModified() {
+            HttpHeader lastModified = headers.getHeader("Last-Modified");
+            return lastModified.isPresent() ? lastModified.firstValue() : null;
+        }
+
+        private long ageMillis() {
+            return initialAgeMillis + Math.max(0, System.currentTimeMillis() - storedAt);
+        }
+
+        private boolean variesAsFor(Request request) {
+            for (Map.Entry<String, List<String>> varyingHeader: varyingHeaderValues.entrySet()) {
+                if (!varyingHeader.getValue().equals(valuesOf(request.header(varyingHeader.getKey())))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
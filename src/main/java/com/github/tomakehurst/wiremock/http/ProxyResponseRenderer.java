@@ -15,31 +15,44 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.github.tomakehurst.wiremock.admin.model.ConnectionPoolStats;
+import com.github.tomakehurst.wiremock.admin.model.GetProxyCacheResult;
+import com.github.tomakehurst.wiremock.admin.model.GetProxyConnectionPoolStatsResult;
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
 import com.github.tomakehurst.wiremock.common.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.common.ProxyCacheSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.ProxyStreamingSettings;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.google.common.collect.ImmutableList;
 import org.apache.http.*;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.methods.*;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.pool.PoolStats;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import static com.github.tomakehurst.wiremock.common.HttpClientUtils.getEntityAsByteArrayAndCloseStream;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.PUT;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.PATCH;
 import static com.github.tomakehurst.wiremock.http.Response.response;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
 
 public class ProxyResponseRenderer implements ResponseRenderer {
 
@@ -49,14 +62,42 @@ public class ProxyResponseRenderer implements ResponseRenderer {
     private static final String CONTENT_LENGTH = "content-length";
     private static final String HOST_HEADER = "host";
 
-    private final HttpClient client;
+    private final ProxySettings proxySettings;
+    private final KeyStoreSettings trustStoreSettings;
+    private final ProxyConnectionPoolSettings poolSettings;
+    private PeakTrackingConnectionManager connectionManager;
+    private CloseableHttpClient client;
     private final boolean preserveHostHeader;
     private final String hostHeaderValue;
     private final GlobalSettingsHolder globalSettingsHolder;
+    private final ProxyStreamingSettings streamingSettings;
+    private final ProxyCacheSettings cacheSettings;
+    private final ProxyResponseCache cache;
+    private final boolean coalesceRequests;
+    private final InFlightRequests<ProxyResponseCache.Key, UpstreamResponse> inFlightRequests = new InFlightRequests<>();
 	
 	public ProxyResponseRenderer(ProxySettings proxySettings, KeyStoreSettings trustStoreSettings, boolean preserveHostHeader, String hostHeaderValue, GlobalSettingsHolder globalSettingsHolder) {
+        this(proxySettings, trustStoreSettings, preserveHostHeader, hostHeaderValue, globalSettingsHolder, ProxyStreamingSettings.DISABLED, ProxyConnectionPoolSettings.DEFAULTS, ProxyCacheSettings.DISABLED, false);
+    }
+
+	public ProxyResponseRenderer(ProxySettings proxySettings,
+                                 KeyStoreSettings trustStoreSettings,
+                                 boolean preserveHostHeader,
+                                 String hostHeaderValue,
+                                 GlobalSettingsHolder globalSettingsHolder,
+                                 ProxyStreamingSettings streamingSettings,
+                                 ProxyConnectionPoolSettings poolSettings,
+                                 ProxyCacheSettings cacheSettings,
+                                 boolean coalesceRequests) {
         this.globalSettingsHolder = globalSettingsHolder;
-        client = HttpClientFactory.createClient(1000, 5 * MINUTES, proxySettings, trustStoreSettings);
+        this.streamingSettings = streamingSettings;
+        this.cacheSettings = cacheSettings;
+        cache = new ProxyResponseCache(cacheSettings);
+        this.coalesceRequests = coalesceRequests;
+        this.proxySettings = proxySettings;
+        this.trustStoreSettings = trustStoreSettings;
+        this.poolSettings = poolSettings;
+        client();
 
         this.preserveHostHeader = preserveHostHeader;
         this.hostHeaderValue = hostHeaderValue;
@@ -64,38 +105,206 @@ public class ProxyResponseRenderer implements ResponseRenderer {
 
 	@Override
 	public Response render(ServeEvent serveEvent) {
-        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        final ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        ProxyResponseCache.Key inFlightKey = coalesceRequests ?
+            cache.coalescingKeyFor(responseDefinition.getOriginalRequest(), responseDefinition.getProxyUrl(), responseDefinition.getAdditionalProxyRequestHeaders()) :
+            null;
+
+        UpstreamResponse upstreamResponse;
+        if (inFlightKey != null) {
+            // A streamed body can only be read once, so one shared between requests is always read in full
+            upstreamResponse = inFlightRequests.join(inFlightKey, new Callable<UpstreamResponse>() {
+                @Override
+                public UpstreamResponse call() {
+                    return fetch(responseDefinition, false);
+                }
+            });
+
+            // Requests alike in everything they're keyed on may still differ in a header the target varies on
+            if (!upstreamResponse.appliesTo(responseDefinition.getOriginalRequest())) {
+                upstreamResponse = fetch(responseDefinition, streamingSettings.isEnabled());
+            }
+        } else {
+            upstreamResponse = fetch(responseDefinition, streamingSettings.isEnabled());
+        }
+
+        return withStubbedBehaviour(upstreamResponse.toResponseFor(responseDefinition), responseDefinition);
+    }
+
+    private UpstreamResponse fetch(ResponseDefinition responseDefinition, boolean mayStream) {
+        Request originalRequest = responseDefinition.getOriginalRequest();
         HttpUriRequest httpRequest = getHttpRequestFor(responseDefinition);
         addRequestHeaders(httpRequest, responseDefinition);
 
+        ProxyResponseCache.Key cacheKey = cache.keyFor(originalRequest, responseDefinition.getProxyUrl(), responseDefinition.getAdditionalProxyRequestHeaders());
+        ProxyResponseCache.CachedResponse cachedResponse = null;
+        if (cacheKey != null) {
+            cachedResponse = cache.get(cacheKey, originalRequest);
+            if (cachedResponse != null && cachedResponse.isFresh()) {
+                return UpstreamResponse.fromCache(cachedResponse, originalRequest);
+            }
+
+            addValidatorsIfPresent(httpRequest, cachedResponse);
+        } else {
+            cache.invalidateIfUnsafe(originalRequest, responseDefinition.getProxyUrl());
+        }
+
+        CloseableHttpResponse httpResponse = null;
 		try {
 			addBodyIfPostPutOrPatch(httpRequest, responseDefinition);
-			HttpResponse httpResponse = client.execute(httpRequest);
-
-            return response()
-                    .status(httpResponse.getStatusLine().getStatusCode())
-                    .headers(headersFrom(httpResponse, responseDefinition))
-                    .body(getEntityAsByteArrayAndCloseStream(httpResponse))
-                    .fromProxy(true)
-                    .configureDelay(
-                        globalSettingsHolder.get().getFixedDelay(),
-                        globalSettingsHolder.get().getDelayDistribution(),
-                        responseDefinition.getFixedDelayMilliseconds(),
-                        responseDefinition.getDelayDistribution()
-                    )
-                    .chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay())
-                    .build();
+			httpResponse = client().execute(httpRequest);
+            int status = httpResponse.getStatusLine().getStatusCode();
+            HttpHeaders upstreamHeaders = upstreamHeadersFrom(httpResponse);
+
+            if (cachedResponse != null && status == HTTP_NOT_MODIFIED) {
+                getEntityAsByteArrayAndCloseStream(httpResponse);
+                return UpstreamResponse.fromCache(cache.revalidated(cachedResponse, upstreamHeaders), originalRequest);
+            }
+
+            if (cacheKey != null && cache.isStorable(status, upstreamHeaders) && (!mayStream || fitsInCache(httpResponse))) {
+                byte[] body = getEntityAsByteArrayAndCloseStream(httpResponse);
+                cache.put(cacheKey, originalRequest, status, upstreamHeaders, body);
+                return new UpstreamResponse(originalRequest, status, upstreamHeaders, body, null);
+            }
+
+            if (cachedResponse != null) {
+                cache.invalidate(cacheKey);
+            }
+
+            if (mayStream && httpResponse.getEntity() != null) {
+                return new UpstreamResponse(originalRequest, status, upstreamHeaders, null, new StreamedProxyResponseBody(httpResponse, responseDefinition.getProxyUrl(), streamingSettings.getBufferBytes()));
+            }
+
+            return new UpstreamResponse(originalRequest, status, upstreamHeaders, getEntityAsByteArrayAndCloseStream(httpResponse), null);
 		} catch (IOException e) {
+            closeAbandoned(httpResponse);
 			throw new RuntimeException(e);
-		}
+		} catch (RuntimeException e) {
+            closeAbandoned(httpResponse);
+            throw e;
+        }
 	}
 
-    private HttpHeaders headersFrom(HttpResponse httpResponse, ResponseDefinition responseDefinition) {
-	    List<HttpHeader> httpHeaders = new LinkedList<HttpHeader>();
-	    for (Header header : httpResponse.getAllHeaders()) {
-		    httpHeaders.add(new HttpHeader(header.getName(), header.getValue()));
-	    }
+    // Until it's handed on as a streamed body nothing else will close the response, and its pooled connection
+    // would stay leased. Closing rather than consuming it means the rest of the body isn't read just to be thrown away.
+    private static void closeAbandoned(CloseableHttpResponse httpResponse) {
+        if (httpResponse == null) {
+            return;
+        }
+
+        try {
+            httpResponse.close();
+        } catch (IOException e) {
+            // The connection will be discarded either way
+        }
+    }
+
+    private Response withStubbedBehaviour(Response.Builder responseBuilder, ResponseDefinition responseDefinition) {
+        return responseBuilder
+                .fromProxy(true)
+                .configureDelay(
+                    globalSettingsHolder.get().getFixedDelay(),
+                    globalSettingsHolder.get().getDelayDistribution(),
+                    responseDefinition.getFixedDelayMilliseconds(),
+                    responseDefinition.getDelayDistribution()
+                )
+                .chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay())
+                .throttleBytesPerSecond(responseDefinition.getThrottleBytesPerSecond())
+                .build();
+    }
+
+    private static void addValidatorsIfPresent(HttpRequest httpRequest, ProxyResponseCache.CachedResponse cachedResponse) {
+        if (cachedResponse == null) {
+            return;
+        }
+
+        if (cachedResponse.getETag() != null) {
+            httpRequest.setHeader("If-None-Match", cachedResponse.getETag());
+        }
+        if (cachedResponse.getLastModified() != null) {
+            httpRequest.setHeader("If-Modified-Since", cachedResponse.getLastModified());
+        }
+    }
+
+    // When streaming, only a body known to fit in the cache is worth holding back from the client to store
+    private boolean fitsInCache(HttpResponse httpResponse) {
+        HttpEntity entity = httpResponse.getEntity();
+        return entity == null ||
+            (entity.getContentLength() >= 0 && entity.getContentLength() <= cacheSettings.getMaxBytes());
+    }
+
+    public GetProxyCacheResult getCacheContents() {
+        return cache.getContents();
+    }
 
+    public void purgeCache() {
+        cache.purge();
+    }
+
+    /**
+     * Closes the client, its pooled connections and any thread evicting idle ones. Another is made if anything is
+     * proxied afterwards, as it is once a stopped server is started again.
+     */
+    public synchronized void stop() {
+        if (client == null) {
+            return;
+        }
+
+        try {
+            client.close();
+        } catch (IOException e) {
+            // The connections are discarded either way
+        } finally {
+            connectionManager.shutdown();
+            client = null;
+            connectionManager = null;
+        }
+    }
+
+    // Made afresh after being stopped, so that a restarted server can still proxy
+    private synchronized CloseableHttpClient client() {
+        if (client == null) {
+            connectionManager = HttpClientFactory.createConnectionManager(poolSettings, 5 * MINUTES, trustStoreSettings);
+            client = HttpClientFactory.createClient(connectionManager, poolSettings, proxySettings);
+        }
+
+        return client;
+    }
+
+    public synchronized GetProxyConnectionPoolStatsResult getConnectionPoolStats() {
+        if (connectionManager == null) {
+            return new GetProxyConnectionPoolStatsResult(
+                new ConnectionPoolStats(null, 0, 0, 0, 0),
+                Collections.<ConnectionPoolStats>emptyList(),
+                0
+            );
+        }
+
+        PoolStats totalStats = connectionManager.getTotalStats();
+        List<ConnectionPoolStats> routeStats = new ArrayList<>();
+        for (HttpRoute route: connectionManager.getRoutes()) {
+            PoolStats stats = connectionManager.getStats(route);
+            routeStats.add(new ConnectionPoolStats(route.getTargetHost().toURI(), stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax()));
+        }
+
+        return new GetProxyConnectionPoolStatsResult(
+            new ConnectionPoolStats(null, totalStats.getLeased(), totalStats.getPending(), totalStats.getAvailable(), totalStats.getMax()),
+            routeStats,
+            connectionManager.getPeakLeased()
+        );
+    }
+
+    private static HttpHeaders upstreamHeadersFrom(HttpResponse httpResponse) {
+        List<HttpHeader> httpHeaders = new LinkedList<HttpHeader>();
+        for (Header header : httpResponse.getAllHeaders()) {
+            httpHeaders.add(new HttpHeader(header.getName(), header.getValue()));
+        }
+
+        return new HttpHeaders(httpHeaders);
+    }
+
+    private static HttpHeaders headersFrom(HttpHeaders upstreamHeaders, ResponseDefinition responseDefinition) {
+	    List<HttpHeader> httpHeaders = new LinkedList<HttpHeader>(upstreamHeaders.all());
         if (responseDefinition.getHeaders() != null) {
             httpHeaders.addAll(responseDefinition.getHeaders().all());
         }
@@ -174,4 +383,39 @@ public class ProxyResponseRenderer implements ResponseRenderer {
         return content;
     }
 
+
+    /**
+     * The parts of a response from the target that don't depend on which stub proxied the request
+     */
+    private static class UpstreamResponse {
+
+        private final Request fetchedFor;
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final InputStreamSource streamedBody;
+
+        UpstreamResponse(Request fetchedFor, int status, HttpHeaders headers, byte[] body, InputStreamSource streamedBody) {
+            this.fetchedFor = fetchedFor;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.streamedBody = streamedBody;
+        }
+
+        static UpstreamResponse fromCache(ProxyResponseCache.CachedResponse cachedResponse, Request request) {
+            return new UpstreamResponse(request, cachedResponse.getStatus(), cachedResponse.getHeaders(), cachedResponse.getBody(), null);
+        }
+
+        boolean appliesTo(Request request) {
+            return request == fetchedFor || ProxyResponseCache.appliesAlikeTo(headers, fetchedFor, request);
+        }
+
+        Response.Builder toResponseFor(ResponseDefinition responseDefinition) {
+            Response.Builder builder = response()
+                .status(status)
+                .headers(headersFrom(headers, responseDefinition));
+            return streamedBody != null ? builder.body(streamedBody) : builder.body(body);
+        }
+    }
 }
@@ -39,6 +39,7 @@ public class Response {
 	private final boolean fromProxy;
 	private final long initialDelay;
     private final ChunkedDribbleDelay chunkedDribbleDelay;
+    private final Integer throttleBytesPerSecond;
 
 	public static Response notConfigured() {
         return new Response(
@@ -50,6 +51,7 @@ public class Response {
                 null,
                 0,
                 null,
+                null,
                 false);
     }
 
@@ -59,6 +61,11 @@ public class Response {
 
     public Response(int status, String statusMessage, byte[] body, HttpHeaders headers, boolean configured, Fault fault, long initialDelay,
                     ChunkedDribbleDelay chunkedDribbleDelay, boolean fromProxy) {
+        this(status, statusMessage, body, headers, configured, fault, initialDelay, chunkedDribbleDelay, null, fromProxy);
+    }
+
+    public Response(int status, String statusMessage, byte[] body, HttpHeaders headers, boolean configured, Fault fault, long initialDelay,
+                    ChunkedDribbleDelay chunkedDribbleDelay, Integer throttleBytesPerSecond, boolean fromProxy) {
         this.status = status;
         this.statusMessage = statusMessage;
         this.bodyStreamSource = StreamSources.forBytes(body);
@@ -67,11 +74,17 @@ public class Response {
         this.fault = fault;
         this.initialDelay = initialDelay;
         this.chunkedDribbleDelay = chunkedDribbleDelay;
+        this.throttleBytesPerSecond = throttleBytesPerSecond;
         this.fromProxy = fromProxy;
     }
 
     public Response(int status, String statusMessage, InputStreamSource streamSource, HttpHeaders headers, boolean configured, Fault fault, long initialDelay,
                     ChunkedDribbleDelay chunkedDribbleDelay, boolean fromProxy) {
+        this(status, statusMessage, streamSource, headers, configured, fault, initialDelay, chunkedDribbleDelay, null, fromProxy);
+    }
+
+    public Response(int status, String statusMessage, InputStreamSource streamSource, HttpHeaders headers, boolean configured, Fault fault, long initialDelay,
+                    ChunkedDribbleDelay chunkedDribbleDelay, Integer throttleBytesPerSecond, boolean fromProxy) {
         this.status = status;
         this.statusMessage = statusMessage;
         this.bodyStreamSource = streamSource;
@@ -80,11 +93,17 @@ public class Response {
         this.fault = fault;
         this.initialDelay = initialDelay;
         this.chunkedDribbleDelay = chunkedDribbleDelay;
+        this.throttleBytesPerSecond = throttleBytesPerSecond;
         this.fromProxy = fromProxy;
     }
 
     public Response(int status, String statusMessage, String body, HttpHeaders headers, boolean configured, Fault fault, long initialDelay,
                     ChunkedDribbleDelay chunkedDribbleDelay, boolean fromProxy) {
+        this(status, statusMessage, body, headers, configured, fault, initialDelay, chunkedDribbleDelay, null, fromProxy);
+    }
+
+    public Response(int status, String statusMessage, String body, HttpHeaders headers, boolean configured, Fault fault, long initialDelay,
+                    ChunkedDribbleDelay chunkedDribbleDelay, Integer throttleBytesPerSecond, boolean fromProxy) {
         this.status = status;
         this.statusMessage = statusMessage;
         this.headers = headers;
@@ -93,6 +112,7 @@ public class Response {
         this.fault = fault;
         this.initialDelay = initialDelay;
         this.chunkedDribbleDelay = chunkedDribbleDelay;
+        this.throttleBytesPerSecond = throttleBytesPerSecond;
         this.fromProxy = fromProxy;
     }
 
@@ -105,6 +125,10 @@ public class Response {
     }
 
     public byte[] getBody() {
+        if (bodyStreamSource instanceof StreamedProxyResponseBody) {
+            return ((StreamedProxyResponseBody) bodyStreamSource).readFully();
+        }
+
         try (InputStream stream = bodyStreamSource == null ? null : getBodyStream()) {
             return stream == null ? null : ByteStreams.toByteArray(stream);
         } catch (IOException e) {
@@ -120,6 +144,10 @@ public class Response {
         return bodyStreamSource == null ? null : bodyStreamSource.getStream();
     }
 
+    InputStreamSource getBodyStreamSource() {
+        return bodyStreamSource;
+    }
+
 	public HttpHeaders getHeaders() {
 		return headers;
 	}
@@ -140,6 +168,14 @@ public class Response {
         return chunkedDribbleDelay != null;
     }
 
+    public Integer getThrottleBytesPerSecond() {
+        return throttleBytesPerSecond;
+    }
+
+    public boolean shouldThrottle() {
+        return throttleBytesPerSecond != null;
+    }
+
 	public boolean wasConfigured() {
 		return configured;
 	}
@@ -169,6 +205,7 @@ public class Response {
         private boolean fromProxy;
         private long initialDelay;
         private ChunkedDribbleDelay chunkedDribbleDelay;
+        private Integer throttleBytesPerSecond;
 
         public static Builder like(Response response) {
             Builder responseBuilder = new Builder();
@@ -179,6 +216,7 @@ public class Response {
             responseBuilder.fault = response.getFault();
             responseBuilder.initialDelay = response.getInitialDelay();
             responseBuilder.chunkedDribbleDelay = response.getChunkedDribbleDelay();
+            responseBuilder.throttleBytesPerSecond = response.getThrottleBytesPerSecond();
             responseBuilder.fromProxy = response.isFromProxy();
             return responseBuilder;
         }
@@ -281,6 +319,11 @@ public class Response {
             return this;
         }
 
+        public Builder throttleBytesPerSecond(Integer throttleBytesPerSecond) {
+            this.throttleBytesPerSecond = throttleBytesPerSecond;
+            return this;
+        }
+
         public Builder fromProxy(boolean fromProxy) {
             this.fromProxy = fromProxy;
             return this;
@@ -288,13 +331,13 @@ public class Response {
 
         public Response build() {
             if (bodyBytes != null) {
-                return new Response(status, statusMessage, bodyBytes, headers, configured, fault, initialDelay, chunkedDribbleDelay, fromProxy);
+                return new Response(status, statusMessage, bodyBytes, headers, configured, fault, initialDelay, chunkedDribbleDelay, throttleBytesPerSecond, fromProxy);
             } else if (bodyString != null) {
-                return new Response(status, statusMessage, bodyString, headers, configured, fault, initialDelay, chunkedDribbleDelay, fromProxy);
+                return new Response(status, statusMessage, bodyString, headers, configured, fault, initialDelay, chunkedDribbleDelay, throttleBytesPerSecond, fromProxy);
             } else if (bodyStream != null) {
-                return new Response(status, statusMessage, bodyStream, headers, configured, fault, initialDelay, chunkedDribbleDelay, fromProxy);
+                return new Response(status, statusMessage, bodyStream, headers, configured, fault, initialDelay, chunkedDribbleDelay, throttleBytesPerSecond, fromProxy);
             } else {
-                return new Response(status, statusMessage, new byte[0], headers, configured, fault, initialDelay, chunkedDribbleDelay, fromProxy);
+                return new Response(status, statusMessage, new byte[0], headers, configured, fault, initialDelay, chunkedDribbleDelay, throttleBytesPerSecond, fromProxy);
             }
         }
     }
@@ -46,6 +46,7 @@ public class ResponseDefinition {
     private final Integer fixedDelayMilliseconds;
     private final DelayDistribution delayDistribution;
     private final ChunkedDribbleDelay chunkedDribbleDelay;
+    private final Integer throttleBytesPerSecond;
     private final String proxyBaseUrl;
     private final Fault fault;
     private final List<String> transformers;
@@ -67,12 +68,32 @@ public class ResponseDefinition {
                               @JsonProperty("fixedDelayMilliseconds") Integer fixedDelayMilliseconds,
                               @JsonProperty("delayDistribution") DelayDistribution delayDistribution,
                               @JsonProperty("chunkedDribbleDelay") ChunkedDribbleDelay chunkedDribbleDelay,
+                              @JsonProperty("throttleBytesPerSecond") Integer throttleBytesPerSecond,
                               @JsonProperty("proxyBaseUrl") String proxyBaseUrl,
                               @JsonProperty("fault") Fault fault,
                               @JsonProperty("transformers") List<String> transformers,
                               @JsonProperty("transformerParameters") Parameters transformerParameters,
                               @JsonProperty("fromConfiguredStub") Boolean wasConfigured) {
-        this(status, statusMessage, Body.fromOneOf(null, body, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
+        this(status, statusMessage, Body.fromOneOf(null, body, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, throttleBytesPerSecond, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
+    }
+
+    public ResponseDefinition(int status,
+                              String statusMessage,
+                              String body,
+                              JsonNode jsonBody,
+                              String base64Body,
+                              String bodyFileName,
+                              HttpHeaders headers,
+                              HttpHeaders additionalProxyRequestHeaders,
+                              Integer fixedDelayMilliseconds,
+                              DelayDistribution delayDistribution,
+                              ChunkedDribbleDelay chunkedDribbleDelay,
+                              String proxyBaseUrl,
+                              Fault fault,
+                              List<String> transformers,
+                              Parameters transformerParameters,
+                              Boolean wasConfigured) {
+        this(status, statusMessage, body, jsonBody, base64Body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, null, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
     }
 
     public ResponseDefinition(int status,
@@ -86,12 +107,32 @@ public class ResponseDefinition {
                               Integer fixedDelayMilliseconds,
                               DelayDistribution delayDistribution,
                               ChunkedDribbleDelay chunkedDribbleDelay,
+                              Integer throttleBytesPerSecond,
                               String proxyBaseUrl,
                               Fault fault,
                               List<String> transformers,
                               Parameters transformerParameters,
                               Boolean wasConfigured) {
-        this(status, statusMessage, Body.fromOneOf(body, null, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
+        this(status, statusMessage, Body.fromOneOf(body, null, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, throttleBytesPerSecond, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
+    }
+
+    public ResponseDefinition(int status,
+                              String statusMessage,
+                              byte[] body,
+                              JsonNode jsonBody,
+                              String base64Body,
+                              String bodyFileName,
+                              HttpHeaders headers,
+                              HttpHeaders additionalProxyRequestHeaders,
+                              Integer fixedDelayMilliseconds,
+                              DelayDistribution delayDistribution,
+                              ChunkedDribbleDelay chunkedDribbleDelay,
+                              String proxyBaseUrl,
+                              Fault fault,
+                              List<String> transformers,
+                              Parameters transformerParameters,
+                              Boolean wasConfigured) {
+        this(status, statusMessage, body, jsonBody, base64Body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, null, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
     }
 
     private ResponseDefinition(int status,
@@ -103,6 +144,7 @@ public class ResponseDefinition {
                                Integer fixedDelayMilliseconds,
                                DelayDistribution delayDistribution,
                                ChunkedDribbleDelay chunkedDribbleDelay,
+                               Integer throttleBytesPerSecond,
                                String proxyBaseUrl,
                                Fault fault,
                                List<String> transformers,
@@ -119,6 +161,7 @@ public class ResponseDefinition {
         this.fixedDelayMilliseconds = fixedDelayMilliseconds;
         this.delayDistribution = delayDistribution;
         this.chunkedDribbleDelay = chunkedDribbleDelay;
+        this.throttleBytesPerSecond = throttleBytesPerSecond;
         this.proxyBaseUrl = proxyBaseUrl;
         this.fault = fault;
         this.transformers = transformers;
@@ -127,15 +170,15 @@ public class ResponseDefinition {
     }
 
     public ResponseDefinition(final int statusCode, final String bodyContent) {
-        this(statusCode, null, Body.fromString(bodyContent), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(statusCode, null, Body.fromString(bodyContent), null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public ResponseDefinition(final int statusCode, final byte[] bodyContent) {
-        this(statusCode, null, Body.fromBytes(bodyContent), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(statusCode, null, Body.fromBytes(bodyContent), null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public ResponseDefinition() {
-        this(HTTP_OK, null, Body.none(), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(HTTP_OK, null, Body.none(), null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public static ResponseDefinition notFound() {
@@ -210,6 +253,7 @@ public class ResponseDefinition {
             original.fixedDelayMilliseconds,
             original.delayDistribution,
             original.chunkedDribbleDelay,
+            original.throttleBytesPerSecond,
             original.proxyBaseUrl,
             original.fault,
             original.transformers,
@@ -277,6 +321,10 @@ public class ResponseDefinition {
         return chunkedDribbleDelay;
     }
 
+    public Integer getThrottleBytesPerSecond() {
+        return throttleBytesPerSecond;
+    }
+
     @JsonIgnore
     public String getProxyUrl() {
         if (browserProxyUrl != null) {
@@ -342,6 +390,25 @@ public class ResponseDefinition {
         return transformers != null && transformers.contains(transformer.getName());
     }
 
+    /**
+     * True if the other definition shares this one's response content by reference, as a copy does. This is
+     * cheaper than equals() and can't be fooled by a transformer that has built an equal-looking body.
+     */
+    boolean hasSameResponseContentAs(ResponseDefinition other) {
+        return status == other.status &&
+            statusMessage == other.statusMessage &&
+            body == other.body &&
+            bodyFileName == other.bodyFileName &&
+            headers == other.headers &&
+            chunkedDribbleDelay == other.chunkedDribbleDelay &&
+            Objects.equals(throttleBytesPerSecond, other.throttleBytesPerSecond) &&
+            proxyBaseUrl == other.proxyBaseUrl &&
+            browserProxyUrl == other.browserProxyUrl &&
+            fault == other.fault &&
+            transformers == other.transformers &&
+            Objects.equals(wasConfigured, other.wasConfigured);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -356,6 +423,7 @@ public class ResponseDefinition {
             Objects.equals(fixedDelayMilliseconds, that.fixedDelayMilliseconds) &&
             Objects.equals(delayDistribution, that.delayDistribution) &&
             Objects.equals(chunkedDribbleDelay, that.chunkedDribbleDelay) &&
+            Objects.equals(throttleBytesPerSecond, that.throttleBytesPerSecond) &&
             Objects.equals(proxyBaseUrl, that.proxyBaseUrl) &&
             fault == that.fault &&
             Objects.equals(transformers, that.transformers) &&
@@ -366,7 +434,7 @@ public class ResponseDefinition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(status, statusMessage, body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, browserProxyUrl, wasConfigured);
+        return Objects.hash(status, statusMessage, body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, throttleBytesPerSecond, proxyBaseUrl, fault, transformers, transformerParameters, browserProxyUrl, wasConfigured);
     }
 
     @Override
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
+
+import static com.github.tomakehurst.wiremock.http.Response.response;
+
+/**
+ * The response for a stub whose output never varies between requests, i.e. one with an inline body and no
+ * proxying or transformers, rendered once with its headers and body ready to write. Only the delay is worked
+ * out per request, and when there isn't one the same immutable {@link Response} is returned every time.
+ */
+class ResponsePlan {
+
+    private final ResponseDefinition source;
+    private final Response response;
+
+    ResponsePlan(ResponseDefinition source, Response response) {
+        this.source = source;
+        this.response = response;
+    }
+
+    static boolean canBePlanned(ResponseDefinition responseDefinition) {
+        return responseDefinition.wasConfigured() &&
+            !responseDefinition.isProxyResponse() &&
+            !responseDefinition.specifiesBodyFile() &&
+            (responseDefinition.getTransformers() == null || responseDefinition.getTransformers().isEmpty());
+    }
+
+    boolean isFor(ResponseDefinition stubResponse, ResponseDefinition servedResponse) {
+        return source == stubResponse && source.hasSameResponseContentAs(servedResponse);
+    }
+
+    Response respond(GlobalSettings globalSettings, ResponseDefinition responseDefinition) {
+        if (globalSettings.getFixedDelay() == null &&
+            globalSettings.getDelayDistribution() == null &&
+            responseDefinition.getFixedDelayMilliseconds() == null &&
+            responseDefinition.getDelayDistribution() == null) {
+            return response;
+        }
+
+        return response()
+            .status(response.getStatus())
+            .statusMessage(response.getStatusMessage())
+            .headers(response.getHeaders())
+            .fault(response.getFault())
+            .body(response.getBodyStreamSource())
+            .chunkedDribbleDelay(response.getChunkedDribbleDelay())
+            .throttleBytesPerSecond(response.getThrottleBytesPerSecond())
+            .configureDelay(
+                globalSettings.getFixedDelay(),
+                globalSettings.getDelayDistribution(),
+                responseDefinition.getFixedDelayMilliseconds(),
+                responseDefinition.getDelayDistribution()
+            )
+            .build();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+
+/**
+ * The body of a proxied response, read from the upstream server as it is sent on to the client rather than being
+ * buffered in full first. Up to a given number of bytes are kept as they pass through, for the request journal.
+ *
+ * Anything that needs the whole body before it has been sent (e.g. recording with --record-mappings, or a response
+ * transformer) reads it into memory in full, as happens when not streaming, and the client is then sent that copy.
+ */
+class StreamedProxyResponseBody implements InputStreamSource, Closeable {
+
+    private final CloseableHttpResponse httpResponse;
+    private final String url;
+    private final int bufferBytes;
+
+    private boolean opened;
+    private byte[] fullBody;
+    private ByteArrayOutputStream buffer;
+    private byte[] kept;
+
+    StreamedProxyResponseBody(CloseableHttpResponse httpResponse, String url, int bufferBytes) {
+        this.httpResponse = httpResponse;
+        this.url = url;
+        this.bufferBytes = bufferBytes;
+        this.buffer = new ByteArrayOutputStream(Math.min(bufferBytes, 8192));
+    }
+
+    /**
+     * Returns the upstream body the first time it's called, and after that whatever of it has been kept
+     */
+    @Override
+    public synchronized InputStream getStream() {
+        if (opened) {
+            return new ByteArrayInputStream(keptBytes());
+        }
+
+        opened = true;
+        try {
+            return new TeeInputStream(httpResponse.getEntity().getContent());
+        } catch (IOException e) {
+            closeUpstream();
+            return throwUnchecked(e, InputStream.class);
+        }
+    }
+
+    synchronized byte[] readFully() {
+        if (!opened) {
+            opened = true;
+            try {
+                fullBody = EntityUtils.toByteArray(httpResponse.getEntity());
+            } catch (IOException e) {
+                throwUnchecked(e);
+            } finally {
+                closeUpstream();
+            }
+        }
+
+        return keptBytes();
+    }
+
+    synchronized byte[] keptBytes() {
+        if (fullBody != null) {
+            return fullBody;
+        }
+
+        return kept != null ? kept : buffer.toByteArray();
+    }
+
+    /**
+     * Releases the upstream connection if the body is never going to be read
+     */
+    @Override
+    public synchronized void close() {
+        if (!opened) {
+            opened = true;
+            kept = new byte[0];
+            buffer = null;
+            closeUpstream();
+        }
+    }
+
+    private synchronized void keep(byte[] bytes, int offset, int length) {
+        if (buffer == null) {
+            return;
+        }
+
+        int room = bufferBytes - buffer.size();
+        if (length <= room) {
+            buffer.write(bytes, offset, length);
+            return;
+        }
+
+        buffer.write(bytes, offset, room);
+        kept = buffer.toByteArray();
+        buffer = null;
+        if (bufferBytes > 0) {
+            notifier().info("Only the first " + bufferBytes + " bytes of the body streamed from " + url +
+                " will be kept in the request journal");
+        }
+    }
+
+    private synchronized void finishKeeping() {
+        if (buffer != null) {
+            kept = buffer.toByteArray();
+            buffer = null;
+        }
+    }
+
+    private void closeUpstream() {
+        try {
+            httpResponse.close();
+        } catch (IOException e) {
+            // The connection will be discarded either way
+        }
+    }
+
+    private class TeeInputStream extends FilterInputStream {
+
+        private boolean endOfStream;
+        private boolean closed;
+
+        TeeInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                endOfStream = true;
+            } else {
+                keep(new byte[] { (byte) b }, 0, 1);
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = super.read(b, off, len);
+            if (count == -1) {
+                endOfStream = true;
+            } else {
+                keep(b, off, count);
+            }
+
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] skipped = new byte[(int) Math.min(n, 8192)];
+            int count = read(skipped, 0, skipped.length);
+            return count == -1 ? 0 : count;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        // A stream read to the end gives its connection back to the pool. One abandoned part way through (e.g.
+        // because the client went away) is closed, rather than the rest of the body being read just to reuse it.
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            finishKeeping();
+            if (endOfStream) {
+                super.close();
+            } else {
+                closeUpstream();
+            }
+        }
+    }
+}
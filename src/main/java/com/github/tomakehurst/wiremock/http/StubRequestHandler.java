@@ -15,6 +15,7 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
 import com.github.tomakehurst.wiremock.core.Admin;
 import com.github.tomakehurst.wiremock.core.StubServer;
 import com.github.tomakehurst.wiremock.extension.Parameters;
@@ -23,6 +24,7 @@ import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.verification.RequestJournal;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 
@@ -32,17 +34,38 @@ public class StubRequestHandler extends AbstractRequestHandler {
     private final Admin admin;
     private final Map<String, PostServeAction> postServeActions;
     private final RequestJournal requestJournal;
+    private final Executor proxyExecutor;
+    private final HashedWheelTimer delayScheduler;
 
 	public StubRequestHandler(StubServer stubServer,
                               ResponseRenderer responseRenderer,
                               Admin admin,
                               Map<String, PostServeAction> postServeActions,
                               RequestJournal requestJournal) {
+		this(stubServer, responseRenderer, admin, postServeActions, requestJournal, null, null);
+    }
+
+	public StubRequestHandler(StubServer stubServer,
+                              ResponseRenderer responseRenderer,
+                              Admin admin,
+                              Map<String, PostServeAction> postServeActions,
+                              RequestJournal requestJournal,
+                              Executor proxyExecutor,
+                              HashedWheelTimer delayScheduler) {
 		super(responseRenderer);
 		this.stubServer = stubServer;
         this.admin = admin;
         this.postServeActions = postServeActions;
         this.requestJournal = requestJournal;
+        this.proxyExecutor = proxyExecutor;
+        this.delayScheduler = delayScheduler;
+    }
+
+    /**
+     * The timer delayed and dribbled responses are scheduled on, or null if whatever serves them is to provide its own
+     */
+    public HashedWheelTimer getDelayScheduler() {
+        return delayScheduler;
     }
 
 	@Override
@@ -50,6 +73,12 @@ public class StubRequestHandler extends AbstractRequestHandler {
 		return stubServer.serveStubFor(request);
 	}
 
+	// The upstream round trip is the only part of serving a stub that waits on anything outside WireMock
+	@Override
+	protected Executor renderingExecutorFor(ServeEvent serveEvent) {
+		return serveEvent.getResponseDefinition().isProxyResponse() ? proxyExecutor : null;
+	}
+
 	@Override
 	protected boolean logRequests() {
 		return true;
@@ -17,11 +17,14 @@ package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.common.BinaryFile;
 import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
 import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import java.util.List;
 
@@ -35,6 +38,7 @@ public class StubResponseRenderer implements ResponseRenderer {
 	private final GlobalSettingsHolder globalSettingsHolder;
 	private final ProxyResponseRenderer proxyResponseRenderer;
 	private final List<ResponseTransformer> responseTransformers;
+	private final Cache<StubMapping, ResponsePlan> responsePlans = CacheBuilder.newBuilder().weakKeys().build();
 
     public StubResponseRenderer(FileSource fileSource,
 								GlobalSettingsHolder globalSettingsHolder,
@@ -54,16 +58,58 @@ public class StubResponseRenderer implements ResponseRenderer {
 		}
 
 		Response response = buildResponse(serveEvent);
-		return applyTransformations(responseDefinition.getOriginalRequest(), responseDefinition, response, responseTransformers);
+		Response transformedResponse = applyTransformations(responseDefinition.getOriginalRequest(), responseDefinition, response, responseTransformers);
+		releaseUpstreamIfBodyReplaced(response, transformedResponse);
+		return transformedResponse;
+	}
+
+	// A streamed proxy body that a transformer swapped for another would otherwise hold its connection indefinitely
+	private static void releaseUpstreamIfBodyReplaced(Response response, Response transformedResponse) {
+		InputStreamSource bodySource = response.getBodyStreamSource();
+		if (bodySource instanceof StreamedProxyResponseBody && transformedResponse.getBodyStreamSource() != bodySource) {
+			((StreamedProxyResponseBody) bodySource).close();
+		}
 	}
 
 	private Response buildResponse(ServeEvent serveEvent) {
 		if (serveEvent.getResponseDefinition().isProxyResponse()) {
 			return proxyResponseRenderer.render(serveEvent);
-		} else {
-			Response.Builder responseBuilder = renderDirectly(serveEvent);
-			return responseBuilder.build();
 		}
+
+		ResponsePlan responsePlan = responsePlanFor(serveEvent);
+		if (responsePlan != null) {
+			return responsePlan.respond(globalSettingsHolder.get(), serveEvent.getResponseDefinition());
+		}
+
+		Response.Builder responseBuilder = renderDirectly(serveEvent);
+		return responseBuilder.build();
+	}
+
+	/**
+	 * Returns the precompiled response for the matched stub if the response being served is the stub's own,
+	 * untransformed one, building it on first use. Plans are held against the stub instance, so editing a stub
+	 * (which replaces the instance) discards its plan.
+	 */
+	private ResponsePlan responsePlanFor(ServeEvent serveEvent) {
+		StubMapping stubMapping = serveEvent.getStubMapping();
+		if (!serveEvent.getWasMatched() || stubMapping == null) {
+			return null;
+		}
+
+		ResponseDefinition stubResponse = stubMapping.getResponse();
+		ResponseDefinition servedResponse = serveEvent.getResponseDefinition();
+		ResponsePlan responsePlan = responsePlans.getIfPresent(stubMapping);
+		if (responsePlan != null && responsePlan.isFor(stubResponse, servedResponse)) {
+			return responsePlan;
+		}
+
+		if (!ResponsePlan.canBePlanned(servedResponse) || !stubResponse.hasSameResponseContentAs(servedResponse)) {
+			return null;
+		}
+
+		responsePlan = new ResponsePlan(stubResponse, headersAndBody(serveEvent).build());
+		responsePlans.put(stubMapping, responsePlan);
+		return responsePlan;
 	}
 
 	private Response applyTransformations(Request request,
@@ -85,6 +131,17 @@ public class StubResponseRenderer implements ResponseRenderer {
 
 	private Response.Builder renderDirectly(ServeEvent serveEvent) {
         ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        return headersAndBody(serveEvent)
+            .configureDelay(
+                globalSettingsHolder.get().getFixedDelay(),
+                globalSettingsHolder.get().getDelayDistribution(),
+                responseDefinition.getFixedDelayMilliseconds(),
+                responseDefinition.getDelayDistribution()
+            );
+	}
+
+	private Response.Builder headersAndBody(ServeEvent serveEvent) {
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
 
         HttpHeaders headers = responseDefinition.getHeaders();
         StubMapping stubMapping = serveEvent.getStubMapping();
@@ -103,13 +160,8 @@ public class StubResponseRenderer implements ResponseRenderer {
 				.statusMessage(responseDefinition.getStatusMessage())
                 .headers(headers)
                 .fault(responseDefinition.getFault())
-				.configureDelay(
-					globalSettingsHolder.get().getFixedDelay(),
-					globalSettingsHolder.get().getDelayDistribution(),
-					responseDefinition.getFixedDelayMilliseconds(),
-					responseDefinition.getDelayDistribution()
-				)
-				.chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay());
+				.chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay())
+				.throttleBytesPerSecond(responseDefinition.getThrottleBytesPerSecond());
 
 		if (responseDefinition.specifiesBodyFile()) {
 			BinaryFile bodyFile = fileSource.getBinaryFileNamed(responseDefinition.getBodyFileName());
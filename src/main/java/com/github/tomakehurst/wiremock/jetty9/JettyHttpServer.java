@@ -347,6 +347,9 @@ public class JettyHttpServer implements HttpServer {
             ScheduledExecutorService scheduledExecutorService = newScheduledThreadPool(asynchronousResponseSettings.getThreads());
             mockServiceContext.setAttribute(WireMockHandlerDispatchingServlet.ASYNCHRONOUS_RESPONSE_EXECUTOR, scheduledExecutorService);
         }
+        if (stubRequestHandler.getDelayScheduler() != null) {
+            mockServiceContext.setAttribute(WireMockHandlerDispatchingServlet.DELAY_SCHEDULER, stubRequestHandler.getDelayScheduler());
+        }
 
         MimeTypes mimeTypes = new MimeTypes();
         mimeTypes.addMimeMapping("json", "application/json");
@@ -17,14 +17,18 @@ package com.github.tomakehurst.wiremock.jetty9;
 
 import org.eclipse.jetty.io.ssl.SslConnection;
 import org.eclipse.jetty.server.HttpChannel;
+import org.eclipse.jetty.server.HttpOutput;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Response;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
 import java.net.Socket;
 import java.net.URI;
+import java.nio.ByteBuffer;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 
@@ -39,6 +43,35 @@ public class JettyUtils {
         return (Response) httpServletResponse;
     }
 
+    /**
+     * Sends the buffer as the entire response body straight to Jetty's output, which writes it to the connection
+     * without first copying it into an aggregation buffer, and without copying memory-mapped files onto the heap.
+     * Returns false, having written nothing, if the response's output stream isn't Jetty's own (e.g. because a
+     * filter has wrapped it to compress the body).
+     *
+     * The headers are flushed first, as a stream copy would, so the body is still chunked unless a Content-Length
+     * was given.
+     */
+    public static boolean sendContent(HttpServletResponse httpServletResponse, ServletOutputStream out, ByteBuffer content) throws IOException {
+        ServletResponse unwrapped = httpServletResponse;
+        while (unwrapped instanceof HttpServletResponseWrapper) {
+            unwrapped = ((HttpServletResponseWrapper) unwrapped).getResponse();
+        }
+
+        if (!(unwrapped instanceof Response)) {
+            return false;
+        }
+
+        HttpOutput httpOutput = ((Response) unwrapped).getHttpOutput();
+        if (out != httpOutput) {
+            return false;
+        }
+
+        httpOutput.flush();
+        httpOutput.sendContent(content);
+        return true;
+    }
+
     public static Socket getTlsSocket(Response response) {
         HttpChannel httpChannel = response.getHttpOutput().getHttpChannel();
         SslConnection.DecryptedEndPoint sslEndpoint = (SslConnection.DecryptedEndPoint) httpChannel.getEndPoint();
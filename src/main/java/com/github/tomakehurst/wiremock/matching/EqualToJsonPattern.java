@@ -96,8 +96,13 @@ public class EqualToJsonPattern extends StringValuePattern {
 
     @Override
     public MatchResult match(String value) {
+        return matchBody(new ParsedBody(value));
+    }
+
+    @Override
+    public MatchResult matchBody(ParsedBody body) {
         try {
-            final JsonNode actual = Json.read(value, JsonNode.class);
+            final JsonNode actual = body.asJsonNode();
 
             return new MatchResult() {
                 @Override
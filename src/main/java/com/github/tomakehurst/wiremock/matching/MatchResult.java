@@ -81,6 +81,26 @@ public abstract class MatchResult implements Comparable<MatchResult> {
 
                 return (totalDistance / sizeWithWeighting);
             }
+
+            // Distances are never negative, so once those evaluated so far reach the ceiling the rest can be skipped
+            @Override
+            public double getDistanceBelow(double ceiling) {
+                double sizeWithWeighting = 0;
+                for (WeightedMatchResult matchResult: matchResults) {
+                    sizeWithWeighting += matchResult.getWeighting();
+                }
+
+                double totalCeiling = ceiling * sizeWithWeighting;
+                double totalDistance = 0;
+                for (WeightedMatchResult matchResult: matchResults) {
+                    totalDistance += matchResult.getDistanceBelow(totalCeiling - totalDistance);
+                    if (totalDistance >= totalCeiling) {
+                        return Math.max(totalDistance / sizeWithWeighting, ceiling);
+                    }
+                }
+
+                return (totalDistance / sizeWithWeighting);
+            }
         };
     }
 
@@ -88,6 +108,16 @@ public abstract class MatchResult implements Comparable<MatchResult> {
     public abstract boolean isExactMatch();
 
     public abstract double getDistance();
+
+    /**
+     * The distance if it's less than the ceiling, otherwise any value no less than the ceiling. Results made up of
+     * several others can stop evaluating them once the ceiling is reached, so this can be much cheaper than
+     * getDistance() when only results nearer than some already found are of interest.
+     */
+    public double getDistanceBelow(double ceiling) {
+        return getDistance();
+    }
+
     @Override
     public int compareTo(MatchResult other) {
         return Double.compare(other.getDistance(), getDistance());
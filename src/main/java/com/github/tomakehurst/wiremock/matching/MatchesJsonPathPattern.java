@@ -18,7 +18,6 @@ package com.github.tomakehurst.wiremock.matching;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.github.tomakehurst.wiremock.common.Json;
-import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
 import java.util.Collection;
@@ -42,9 +41,9 @@ public class MatchesJsonPathPattern extends PathPattern {
         return expectedValue;
     }
 
-    protected MatchResult isSimpleJsonPathMatch(String value) {
+    protected MatchResult isSimpleJsonPathMatch(ParsedBody body) {
         try {
-            Object obj = JsonPath.read(value, expectedValue);
+            Object obj = body.asJsonPathDocument().read(expectedValue);
 
             boolean result;
             if (obj instanceof Collection) {
@@ -68,7 +67,7 @@ public class MatchesJsonPathPattern extends PathPattern {
 
             String message = String.format(
                 "Warning: JSON path expression '%s' failed to match document '%s' because %s",
-                expectedValue, value, error);
+                expectedValue, body.asString(), error);
             notifier().info(message);
 
             return MatchResult.noMatch();
@@ -76,10 +75,10 @@ public class MatchesJsonPathPattern extends PathPattern {
 
     }
 
-    protected MatchResult isAdvancedJsonPathMatch(String value) {
+    protected MatchResult isAdvancedJsonPathMatch(ParsedBody body) {
         Object obj = null;
         try {
-            obj = JsonPath.read(value, expectedValue);
+            obj = body.asJsonPathDocument().read(expectedValue);
         } catch (PathNotFoundException pnfe) {
         } catch (Exception e) {
             String error;
@@ -91,12 +90,13 @@ public class MatchesJsonPathPattern extends PathPattern {
 
             String message = String.format(
                 "Warning: JSON path expression '%s' failed to match document '%s' because %s",
-                expectedValue, value, error);
+                expectedValue, body.asString(), error);
             notifier().info(message);
 
             return MatchResult.noMatch();
         }
 
+        String value;
         if (obj instanceof Number || obj instanceof String || obj instanceof Boolean) {
             value = String.valueOf(obj);
         } else if (obj instanceof Map || obj instanceof Collection) {
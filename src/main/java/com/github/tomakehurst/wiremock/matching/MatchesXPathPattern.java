@@ -18,7 +18,6 @@ package com.github.tomakehurst.wiremock.matching;
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import com.github.tomakehurst.wiremock.common.SilentErrorHandler;
 import com.github.tomakehurst.wiremock.common.Xml;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
@@ -32,10 +31,10 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
 import java.io.IOException;
-import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 
@@ -86,55 +85,71 @@ public class MatchesXPathPattern extends PathPattern {
     }
 
     @Override
-    protected MatchResult isSimpleJsonPathMatch(String value) {
-        if (value == null) {
+    protected MatchResult isSimpleJsonPathMatch(ParsedBody body) {
+        Document document = xmlDocumentOf(body);
+        if (document == null) {
             return MatchResult.noMatch();
         }
 
-        NodeList nodeList = findXmlNodesMatching(value);
-
-        return MatchResult.of(nodeList != null && nodeList.getLength() > 0);
+        synchronized (document) {
+            NodeList nodeList = findXmlNodesMatching(document);
+            return MatchResult.of(nodeList != null && nodeList.getLength() > 0);
+        }
     }
 
     @Override
-    protected MatchResult isAdvancedJsonPathMatch(String value) {
-        if (value == null) {
+    protected MatchResult isAdvancedJsonPathMatch(ParsedBody body) {
+        Document document = xmlDocumentOf(body);
+        if (document == null) {
             return MatchResult.noMatch();
         }
 
-        NodeList nodeList = findXmlNodesMatching(value);
-        if (nodeList == null || nodeList.getLength() == 0) {
-            return MatchResult.noMatch();
+        List<String> nodeValues = new ArrayList<>();
+        synchronized (document) {
+            NodeList nodeList = findXmlNodesMatching(document);
+            if (nodeList == null || nodeList.getLength() == 0) {
+                return MatchResult.noMatch();
+            }
+
+            for (int i = 0; i < nodeList.getLength(); i++) {
+                Node node = nodeList.item(i);
+                nodeValues.add(Xml.toStringValue(node));
+            }
         }
 
         SortedSet<MatchResult> results = newTreeSet();
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            String nodeValue = Xml.toStringValue(node);
+        for (String nodeValue: nodeValues) {
             results.add(valuePattern.match(nodeValue));
         }
 
         return results.last();
     }
 
-    private NodeList findXmlNodesMatching(String value) {
+    private static Document xmlDocumentOf(ParsedBody body) {
+        if (body.asString() == null) {
+            return null;
+        }
+
         try {
-            DocumentBuilder documentBuilder = Xml.newDocumentBuilderFactory().newDocumentBuilder();
-            documentBuilder.setErrorHandler(new SilentErrorHandler());
-            Document inDocument = XMLUnit.buildDocument(documentBuilder, new StringReader(value));
-            XpathEngine simpleXpathEngine = XMLUnit.newXpathEngine();
-            if (xpathNamespaces != null) {
-                NamespaceContext namespaceContext = new SimpleNamespaceContext(xpathNamespaces);
-                simpleXpathEngine.setNamespaceContext(namespaceContext);
-            }
-            return simpleXpathEngine.getMatchingNodes(expectedValue, inDocument);
+            return body.asXmlDocument();
         } catch (SAXException e) {
             notifier().info(String.format(
-                "Warning: failed to parse the XML document. Reason: %s\nXML: %s", e.getMessage(), value));
+                "Warning: failed to parse the XML document. Reason: %s\nXML: %s", e.getMessage(), body.asString()));
             return null;
         } catch (IOException e) {
             notifier().info(e.getMessage());
             return null;
+        }
+    }
+
+    private NodeList findXmlNodesMatching(Document document) {
+        try {
+            XpathEngine simpleXpathEngine = XMLUnit.newXpathEngine();
+            if (xpathNamespaces != null) {
+                NamespaceContext namespaceContext = new SimpleNamespaceContext(xpathNamespaces);
+                simpleXpathEngine.setNamespaceContext(namespaceContext);
+            }
+            return simpleXpathEngine.getMatchingNodes(expectedValue, document);
         } catch (XpathException e) {
             notifier().info("Warning: failed to evaluate the XPath expression " + expectedValue);
             return null;
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.matching;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.SilentErrorHandler;
+import com.github.tomakehurst.wiremock.common.Xml;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+
+/**
+ * A request body along with the forms it has been parsed into, so that body patterns can share one parse
+ * per content type rather than each re-parsing the body. Each form is parsed on first use and the outcome,
+ * including any parse failure, is kept for subsequent patterns.
+ *
+ * DOM implementations aren't safe for concurrent reads, so callers must synchronize on the document
+ * returned by {@link #asXmlDocument()} while navigating it.
+ */
+public class ParsedBody {
+
+    /**
+     * Implemented by requests that keep their parsed body for the lifetime of the request.
+     */
+    public interface Holder {
+        ParsedBody parsedBody();
+    }
+
+    private final String value;
+
+    private volatile Outcome json;
+    private volatile Outcome jsonPathDocument;
+    private volatile Outcome xmlDocument;
+
+    public ParsedBody(String value) {
+        this.value = value;
+    }
+
+    public static ParsedBody of(Request request) {
+        if (request instanceof Holder) {
+            return ((Holder) request).parsedBody();
+        }
+
+        return new ParsedBody(request.getBodyAsString());
+    }
+
+    public String asString() {
+        return value;
+    }
+
+    public JsonNode asJsonNode() {
+        Outcome outcome = json;
+        if (outcome == null) {
+            try {
+                outcome = Outcome.of(Json.read(value, JsonNode.class));
+            } catch (Exception e) {
+                outcome = Outcome.failed(e);
+            }
+            json = outcome;
+        }
+
+        return outcome.get(JsonNode.class);
+    }
+
+    public DocumentContext asJsonPathDocument() {
+        Outcome outcome = jsonPathDocument;
+        if (outcome == null) {
+            try {
+                outcome = Outcome.of(JsonPath.parse(value));
+            } catch (Exception e) {
+                outcome = Outcome.failed(e);
+            }
+            jsonPathDocument = outcome;
+        }
+
+        return outcome.get(DocumentContext.class);
+    }
+
+    public Document asXmlDocument() throws SAXException, IOException {
+        Outcome outcome = xmlDocument;
+        if (outcome == null) {
+            try {
+                DocumentBuilder documentBuilder = Xml.newDocumentBuilderFactory().newDocumentBuilder();
+                documentBuilder.setErrorHandler(new SilentErrorHandler());
+                outcome = Outcome.of(XMLUnit.buildDocument(documentBuilder, new StringReader(value)));
+            } catch (Exception e) {
+                outcome = Outcome.failed(e);
+            }
+            xmlDocument = outcome;
+        }
+
+        if (outcome.failure instanceof SAXException) {
+            throw (SAXException) outcome.failure;
+        }
+        if (outcome.failure instanceof IOException) {
+            throw (IOException) outcome.failure;
+        }
+
+        return outcome.get(Document.class);
+    }
+
+    private static class Outcome {
+
+        final Object value;
+        final Exception failure;
+
+        private Outcome(Object value, Exception failure) {
+            this.value = value;
+            this.failure = failure;
+        }
+
+        static Outcome of(Object value) {
+            return new Outcome(value, null);
+        }
+
+        static Outcome failed(Exception failure) {
+            return new Outcome(null, failure);
+        }
+
+        <T> T get(Class<T> type) {
+            if (failure != null) {
+                return throwUnchecked(failure, type);
+            }
+
+            return type.cast(value);
+        }
+    }
+}
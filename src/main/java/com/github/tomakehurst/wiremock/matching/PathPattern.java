@@ -37,13 +37,18 @@ public abstract class PathPattern extends StringValuePattern {
 
     @Override
     public MatchResult match(String value) {
+        return matchBody(new ParsedBody(value));
+    }
+
+    @Override
+    public MatchResult matchBody(ParsedBody body) {
         if (isSimple()) {
-            return isSimpleJsonPathMatch(value);
+            return isSimpleJsonPathMatch(body);
         }
 
-        return isAdvancedJsonPathMatch(value);
+        return isAdvancedJsonPathMatch(body);
     }
 
-    protected abstract MatchResult isSimpleJsonPathMatch(String value);
-    protected abstract MatchResult isAdvancedJsonPathMatch(String value);
+    protected abstract MatchResult isSimpleJsonPathMatch(ParsedBody body);
+    protected abstract MatchResult isAdvancedJsonPathMatch(ParsedBody body);
 }
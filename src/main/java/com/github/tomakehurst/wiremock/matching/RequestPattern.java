@@ -52,6 +52,7 @@ public class RequestPattern implements NamedValueMatcher<Request> {
 
     private final CustomMatcherDefinition customMatcherDefinition;
     private final ValueMatcher<Request> matcher;
+    private final ValueMatcher<Request> inlineCustomMatcher;
     private final boolean hasInlineCustomMatcher;
 
     public RequestPattern(final UrlPattern url,
@@ -73,6 +74,7 @@ public class RequestPattern implements NamedValueMatcher<Request> {
         this.bodyPatterns = bodyPatterns;
         this.customMatcherDefinition = customMatcherDefinition;
         this.multipartPatterns = multiPattern;
+        this.inlineCustomMatcher = customMatcher;
         this.hasInlineCustomMatcher = customMatcher != null;
 
         this.matcher = new RequestMatcher() {
@@ -257,12 +259,13 @@ public class RequestPattern implements NamedValueMatcher<Request> {
     @SuppressWarnings("unchecked")
     private MatchResult allBodyPatternsMatch(final Request request) {
         if (bodyPatterns != null && !bodyPatterns.isEmpty() && request.getBody() != null) {
+            final ParsedBody parsedBody = ParsedBody.of(request);
             return MatchResult.aggregate(
                 from(bodyPatterns).transform(new Function<ContentPattern, MatchResult>() {
                     @Override
                     public MatchResult apply(ContentPattern pattern) {
                         if (StringValuePattern.class.isAssignableFrom(pattern.getClass())) {
-                            return pattern.match(request.getBodyAsString());
+                            return ((StringValuePattern) pattern).matchBody(parsedBody);
                         }
 
                         return ((BinaryEqualToPattern) pattern).match(request.getBody());
@@ -295,8 +298,121 @@ public class RequestPattern implements NamedValueMatcher<Request> {
         return MatchResult.exactMatch();
     }
 
+    /**
+     * Equivalent to <code>match(request, customMatchers).isExactMatch()</code>, but checks the cheapest
+     * criteria first and stops at the first one that fails, so e.g. the body is never parsed if the URL
+     * doesn't match. Use {@link #match(Request, Map)} where the distance is needed.
+     */
     public boolean isMatchedBy(Request request, Map<String, RequestMatcherExtension> customMatchers) {
-        return match(request, customMatchers).isExactMatch();
+        if (!method.match(request.getMethod()).isExactMatch() ||
+            !url.match(request.getUrl()).isExactMatch() ||
+            !allHeadersExactlyMatch(request) ||
+            !allQueryParamsExactlyMatch(request) ||
+            !allCookiesExactlyMatch(request) ||
+            !allBodyPatternsExactlyMatch(request) ||
+            !allMultipartPatternsExactlyMatch(request)) {
+            return false;
+        }
+
+        if (hasInlineCustomMatcher && !inlineCustomMatcher.match(request).isExactMatch()) {
+            return false;
+        }
+
+        if (customMatcherDefinition != null) {
+            RequestMatcherExtension requestMatcher =
+                firstNonNull(customMatchers.get(customMatcherDefinition.getName()), NEVER);
+            return requestMatcher.match(request, customMatcherDefinition.getParameters()).isExactMatch();
+        }
+
+        return true;
+    }
+
+    private boolean allHeadersExactlyMatch(Request request) {
+        Map<String, MultiValuePattern> combinedHeaders = combineBasicAuthAndOtherHeaders();
+        if (combinedHeaders != null) {
+            for (Map.Entry<String, MultiValuePattern> headerPattern: combinedHeaders.entrySet()) {
+                if (!headerPattern.getValue().match(request.header(headerPattern.getKey())).isExactMatch()) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean allQueryParamsExactlyMatch(Request request) {
+        if (queryParams != null) {
+            for (Map.Entry<String, MultiValuePattern> queryParamPattern: queryParams.entrySet()) {
+                if (!queryParamPattern.getValue().match(request.queryParameter(queryParamPattern.getKey())).isExactMatch()) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean allCookiesExactlyMatch(Request request) {
+        if (cookies != null) {
+            for (Map.Entry<String, StringValuePattern> cookiePattern: cookies.entrySet()) {
+                if (!anyCookieValueMatches(request.getCookies().get(cookiePattern.getKey()), cookiePattern.getValue())) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean anyCookieValueMatches(Cookie cookie, StringValuePattern pattern) {
+        if (cookie == null) {
+            return pattern.nullSafeIsAbsent();
+        }
+
+        for (String cookieValue: cookie.getValues()) {
+            if (pattern.match(cookieValue).isExactMatch()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean allBodyPatternsExactlyMatch(Request request) {
+        if (bodyPatterns == null || request.getBody() == null) {
+            return true;
+        }
+
+        ParsedBody parsedBody = ParsedBody.of(request);
+        for (ContentPattern<?> pattern: bodyPatterns) {
+            MatchResult result = StringValuePattern.class.isAssignableFrom(pattern.getClass()) ?
+                ((StringValuePattern) pattern).matchBody(parsedBody) :
+                ((BinaryEqualToPattern) pattern).match(request.getBody());
+
+            if (!result.isExactMatch()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean allMultipartPatternsExactlyMatch(Request request) {
+        if (multipartPatterns == null || multipartPatterns.isEmpty()) {
+            return true;
+        }
+
+        if (!request.isMultipart()) {
+            return false;
+        }
+
+        for (MultipartValuePattern pattern: multipartPatterns) {
+            if (!pattern.match(request).isExactMatch()) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     public String getUrl() {
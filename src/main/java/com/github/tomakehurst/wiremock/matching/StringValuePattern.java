@@ -47,6 +47,14 @@ public abstract class StringValuePattern extends ContentPattern<String> {
         return this == ABSENT;
     }
 
+    /**
+     * Matches against a request body. Patterns that work on a parsed form of the body override this to use
+     * the form already parsed for the request, rather than parsing the string themselves.
+     */
+    public MatchResult matchBody(ParsedBody body) {
+        return match(body.asString());
+    }
+
     @Override
     public String toString() {
         return getName() + " " + getValue();
@@ -45,6 +45,10 @@ public class WeightedMatchResult {
         return weighting * matchResult.getDistance();
     }
 
+    public double getDistanceBelow(double weightedCeiling) {
+        return weighting == 0 ? 0 : weighting * matchResult.getDistanceBelow(weightedCeiling / weighting);
+    }
+
     public double getWeighting() {
         return weighting;
     }
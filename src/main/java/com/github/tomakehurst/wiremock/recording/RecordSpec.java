@@ -58,6 +58,9 @@ public class RecordSpec {
     // Parameters for stub mapping transformers
     private final Parameters transformerParameters;
 
+    // Whether to snapshot only the requests received since the last snapshot
+    private final Boolean incremental;
+
     @JsonCreator
     public RecordSpec(
         @JsonProperty("targetBaseUrl") String targetBaseUrl,
@@ -69,7 +72,8 @@ public class RecordSpec {
         @JsonProperty("persist") Boolean persist,
         @JsonProperty("repeatsAsScenarios") Boolean repeatsAsScenarios,
         @JsonProperty("transformers") List<String> transformers,
-        @JsonProperty("transformerParameters") Parameters transformerParameters) {
+        @JsonProperty("transformerParameters") Parameters transformerParameters,
+        @JsonProperty("incremental") Boolean incremental) {
         this.targetBaseUrl = targetBaseUrl;
         this.filters = filters == null ? new ProxiedServeEventFilters() : filters;
         this.captureHeaders = captureHeaders;
@@ -80,16 +84,31 @@ public class RecordSpec {
         this.repeatsAsScenarios = repeatsAsScenarios;
         this.transformers = transformers;
         this.transformerParameters = transformerParameters;
+        this.incremental = incremental;
+    }
+
+    public RecordSpec(
+        String targetBaseUrl,
+        ProxiedServeEventFilters filters,
+        Map<String, CaptureHeadersSpec> captureHeaders,
+        RequestBodyPatternFactory requestBodyPatternFactory,
+        ResponseDefinitionBodyMatcher extractBodyCriteria,
+        SnapshotOutputFormatter outputFormat,
+        Boolean persist,
+        Boolean repeatsAsScenarios,
+        List<String> transformers,
+        Parameters transformerParameters) {
+        this(targetBaseUrl, filters, captureHeaders, requestBodyPatternFactory, extractBodyCriteria, outputFormat, persist, repeatsAsScenarios, transformers, transformerParameters, null);
     }
 
     private RecordSpec() {
-        this(null, null, null, null, null, null, null, null, null, null);
+        this(null, null, null, null, null, null, null, null, null, null, null);
     }
 
     public static final RecordSpec DEFAULTS = new RecordSpec();
 
     public static RecordSpec forBaseUrl(String targetBaseUrl) {
-        return new RecordSpec(targetBaseUrl, null, null, null, null, null, null, true, null, null);
+        return new RecordSpec(targetBaseUrl, null, null, null, null, null, null, true, null, null, null);
     }
 
     public String getTargetBaseUrl() {
@@ -122,4 +141,13 @@ public class RecordSpec {
 
     public RequestBodyPatternFactory getRequestBodyPatternFactory() { return requestBodyPatternFactory; }
 
+    @JsonIgnore
+    public boolean isIncremental() {
+        return incremental != null && incremental;
+    }
+
+    public Boolean getIncremental() {
+        return incremental;
+    }
+
 }
@@ -24,25 +24,31 @@ import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.extension.StubMappingTransformer;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
-import com.google.common.base.Predicate;
+import com.github.tomakehurst.wiremock.verification.InMemoryRequestJournal;
+import com.github.tomakehurst.wiremock.verification.RequestJournal;
+import com.github.tomakehurst.wiremock.verification.RingBufferRequestJournal;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.proxyAllTo;
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.FILES_ROOT;
 import static com.google.common.collect.FluentIterable.from;
-import static com.google.common.collect.Iterables.indexOf;
+import static com.google.common.collect.Iterables.getLast;
 
 public class Recorder {
 
     private final Admin admin;
+    private final RequestJournal requestJournal;
     private State state;
+    private ServeEvent lastSnapshotServeEvent;
 
-    public Recorder(Admin admin) {
+    public Recorder(Admin admin, RequestJournal requestJournal) {
         this.admin = admin;
+        this.requestJournal = requestJournal;
         state = State.initial();
     }
 
@@ -58,9 +64,8 @@ public class Recorder {
         StubMapping proxyMapping = proxyAllTo(spec.getTargetBaseUrl()).build();
         admin.addStubMapping(proxyMapping);
 
-        List<ServeEvent> serveEvents = admin.getServeEvents().getServeEvents();
-        UUID initialId = serveEvents.isEmpty() ? null : serveEvents.get(0).getId();
-        state = state.start(initialId, proxyMapping, spec);
+        ServeEvent lastServeEvent = getLast(serveEventsAfter(null), null);
+        state = state.start(lastServeEvent, proxyMapping, spec);
 
         notifier().info("Started recording with record spec:\n" + Json.write(spec));
     }
@@ -70,53 +75,86 @@ public class Recorder {
             throw new NotRecordingException();
         }
 
-        List<ServeEvent> serveEvents = admin.getServeEvents().getServeEvents();
+        List<ServeEvent> eventsToSnapshot = ImmutableList.copyOf(serveEventsAfter(state.getLastServeEventBeforeStart()));
 
-        UUID lastId = serveEvents.isEmpty() ? null : serveEvents.get(0).getId();
-        state = state.stop(lastId);
+        state = state.stop();
         admin.removeStubMapping(state.getProxyMapping());
 
-        if (serveEvents.isEmpty()) {
+        if (eventsToSnapshot.isEmpty()) {
             return SnapshotRecordResult.empty();
         }
 
-        int startIndex = state.getStartingServeEventId() == null ?
-            serveEvents.size() :
-            indexOf(serveEvents, withId(state.getStartingServeEventId()));
-        int endIndex = indexOf(serveEvents, withId(state.getFinishingServeEventId()));
-        List<ServeEvent> eventsToSnapshot = serveEvents.subList(endIndex, startIndex);
+        SnapshotRecordResult result = snapshot(eventsToSnapshot, state.getSpec());
 
-        SnapshotRecordResult result = takeSnapshot(eventsToSnapshot, state.getSpec());
-
-        notifier().info("Stopped recording. Stubs captured:\n" + Json.write(result.getStubMappings()));
+        notifier().info("Stopped recording. Stubs captured: " + result.getStubMappings().size());
         return result;
     }
 
-    private static Predicate<ServeEvent> withId(final UUID id) {
-        return new Predicate<ServeEvent>() {
-            @Override
-            public boolean apply(ServeEvent input) {
-                return input.getId().equals(id);
+    /**
+     * Snapshots the serve events in the journal, or when the spec is incremental only those received since the last
+     * snapshot.
+     */
+    public synchronized SnapshotRecordResult takeSnapshot(RecordSpec recordSpec) {
+        List<ServeEvent> serveEvents = ImmutableList.copyOf(
+            serveEventsAfter(recordSpec.isIncremental() ? lastSnapshotServeEvent : null)
+        );
+        if (!serveEvents.isEmpty()) {
+            lastSnapshotServeEvent = serveEvents.get(serveEvents.size() - 1);
+        }
+
+        return snapshot(serveEvents, recordSpec);
+    }
+
+    /**
+     * The serve events received after the given one, oldest first, or all of them if it's null or no longer in the
+     * journal. The journals WireMock provides can find it without copying themselves; any other is copied.
+     */
+    private Iterable<ServeEvent> serveEventsAfter(ServeEvent lastSeen) {
+        if (requestJournal instanceof InMemoryRequestJournal) {
+            return ((InMemoryRequestJournal) requestJournal).getServeEventsAfter(lastSeen);
+        }
+
+        if (requestJournal instanceof RingBufferRequestJournal) {
+            return ((RingBufferRequestJournal) requestJournal).getServeEventsAfter(lastSeen);
+        }
+
+        // Found by ID, as another journal may not return the same instances each time
+        List<ServeEvent> newer = new ArrayList<>();
+        for (ServeEvent serveEvent : requestJournal.getAllServeEvents()) {
+            if (lastSeen != null && serveEvent.getId().equals(lastSeen.getId())) {
+                break;
             }
-        };
+            newer.add(serveEvent);
+        }
+        return Lists.reverse(newer);
     }
 
     public SnapshotRecordResult takeSnapshot(List<ServeEvent> serveEvents, RecordSpec recordSpec) {
-        final List<StubMapping> stubMappings = serveEventsToStubMappings(
-            Lists.reverse(serveEvents),
+        return snapshot(Lists.reverse(serveEvents), recordSpec);
+    }
+
+    /**
+     * Converts the serve events, oldest first, to stub mappings and adds each one as it's generated, so that only the
+     * stub mappings themselves are held rather than every intermediate stage.
+     */
+    private SnapshotRecordResult snapshot(List<ServeEvent> serveEvents, RecordSpec recordSpec) {
+        Iterable<StubMapping> stubMappings = serveEventsToStubMappingsLazily(
+            serveEvents,
             recordSpec.getFilters(),
             new SnapshotStubMappingGenerator(recordSpec.getCaptureHeaders(), recordSpec.getRequestBodyPatternFactory()),
             getStubMappingPostProcessor(admin.getOptions(), recordSpec)
         );
 
+        List<StubMapping> captured = new ArrayList<>();
         for (StubMapping stubMapping : stubMappings) {
             if (recordSpec.shouldPersist()) {
                 stubMapping.setPersistent(true);
             }
             admin.addStubMapping(stubMapping);
+            captured.add(stubMapping);
         }
 
-        return recordSpec.getOutputFormat().format(stubMappings);
+        return recordSpec.getOutputFormat().format(captured);
     }
 
     public List<StubMapping> serveEventsToStubMappings(
@@ -125,11 +163,25 @@ public class Recorder {
         SnapshotStubMappingGenerator stubMappingGenerator,
         SnapshotStubMappingPostProcessor stubMappingPostProcessor
     ) {
-        final Iterable<StubMapping> stubMappings = from(serveEventsResult)
+        return Lists.newArrayList(serveEventsToStubMappingsLazily(
+            serveEventsResult,
+            serveEventFilters,
+            stubMappingGenerator,
+            stubMappingPostProcessor
+        ));
+    }
+
+    private Iterable<StubMapping> serveEventsToStubMappingsLazily(
+        List<ServeEvent> serveEvents,
+        ProxiedServeEventFilters serveEventFilters,
+        SnapshotStubMappingGenerator stubMappingGenerator,
+        SnapshotStubMappingPostProcessor stubMappingPostProcessor
+    ) {
+        final Iterable<StubMapping> stubMappings = from(serveEvents)
             .filter(serveEventFilters)
             .transform(stubMappingGenerator);
 
-        return stubMappingPostProcessor.process(stubMappings);
+        return stubMappingPostProcessor.processLazily(stubMappings);
     }
 
     public SnapshotStubMappingPostProcessor getStubMappingPostProcessor(Options options, RecordSpec recordSpec) {
@@ -158,27 +210,25 @@ public class Recorder {
         private final RecordingStatus status;
         private final StubMapping proxyMapping;
         private final RecordSpec spec;
-        private final UUID startingServeEventId;
-        private final UUID finishingServeEventId;
+        private final ServeEvent lastServeEventBeforeStart;
 
-        public State(RecordingStatus status, StubMapping proxyMapping, RecordSpec spec, UUID startingServeEventId, UUID finishingServeEventId) {
+        public State(RecordingStatus status, StubMapping proxyMapping, RecordSpec spec, ServeEvent lastServeEventBeforeStart) {
             this.status = status;
             this.proxyMapping = proxyMapping;
             this.spec = spec;
-            this.startingServeEventId = startingServeEventId;
-            this.finishingServeEventId = finishingServeEventId;
+            this.lastServeEventBeforeStart = lastServeEventBeforeStart;
         }
 
         public static State initial() {
-            return new State(RecordingStatus.NeverStarted, null, null, null, null);
+            return new State(RecordingStatus.NeverStarted, null, null, null);
         }
 
-        public State start(UUID startingServeEventId, StubMapping proxyMapping, RecordSpec spec) {
-            return new State(RecordingStatus.Recording, proxyMapping, spec, startingServeEventId, null);
+        public State start(ServeEvent lastServeEventBeforeStart, StubMapping proxyMapping, RecordSpec spec) {
+            return new State(RecordingStatus.Recording, proxyMapping, spec, lastServeEventBeforeStart);
         }
 
-        public State stop(UUID finishingServeEventId) {
-            return new State(RecordingStatus.Stopped, proxyMapping, spec, startingServeEventId, finishingServeEventId);
+        public State stop() {
+            return new State(RecordingStatus.Stopped, proxyMapping, spec, lastServeEventBeforeStart);
         }
 
         public RecordingStatus getStatus() {
@@ -193,13 +243,9 @@ public class Recorder {
             return spec;
         }
 
-        public UUID getStartingServeEventId() {
-            return startingServeEventId;
+        public ServeEvent getLastServeEventBeforeStart() {
+            return lastServeEventBeforeStart;
         }
 
-        public UUID getFinishingServeEventId() {
-            return finishingServeEventId;
-        }
-        
     }
 }
@@ -51,24 +51,29 @@ public class ScenarioProcessor {
     }
 
     private void putStubsInScenario(List<StubMapping> stubMappings) {
-        StubMapping firstScenario = stubMappings.get(0);
-        String scenarioName = "scenario-" + Urls.urlToPathParts(URI.create(firstScenario.getRequest().getUrl()));
-
         int count = 1;
         for (StubMapping stub: stubMappings) {
-            stub.setScenarioName(scenarioName);
-            if (count == 1) {
-                stub.setRequiredScenarioState(Scenario.STARTED);
-            } else {
-                stub.setRequiredScenarioState(scenarioName + "-" + count);
-            }
+            putStubInScenario(stub, count, stubMappings.size());
+            count++;
+        }
+    }
 
-            if (count < stubMappings.size()) {
-                stub.setNewScenarioState(scenarioName + "-" + (count + 1));
-            }
+    /**
+     * Puts a stub in the scenario for its request, given its position (starting at 1) among the stubs for that request
+     * and how many of them there are.
+     */
+    public void putStubInScenario(StubMapping stub, int position, int total) {
+        String scenarioName = "scenario-" + Urls.urlToPathParts(URI.create(stub.getRequest().getUrl()));
 
-            count++;
+        stub.setScenarioName(scenarioName);
+        if (position == 1) {
+            stub.setRequiredScenarioState(Scenario.STARTED);
+        } else {
+            stub.setRequiredScenarioState(scenarioName + "-" + position);
         }
 
+        if (position < total) {
+            stub.setNewScenarioState(scenarioName + "-" + (position + 1));
+        }
     }
 }
@@ -17,11 +17,13 @@ package com.github.tomakehurst.wiremock.recording;
 
 import com.github.tomakehurst.wiremock.matching.RequestPattern;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multiset;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -49,32 +51,75 @@ public class SnapshotStubMappingPostProcessor {
     }
 
     public List<StubMapping> process(Iterable<StubMapping> stubMappings) {
-        final Multiset<RequestPattern> requestCounts = HashMultiset.create();
-        final List<StubMapping> processedStubMappings = new ArrayList<>();
-
-        for (StubMapping stubMapping: stubMappings) {
-            requestCounts.add(stubMapping.getRequest());
-
-            // Skip duplicate requests if shouldRecordRepeatsAsScenarios is not enabled
-            if (
-                requestCounts.count(stubMapping.getRequest()) > 1
-                && !shouldRecordRepeatsAsScenarios
-            ) {
-                continue;
-            }
+        return Lists.newArrayList(processLazily(stubMappings));
+    }
 
-            if (bodyExtractMatcher != null && bodyExtractMatcher.match(stubMapping.getResponse()).isExactMatch()) {
-                bodyExtractor.extractInPlace(stubMapping);
-            }
+    /**
+     * Processes the stub mappings one at a time as the result is iterated, so a large snapshot needn't be held in
+     * memory all at once. The stub mappings given are only iterated once. Putting repeated requests in scenarios
+     * means knowing how many times each request occurs in advance, so when doing that they're gathered up first.
+     */
+    public Iterable<StubMapping> processLazily(Iterable<StubMapping> stubMappings) {
+        if (!shouldRecordRepeatsAsScenarios) {
+            return processInTurn(stubMappings, ImmutableMultiset.<RequestPattern>of());
+        }
 
-            processedStubMappings.add(stubMapping);
+        List<StubMapping> allStubMappings = Lists.newArrayList(stubMappings);
+        Multiset<RequestPattern> requestTotals = HashMultiset.create();
+        for (StubMapping stubMapping: allStubMappings) {
+            requestTotals.add(stubMapping.getRequest());
         }
 
-        if (shouldRecordRepeatsAsScenarios) {
-            new ScenarioProcessor().putRepeatedRequestsInScenarios(processedStubMappings);
+        return processInTurn(allStubMappings, requestTotals);
+    }
+
+    private Iterable<StubMapping> processInTurn(final Iterable<StubMapping> stubMappings, final Multiset<RequestPattern> requestTotals) {
+        return new Iterable<StubMapping>() {
+            @Override
+            public Iterator<StubMapping> iterator() {
+                return new ProcessingIterator(stubMappings.iterator(), requestTotals);
+            }
+        };
+    }
+
+    private class ProcessingIterator extends AbstractIterator<StubMapping> {
+
+        private final Iterator<StubMapping> stubMappings;
+        private final Multiset<RequestPattern> requestTotals;
+        private final Multiset<RequestPattern> requestCounts = HashMultiset.create();
+        private final ScenarioProcessor scenarioProcessor = new ScenarioProcessor();
+
+        ProcessingIterator(Iterator<StubMapping> stubMappings, Multiset<RequestPattern> requestTotals) {
+            this.stubMappings = stubMappings;
+            this.requestTotals = requestTotals;
         }
 
-        // Run any stub mapping transformer extensions
-        return Lists.transform(processedStubMappings, transformerRunner);
+        @Override
+        protected StubMapping computeNext() {
+            while (stubMappings.hasNext()) {
+                StubMapping stubMapping = stubMappings.next();
+                RequestPattern request = stubMapping.getRequest();
+                int count = requestCounts.add(request, 1) + 1;
+
+                // Skip duplicate requests if shouldRecordRepeatsAsScenarios is not enabled
+                if (count > 1 && !shouldRecordRepeatsAsScenarios) {
+                    continue;
+                }
+
+                if (bodyExtractMatcher != null && bodyExtractMatcher.match(stubMapping.getResponse()).isExactMatch()) {
+                    bodyExtractor.extractInPlace(stubMapping);
+                }
+
+                int total = requestTotals.count(request);
+                if (total > 1) {
+                    scenarioProcessor.putStubInScenario(stubMapping, count, total);
+                }
+
+                // Run any stub mapping transformer extensions
+                return transformerRunner.apply(stubMapping);
+            }
+
+            return endOfData();
+        }
     }
 }
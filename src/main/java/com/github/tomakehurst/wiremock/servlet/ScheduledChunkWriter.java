@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.servlet;
+
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Writes a body in chunks spaced out over time using non-blocking servlet output, so a slow response
+ * holds neither a container thread nor a scheduler thread while it waits for the next chunk to become due
+ * or for the client to accept the last one. Each chunk is written after waiting one interval, and the
+ * async context is completed once the last has been flushed.
+ */
+class ScheduledChunkWriter implements WriteListener {
+
+    private final AsyncContext asyncContext;
+    private final byte[][] chunks;
+    private final long chunkIntervalNanos;
+    private final HashedWheelTimer scheduler;
+
+    private final Runnable writeDueChunksTask = new Runnable() {
+        @Override
+        public void run() {
+            onChunkDue();
+        }
+    };
+
+    private ServletOutputStream out;
+    private int nextChunk;
+    private long nextChunkDueAt;
+    private boolean flushPending;
+    private boolean chunkDueTaskPending;
+    private boolean finished;
+
+    ScheduledChunkWriter(AsyncContext asyncContext, byte[][] chunks, long chunkIntervalMillis, HashedWheelTimer scheduler) {
+        this.asyncContext = asyncContext;
+        this.chunks = chunks;
+        this.chunkIntervalNanos = MILLISECONDS.toNanos(chunkIntervalMillis);
+        this.scheduler = scheduler;
+    }
+
+    synchronized void start() throws IOException {
+        asyncContext.setTimeout(0);
+        out = asyncContext.getResponse().getOutputStream();
+        nextChunkDueAt = System.nanoTime() + chunkIntervalNanos;
+        out.setWriteListener(this);
+    }
+
+    @Override
+    public synchronized void onWritePossible() throws IOException {
+        writeDueChunks();
+    }
+
+    @Override
+    public synchronized void onError(Throwable t) {
+        // Most likely the client has gone away, which is a completely valid outcome
+        finish();
+    }
+
+    private synchronized void onChunkDue() {
+        chunkDueTaskPending = false;
+        try {
+            writeDueChunks();
+        } catch (IOException | RuntimeException e) {
+            finish();
+        }
+    }
+
+    // When the output isn't ready the container calls onWritePossible() once it is, so there's nothing to wait for here
+    private void writeDueChunks() throws IOException {
+        while (!finished && out.isReady()) {
+            if (flushPending) {
+                flushPending = false;
+                out.flush();
+                continue;
+            }
+
+            if (nextChunk == chunks.length) {
+                finish();
+                return;
+            }
+
+            long nanosUntilDue = nextChunkDueAt - System.nanoTime();
+            if (nanosUntilDue > 0) {
+                scheduleChunkDueTask(nanosUntilDue);
+                return;
+            }
+
+            out.write(chunks[nextChunk++]);
+            nextChunkDueAt += chunkIntervalNanos;
+            flushPending = true;
+        }
+    }
+
+    private void scheduleChunkDueTask(long delayNanos) {
+        if (!chunkDueTaskPending) {
+            scheduler.schedule(writeDueChunksTask, delayNanos, NANOSECONDS);
+            chunkDueTaskPending = true;
+        }
+    }
+
+    private void finish() {
+        if (!finished) {
+            finished = true;
+            asyncContext.complete();
+        }
+    }
+}
@@ -171,4 +171,39 @@ public class WarConfiguration implements Options {
     public AsynchronousResponseSettings getAsynchronousResponseSettings() {
         return new AsynchronousResponseSettings(false, 0);
     }
+
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return ProxyStreamingSettings.DISABLED;
+    }
+
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        return ProxyConnectionPoolSettings.DEFAULTS;
+    }
+
+    @Override
+    public AsynchronousProxySettings getAsynchronousProxySettings() {
+        return AsynchronousProxySettings.DISABLED;
+    }
+
+    @Override
+    public ProxyCacheSettings getProxyCacheSettings() {
+        return ProxyCacheSettings.DISABLED;
+    }
+
+    @Override
+    public boolean shouldCoalesceProxyRequests() {
+        return false;
+    }
+
+    @Override
+    public UnmatchedRequestReportingSettings getUnmatchedRequestReportingSettings() {
+        return UnmatchedRequestReportingSettings.DEFAULTS;
+    }
+
+    @Override
+    public BodyFileCacheSettings getBodyFileCacheSettings() {
+        return BodyFileCacheSettings.DEFAULTS;
+    }
 }
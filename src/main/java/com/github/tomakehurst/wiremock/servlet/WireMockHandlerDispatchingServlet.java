@@ -15,13 +15,17 @@
  */
 package com.github.tomakehurst.wiremock.servlet;
 
+import com.github.tomakehurst.wiremock.common.ByteBufferInputStream;
+import com.github.tomakehurst.wiremock.common.HashedWheelTimer;
 import com.github.tomakehurst.wiremock.common.LocalNotifier;
 import com.github.tomakehurst.wiremock.common.Notifier;
 import com.github.tomakehurst.wiremock.core.FaultInjector;
 import com.github.tomakehurst.wiremock.core.WireMockApp;
 import com.github.tomakehurst.wiremock.http.*;
+import com.github.tomakehurst.wiremock.jetty9.JettyUtils;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Ints;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServlet;
@@ -30,25 +34,32 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
 import static com.github.tomakehurst.wiremock.servlet.WireMockHttpServletRequestAdapter.ORIGINAL_REQUEST_KEY;
 import static com.google.common.base.Charsets.UTF_8;
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.net.URLDecoder.decode;
-import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class WireMockHandlerDispatchingServlet extends HttpServlet {
 
     public static final String SHOULD_FORWARD_TO_FILES_CONTEXT = "shouldForwardToFilesContext";
     public static final String ASYNCHRONOUS_RESPONSE_EXECUTOR = WireMockHandlerDispatchingServlet.class.getSimpleName() + ".asynchronousResponseExecutor";
+    public static final String DELAY_SCHEDULER = WireMockHandlerDispatchingServlet.class.getSimpleName() + ".delayScheduler";
     public static final String MAPPED_UNDER_KEY = "mappedUnder";
 
 	private static final long serialVersionUID = -6602042274260495538L;
 
+    private static final boolean IS_JETTY = isJetty();
+
+    private static final int THROTTLE_CHUNKS_PER_SECOND = 10;
+
     private ScheduledExecutorService scheduledExecutorService;
+    private HashedWheelTimer delayScheduler;
 
     private RequestHandler requestHandler;
     private FaultInjectorFactory faultHandlerFactory;
@@ -80,6 +91,11 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
             new NoFaultInjectorFactory();
 
 		notifier = (Notifier) context.getAttribute(Notifier.KEY);
+
+        delayScheduler = (HashedWheelTimer) context.getAttribute(DELAY_SCHEDULER);
+        if (delayScheduler == null) {
+            delayScheduler = new HashedWheelTimer("wiremock-delay-scheduler", notifier);
+        }
 	}
 
 	private String getNormalizedMappedUnder(ServletConfig config) {
@@ -108,10 +124,12 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 		requestHandler.handle(request, responder);
 	}
 
-	private class ServletHttpResponder implements HttpResponder {
+	private class ServletHttpResponder implements AsynchronousHttpResponder {
 
 		private final HttpServletRequest httpServletRequest;
 		private final HttpServletResponse httpServletResponse;
+		private volatile AsyncContext suspendedContext;
+		private final AtomicBoolean suspendedContextReleased = new AtomicBoolean();
 
 		public ServletHttpResponder(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) {
 			this.httpServletRequest = httpServletRequest;
@@ -124,15 +142,64 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 				return;
 			}
 
-			httpServletRequest.setAttribute(ORIGINAL_REQUEST_KEY, LoggedRequest.createFrom(request));
-
             if (isAsyncSupported(response, httpServletRequest)) {
+                suspendedContextReleased.set(true);
                 respondAsync(request, response);
+            } else if (suspendedContext != null) {
+                respondSuspended(request, response);
             } else {
                 respondSync(request, response);
             }
         }
 
+        // How long the response takes to produce is up to whoever produces it (i.e. the proxy's own timeouts), not the container
+        @Override
+        public boolean suspend() {
+            if (!httpServletRequest.isAsyncSupported()) {
+                return false;
+            }
+
+            AsyncContext asyncContext = httpServletRequest.startAsync();
+            asyncContext.setTimeout(0);
+            suspendedContext = asyncContext;
+            return true;
+        }
+
+        // Once the response is on its way any failure is the client's, e.g. disconnecting, which isn't worth reporting
+        @Override
+        public void failed(Throwable cause) {
+            if (suspendedContextReleased.get()) {
+                return;
+            }
+
+            notifier.error("Failed to respond to " + httpServletRequest.getRequestURI(), cause);
+            try {
+                if (!httpServletResponse.isCommitted()) {
+                    httpServletResponse.sendError(HTTP_INTERNAL_ERROR, cause.getMessage());
+                }
+            } catch (IOException | RuntimeException e) {
+                // the client has most likely gone already
+            } finally {
+                releaseSuspendedContext(true);
+            }
+        }
+
+        private void respondSuspended(Request request, Response response) {
+            try {
+                respondTo(request, response);
+            } finally {
+                releaseSuspendedContext(!isWrittenInChunks(response));
+            }
+        }
+
+        // Whatever goes wrong afterwards, a suspended request must be completed exactly once, and not by this
+        // responder if the chunk writer or delay scheduler has taken it over
+        private void releaseSuspendedContext(boolean complete) {
+            if (!suspendedContextReleased.getAndSet(true) && complete) {
+                suspendedContext.complete();
+            }
+        }
+
         private void respondSync(Request request, Response response) {
             delayIfRequired(response.getInitialDelay());
             respondTo(request, response);
@@ -148,18 +215,33 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
         }
 
         private boolean isAsyncSupported(Response response, HttpServletRequest httpServletRequest) {
-            return scheduledExecutorService != null && response.getInitialDelay() > 0 && httpServletRequest.isAsyncSupported();
+            return response.getInitialDelay() > 0 && httpServletRequest.isAsyncSupported();
         }
 
+        // The delay scheduler's thread only hands the response off, to the asynchronous response executor if
+        // there is one and otherwise back to the container's thread pool
         private void respondAsync(final Request request, final Response response) {
-            final AsyncContext asyncContext = httpServletRequest.startAsync();
-            scheduledExecutorService.schedule(new Runnable() {
+            final AsyncContext asyncContext = suspendedContext != null ? suspendedContext : httpServletRequest.startAsync();
+            final Runnable respond = new Runnable() {
                 @Override
                 public void run() {
                     try {
                         respondTo(request, response);
                     } finally {
-                        asyncContext.complete();
+                        if (!isWrittenInChunks(response)) {
+                            asyncContext.complete();
+                        }
+                    }
+                }
+            };
+
+            delayScheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (scheduledExecutorService != null) {
+                        scheduledExecutorService.execute(respond);
+                    } else {
+                        asyncContext.start(respond);
                     }
                 }
             }, response.getInitialDelay(), MILLISECONDS);
@@ -170,14 +252,22 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
                 if (response.wasConfigured()) {
                     applyResponse(response, httpServletRequest, httpServletResponse);
                 } else if (request.getMethod().equals(GET) && shouldForwardToFilesContext) {
+                    rememberOriginalRequest(request);
                     forwardToFilesContext(httpServletRequest, httpServletResponse, request);
                 } else {
+                    rememberOriginalRequest(request);
                     httpServletResponse.sendError(HTTP_NOT_FOUND);
                 }
             } catch (Exception e) {
                 throwUnchecked(e);
             }
         }
+
+        // Only needed once the servlet request is dispatched elsewhere, which changes its path. The request given is
+        // already the journalled copy, so isn't copied again
+        private void rememberOriginalRequest(Request request) {
+            httpServletRequest.setAttribute(ORIGINAL_REQUEST_KEY, LoggedRequest.createFrom(request));
+        }
     }
 
     public void applyResponse(Response response, HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) {
@@ -201,10 +291,10 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
             }
         }
 
-        if (response.shouldAddChunkedDribbleDelay()) {
-			writeAndTranslateExceptionsWithChunkedDribbleDelay(httpServletResponse, response.getBodyStream(), response.getChunkedDribbleDelay());
+        if (isWrittenInChunks(response)) {
+			writeAndTranslateExceptionsInChunks(httpServletRequest, httpServletResponse, response);
 		} else {
-			writeAndTranslateExceptions(httpServletResponse, response.getBodyStream());
+			writeAndTranslateExceptions(httpServletResponse, response.getBodyStream(), response.isFromProxy());
 		}
     }
 
@@ -212,9 +302,19 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 	    return faultHandlerFactory.buildFaultInjector(httpServletRequest, httpServletResponse);
 	}
 
-    private static void writeAndTranslateExceptions(HttpServletResponse httpServletResponse, InputStream content) {
+    private static void writeAndTranslateExceptions(HttpServletResponse httpServletResponse, InputStream content, boolean mayStillBeArriving) {
         try (ServletOutputStream out = httpServletResponse.getOutputStream()) {
-            ByteStreams.copy(content, out);
+            if (IS_JETTY &&
+                content instanceof ByteBufferInputStream &&
+                JettyUtils.sendContent(httpServletResponse, out, ((ByteBufferInputStream) content).remainingBuffer())) {
+                return;
+            }
+
+            if (mayStillBeArriving) {
+                copyFlushingWhileInputWaits(content, out);
+            } else {
+                ByteStreams.copy(content, out);
+            }
             out.flush();
         } catch (IOException e) {
             throwUnchecked(e);
@@ -227,32 +327,101 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
         }
     }
 
-    private void writeAndTranslateExceptionsWithChunkedDribbleDelay(HttpServletResponse httpServletResponse, InputStream bodyStream, ChunkedDribbleDelay chunkedDribbleDelay) {
-        try (ServletOutputStream out = httpServletResponse.getOutputStream()) {
-            byte[] body = ByteStreams.toByteArray(bodyStream);
+    // Sends on whatever has been received of a body still arriving (i.e. a streamed proxy response) before waiting for more.
+    // A proxied response carries the upstream's Content-Length or chunked encoding, so flushing early doesn't change its framing.
+    private static void copyFlushingWhileInputWaits(InputStream content, ServletOutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int count;
+        while ((count = content.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+            if (content.available() == 0) {
+                out.flush();
+            }
+        }
+    }
 
-			if (body.length < 1) {
-				notifier.error("Cannot chunk dribble delay when no body set");
-				out.flush();
-				return;
-			}
+    private static boolean isWrittenInChunks(Response response) {
+        return response.wasConfigured() &&
+            response.getFault() == null &&
+            (response.shouldAddChunkedDribbleDelay() || response.shouldThrottle());
+    }
+
+    // Once asynchronous, the chunk writer completes the request, unless it fails before it can be started
+    private void writeAndTranslateExceptionsInChunks(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse, Response response) {
+        try {
+            byte[] body = ByteStreams.toByteArray(response.getBodyStream());
+            byte[][] chunkedBody = response.shouldAddChunkedDribbleDelay() ?
+                chunkForDribble(body, response.getChunkedDribbleDelay()) :
+                chunkForThrottle(body, response.getThrottleBytesPerSecond());
+            long chunkInterval = chunkedBody.length == 0 ? 0 : chunkIntervalFor(response, body) / chunkedBody.length;
+
+            if (httpServletRequest.isAsyncSupported()) {
+                AsyncContext asyncContext = httpServletRequest.isAsyncStarted() ?
+                    httpServletRequest.getAsyncContext() :
+                    httpServletRequest.startAsync();
+                new ScheduledChunkWriter(asyncContext, chunkedBody, chunkInterval, delayScheduler).start();
+            } else {
+                writeChunksBlocking(httpServletResponse, chunkedBody, chunkInterval);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (httpServletRequest.isAsyncStarted()) {
+                httpServletRequest.getAsyncContext().complete();
+            }
+            throwUnchecked(e);
+        }
+    }
 
-			byte[][] chunkedBody = BodyChunker.chunkBody(body, chunkedDribbleDelay.getNumberOfChunks());
+    private byte[][] chunkForDribble(byte[] body, ChunkedDribbleDelay chunkedDribbleDelay) {
+        if (body.length < 1) {
+            notifier.error("Cannot chunk dribble delay when no body set");
+            return new byte[0][];
+        }
 
-			int chunkInterval = chunkedDribbleDelay.getTotalDuration() / chunkedBody.length;
+        return BodyChunker.chunkBody(body, chunkedDribbleDelay.getNumberOfChunks());
+    }
 
-			for (byte[] bodyChunk : chunkedBody) {
-				Thread.sleep(chunkInterval);
-				out.write(bodyChunk);
-				out.flush();
-			}
+    // Sends the body as a steady series of small chunks, rather than all at once, so it arrives at the given rate
+    private byte[][] chunkForThrottle(byte[] body, int bytesPerSecond) {
+        if (bytesPerSecond < 1) {
+            notifier.error("Throttle set to value less than 1 byte per second: " + bytesPerSecond);
+            return new byte[][] { body };
+        }
 
-		} catch (IOException e) {
-			throwUnchecked(e);
-		} catch (InterruptedException ignored) {
-		    // Ignore the interrupt quietly since it's probably the client timing out, which is a completely valid outcome
+        if (body.length < 1) {
+            return new byte[0][];
         }
-	}
+
+        int chunkSize = Math.max(1, bytesPerSecond / THROTTLE_CHUNKS_PER_SECOND);
+        return BodyChunker.chunkBody(body, (body.length + chunkSize - 1) / chunkSize);
+    }
+
+    private static long chunkIntervalFor(Response response, byte[] body) {
+        if (response.shouldAddChunkedDribbleDelay()) {
+            return response.getChunkedDribbleDelay().getTotalDuration();
+        }
+
+        int bytesPerSecond = response.getThrottleBytesPerSecond();
+        return bytesPerSecond < 1 ? 0 : Ints.saturatedCast(1000L * body.length / bytesPerSecond);
+    }
+
+    // For containers that can't write asynchronously
+    // Without async support the response must be written before service() returns, so this holds the request thread
+    // for the whole duration, sleeping between chunks
+    private static void writeChunksBlocking(HttpServletResponse httpServletResponse, byte[][] chunkedBody, long chunkInterval) {
+        try (ServletOutputStream out = httpServletResponse.getOutputStream()) {
+            for (byte[] bodyChunk : chunkedBody) {
+                Thread.sleep(chunkInterval);
+                out.write(bodyChunk);
+                out.flush();
+            }
+
+            out.flush();
+        } catch (IOException e) {
+            throwUnchecked(e);
+        } catch (InterruptedException ignored) {
+            // Ignore the interrupt quietly since it's probably the client timing out, which is a completely valid outcome
+        }
+    }
 
     private void forwardToFilesContext(HttpServletRequest httpServletRequest,
             HttpServletResponse httpServletResponse, Request request) throws ServletException, IOException {
@@ -260,4 +429,14 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
         RequestDispatcher dispatcher = httpServletRequest.getRequestDispatcher(decode(forwardUrl, UTF_8.name()));
         dispatcher.forward(httpServletRequest, httpServletResponse);
     }
+
+    // Deployed as a WAR the container may not be Jetty, in which case its classes can't be referenced
+    private static boolean isJetty() {
+        try {
+            Class.forName("org.eclipse.jetty.server.HttpOutput", false, WireMockHandlerDispatchingServlet.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
 }
@@ -24,11 +24,13 @@ import com.github.tomakehurst.wiremock.http.QueryParameter;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.jetty9.JettyUtils;
+import com.github.tomakehurst.wiremock.matching.ParsedBody;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Maps;
 import java.io.ByteArrayInputStream;
@@ -54,7 +56,7 @@ import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.io.ByteStreams.toByteArray;
 import static java.util.Collections.list;
 
-public class WireMockHttpServletRequestAdapter implements Request {
+public class WireMockHttpServletRequestAdapter implements Request, ParsedBody.Holder {
 
     public static final String ORIGINAL_REQUEST_KEY = "wiremock.ORIGINAL_REQUEST";
 
@@ -62,6 +64,13 @@ public class WireMockHttpServletRequestAdapter implements Request {
     private byte[] cachedBody;
     private String urlPrefixToRemove;
     private Collection<Part> cachedMultiparts;
+    private String cachedUrl;
+    private RequestMethod cachedMethod;
+    private Map<String, List<String>> cachedHeaderValues;
+    private Set<String> cachedHeaderKeys;
+    private Map<String, QueryParameter> cachedQueryParameters;
+    private Map<String, Cookie> cachedCookies;
+    private ParsedBody cachedParsedBody;
 
     public WireMockHttpServletRequestAdapter(HttpServletRequest request) {
         this.request = request;
@@ -74,6 +83,14 @@ public class WireMockHttpServletRequestAdapter implements Request {
 
     @Override
     public String getUrl() {
+        if (cachedUrl == null) {
+            cachedUrl = buildUrl();
+        }
+
+        return cachedUrl;
+    }
+
+    private String buildUrl() {
         String url = request.getRequestURI();
 
         String contextPath = request.getContextPath();
@@ -98,7 +115,11 @@ public class WireMockHttpServletRequestAdapter implements Request {
 
     @Override
     public RequestMethod getMethod() {
-        return RequestMethod.fromString(request.getMethod().toUpperCase());
+        if (cachedMethod == null) {
+            cachedMethod = RequestMethod.fromString(request.getMethod().toUpperCase());
+        }
+
+        return cachedMethod;
     }
 
     @Override
@@ -160,40 +181,63 @@ public class WireMockHttpServletRequestAdapter implements Request {
         return stringFromBytes(getBody(), encodingFromContentTypeHeaderOrUtf8());
     }
 
+    @Override
+    public ParsedBody parsedBody() {
+        if (cachedParsedBody == null) {
+            cachedParsedBody = new ParsedBody(getBodyAsString());
+        }
+
+        return cachedParsedBody;
+    }
+
     @Override
     public String getBodyAsBase64() {
         return encodeBase64(getBody());
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public String getHeader(String key) {
-        List<String> headerNames = list(request.getHeaderNames());
-        for (String currentKey : headerNames) {
-            if (currentKey.toLowerCase().equals(key.toLowerCase())) {
-                return request.getHeader(currentKey);
-            }
+        List<String> values = headerValues().get(key.toLowerCase());
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public HttpHeader header(String key) {
+        List<String> values = headerValues().get(key.toLowerCase());
+        if (values == null) {
+            return HttpHeader.absent(key);
+        }
+
+        if (values.isEmpty()) {
+            return HttpHeader.empty(key);
         }
 
-        return null;
+        return new HttpHeader(key, values);
     }
 
-    @Override
+    /**
+     * Reads all of the servlet request's headers once, keyed by lower case name, as matching
+     * looks headers up case insensitively once per stub.
+     */
     @SuppressWarnings("unchecked")
-    public HttpHeader header(String key) {
-        List<String> headerNames = list(request.getHeaderNames());
-        for (String currentKey : headerNames) {
-            if (currentKey.toLowerCase().equals(key.toLowerCase())) {
-                List<String> valueList = list(request.getHeaders(currentKey));
-                if (valueList.isEmpty()) {
-                    return HttpHeader.empty(key);
+    private Map<String, List<String>> headerValues() {
+        if (cachedHeaderValues == null) {
+            Map<String, List<String>> values = new HashMap<>();
+            Set<String> keys = new LinkedHashSet<>();
+            for (Enumeration<String> headerNames = request.getHeaderNames(); headerNames.hasMoreElements(); ) {
+                String key = headerNames.nextElement();
+                keys.add(key);
+                String lowerCaseKey = key.toLowerCase();
+                if (!values.containsKey(lowerCaseKey)) {
+                    values.put(lowerCaseKey, ImmutableList.copyOf(list(request.getHeaders(key))));
                 }
-
-                return new HttpHeader(key, valueList);
             }
+
+            cachedHeaderKeys = keys;
+            cachedHeaderValues = values;
         }
 
-        return HttpHeader.absent(key);
+        return cachedHeaderValues;
     }
 
     @Override
@@ -216,19 +260,22 @@ public class WireMockHttpServletRequestAdapter implements Request {
         return new HttpHeaders(headerList);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Set<String> getAllHeaderKeys() {
-        LinkedHashSet<String> headerKeys = new LinkedHashSet<String>();
-        for (Enumeration<String> headerNames = request.getHeaderNames(); headerNames.hasMoreElements(); ) {
-            headerKeys.add(headerNames.nextElement());
-        }
-
-        return headerKeys;
+        headerValues();
+        return new LinkedHashSet<>(cachedHeaderKeys);
     }
 
     @Override
     public Map<String, Cookie> getCookies() {
+        if (cachedCookies == null) {
+            cachedCookies = buildCookies();
+        }
+
+        return cachedCookies;
+    }
+
+    private Map<String, Cookie> buildCookies() {
         ImmutableMultimap.Builder<String, String> builder = ImmutableMultimap.builder();
 
         javax.servlet.http.Cookie[] cookies = firstNonNull(request.getCookies(), new javax.servlet.http.Cookie[0]);
@@ -236,19 +283,21 @@ public class WireMockHttpServletRequestAdapter implements Request {
             builder.put(cookie.getName(), cookie.getValue());
         }
 
-        return Maps.transformValues(builder.build().asMap(), new Function<Collection<String>, Cookie>() {
+        return ImmutableMap.copyOf(Maps.transformValues(builder.build().asMap(), new Function<Collection<String>, Cookie>() {
             @Override
             public Cookie apply(Collection<String> input) {
                 return new Cookie(null, ImmutableList.copyOf(input));
             }
-        });
+        }));
     }
 
     @Override
     public QueryParameter queryParameter(String key) {
-        return firstNonNull((splitQuery(request.getQueryString())
-                .get(key)),
-            QueryParameter.absent(key));
+        if (cachedQueryParameters == null) {
+            cachedQueryParameters = splitQuery(request.getQueryString());
+        }
+
+        return firstNonNull(cachedQueryParameters.get(key), QueryParameter.absent(key));
     }
 
     @Override
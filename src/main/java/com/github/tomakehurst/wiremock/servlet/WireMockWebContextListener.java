@@ -42,7 +42,9 @@ public class WireMockWebContextListener implements ServletContextListener {
         WireMockApp wireMockApp = new WireMockApp(new WarConfiguration(context), new NotImplementedContainer());
 
         context.setAttribute(APP_CONTEXT_KEY, wireMockApp);
-        context.setAttribute(StubRequestHandler.class.getName(), wireMockApp.buildStubRequestHandler());
+        StubRequestHandler stubRequestHandler = wireMockApp.buildStubRequestHandler();
+        context.setAttribute(StubRequestHandler.class.getName(), stubRequestHandler);
+        context.setAttribute(WireMockHandlerDispatchingServlet.DELAY_SCHEDULER, stubRequestHandler.getDelayScheduler());
         context.setAttribute(AdminRequestHandler.class.getName(), wireMockApp.buildAdminRequestHandler());
         context.setAttribute(Notifier.KEY, new Slf4jNotifier(verboseLoggingEnabled));
     }
@@ -61,6 +63,10 @@ public class WireMockWebContextListener implements ServletContextListener {
 
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
+        WireMockApp wireMockApp = (WireMockApp) sce.getServletContext().getAttribute(APP_CONTEXT_KEY);
+        if (wireMockApp != null) {
+            wireMockApp.stop();
+        }
     }
 
 }
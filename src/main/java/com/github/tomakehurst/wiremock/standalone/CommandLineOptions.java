@@ -42,6 +42,7 @@ import com.google.common.io.Resources;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.net.URI;
@@ -54,12 +55,14 @@ import static com.github.tomakehurst.wiremock.common.ProxySettings.NO_PROXY;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.MAPPINGS_ROOT;
 import static com.github.tomakehurst.wiremock.extension.ExtensionLoader.valueAssignableFrom;
 import static com.github.tomakehurst.wiremock.http.CaseInsensitiveKey.TO_CASE_INSENSITIVE_KEYS;
+import static java.util.Arrays.asList;
 
 public class CommandLineOptions implements Options {
 
 	private static final String HELP = "help";
 	private static final String RECORD_MAPPINGS = "record-mappings";
 	private static final String MATCH_HEADERS = "match-headers";
+	private static final String ASYNCHRONOUS_RECORD_MAPPINGS = "async-record-mappings";
 	private static final String PROXY_ALL = "proxy-all";
     private static final String PRESERVE_HOST_HEADER = "preserve-host-header";
     private static final String PROXY_VIA = "proxy-via";
@@ -90,6 +93,28 @@ public class CommandLineOptions implements Options {
     private static final String ADMIN_API_REQUIRE_HTTPS = "admin-api-require-https";
     private static final String ASYNCHRONOUS_RESPONSE_ENABLED = "async-response-enabled";
     private static final String ASYNCHRONOUS_RESPONSE_THREADS = "async-response-threads";
+    private static final String STREAM_PROXY_RESPONSES = "stream-proxy-responses";
+    private static final String PROXY_STREAM_BUFFER_BYTES = "proxy-stream-buffer-bytes";
+    private static final String PROXY_MAX_CONNECTIONS = "proxy-max-connections";
+    private static final String PROXY_MAX_CONNECTIONS_PER_ROUTE = "proxy-max-connections-per-route";
+    private static final String PROXY_CONNECT_TIMEOUT = "proxy-connect-timeout";
+    private static final String PROXY_CONNECTION_LEASE_TIMEOUT = "proxy-connection-lease-timeout";
+    private static final String PROXY_KEEP_ALIVE = "proxy-keep-alive";
+    private static final String PROXY_MAX_IDLE_TIME = "proxy-max-idle-time";
+    private static final String PROXY_STALE_CHECK_AFTER_INACTIVITY = "proxy-stale-check-after-inactivity";
+    private static final String ASYNCHRONOUS_PROXY_ENABLED = "async-proxy-enabled";
+    private static final String ASYNCHRONOUS_PROXY_THREADS = "async-proxy-threads";
+    private static final String PROXY_CACHE = "proxy-cache";
+    private static final String PROXY_CACHE_MAX_BYTES = "proxy-cache-max-bytes";
+    private static final String PROXY_CACHE_DEFAULT_TTL = "proxy-cache-default-ttl";
+    private static final String PROXY_CACHE_KEY_HEADERS = "proxy-cache-key-headers";
+    private static final String PROXY_COALESCE_REQUESTS = "proxy-coalesce-requests";
+    private static final String ASYNCHRONOUS_LOGGING = "async-logging";
+    private static final String ASYNCHRONOUS_UNMATCHED_REQUEST_REPORTING = "async-unmatched-request-reporting";
+    private static final String MAX_UNMATCHED_REQUEST_REPORTS_PER_SECOND = "max-unmatched-request-reports-per-second";
+    private static final String BODY_FILE_CACHE_MAX_HEAP_BYTES = "body-file-cache-max-heap-bytes";
+    private static final String BODY_FILE_CACHE_MAX_HEAP_FILE_BYTES = "body-file-cache-max-heap-file-bytes";
+    private static final String BODY_FILE_CACHE_MAX_MAPPED_FILES = "body-file-cache-max-mapped-files";
 
     private final OptionSet optionSet;
     private final FileSource fileSource;
@@ -97,6 +122,7 @@ public class CommandLineOptions implements Options {
 
     private String helpText;
     private Optional<Integer> resultingPort;
+    private final Notifier notifier;
 
     public CommandLineOptions(String... args) {
 		OptionParser optionParser = new OptionParser();
@@ -114,8 +140,15 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(PROXY_VIA, "Specifies a proxy server to use when routing proxy mapped requests").withRequiredArg();
 		optionParser.accepts(RECORD_MAPPINGS, "Enable recording of all (non-admin) requests as mapping files");
 		optionParser.accepts(MATCH_HEADERS, "Enable request header matching when recording through a proxy").withRequiredArg();
+		optionParser.accepts(ASYNCHRONOUS_RECORD_MAPPINGS, "Write recorded mapping and body files on a background thread, after the response is sent");
 		optionParser.accepts(ROOT_DIR, "Specifies path for storing recordings (parent for " + MAPPINGS_ROOT + " and " + WireMockApp.FILES_ROOT + " folders)").withRequiredArg().defaultsTo(".");
+        optionParser.accepts(BODY_FILE_CACHE_MAX_HEAP_BYTES, "The most bytes of body file contents to hold in memory").withRequiredArg().defaultsTo(String.valueOf(BodyFileCacheSettings.DEFAULT_MAX_HEAP_BYTES));
+        optionParser.accepts(BODY_FILE_CACHE_MAX_HEAP_FILE_BYTES, "Body files up to this size are held in memory, and larger ones memory-mapped").withRequiredArg().defaultsTo(String.valueOf(BodyFileCacheSettings.DEFAULT_MAX_HEAP_FILE_BYTES));
+        optionParser.accepts(BODY_FILE_CACHE_MAX_MAPPED_FILES, "The most body files to keep memory-mapped at once. 0 to always stream larger files from disk").withRequiredArg().defaultsTo(String.valueOf(BodyFileCacheSettings.DEFAULT_MAX_MAPPED_FILES));
 		optionParser.accepts(VERBOSE, "Enable verbose logging to stdout");
+        optionParser.accepts(ASYNCHRONOUS_LOGGING, "Format and write log messages on a background thread, dropping verbose ones if it falls behind");
+        optionParser.accepts(ASYNCHRONOUS_UNMATCHED_REQUEST_REPORTING, "Find the nearest stub to log for unmatched requests on a background thread, after the response is sent");
+        optionParser.accepts(MAX_UNMATCHED_REQUEST_REPORTS_PER_SECOND, "The most unmatched requests a second to log a diff against the nearest stub for. Others are only counted").withRequiredArg();
 		optionParser.accepts(ENABLE_BROWSER_PROXYING, "Allow wiremock to be set as a browser's proxy server");
         optionParser.accepts(DISABLE_REQUEST_JOURNAL, "Disable the request journal (to avoid heap growth when running wiremock for long periods without reset)");
         optionParser.accepts(DISABLE_BANNER, "Disable print banner logo");
@@ -132,6 +165,22 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(ADMIN_API_REQUIRE_HTTPS, "Require HTTPS to be used to access the admin API");
         optionParser.accepts(ASYNCHRONOUS_RESPONSE_ENABLED, "Enable asynchronous response").withRequiredArg().defaultsTo("false");
         optionParser.accepts(ASYNCHRONOUS_RESPONSE_THREADS, "Number of asynchronous response threads").withRequiredArg().defaultsTo("10");
+        optionParser.accepts(STREAM_PROXY_RESPONSES, "Stream proxied response bodies to the client as they arrive, rather than reading them in full first");
+        optionParser.accepts(PROXY_STREAM_BUFFER_BYTES, "The most bytes of each streamed proxy response body kept for the request journal").withRequiredArg().defaultsTo(String.valueOf(ProxyStreamingSettings.DEFAULT_BUFFER_BYTES));
+        optionParser.accepts(PROXY_MAX_CONNECTIONS, "The most connections open at once to services being proxied to (default: 1000)").withRequiredArg();
+        optionParser.accepts(PROXY_MAX_CONNECTIONS_PER_ROUTE, "The most connections open at once to any one service being proxied to (default: the same as " + PROXY_MAX_CONNECTIONS + ")").withRequiredArg();
+        optionParser.accepts(PROXY_CONNECT_TIMEOUT, "Milliseconds to wait for a connection to a service being proxied to").withRequiredArg();
+        optionParser.accepts(PROXY_CONNECTION_LEASE_TIMEOUT, "Milliseconds to wait for a free pooled connection when proxying").withRequiredArg();
+        optionParser.accepts(PROXY_KEEP_ALIVE, "The most milliseconds a connection to a service being proxied to is kept for reuse").withRequiredArg();
+        optionParser.accepts(PROXY_MAX_IDLE_TIME, "Milliseconds after which unused proxy connections are closed").withRequiredArg();
+        optionParser.accepts(PROXY_STALE_CHECK_AFTER_INACTIVITY, "Milliseconds a pooled proxy connection must be unused before it is checked for staleness. 0 (the default) checks every time, -1 never does").withRequiredArg();
+        optionParser.accepts(ASYNCHRONOUS_PROXY_ENABLED, "Release container threads while waiting for the services being proxied to");
+        optionParser.accepts(ASYNCHRONOUS_PROXY_THREADS, "The most proxy requests in flight at once when " + ASYNCHRONOUS_PROXY_ENABLED + " is set (default: the same as " + PROXY_MAX_CONNECTIONS + ")").withRequiredArg();
+        optionParser.accepts(PROXY_CACHE, "Cache the responses of services being proxied to, for as long as their Cache-Control or Expires headers allow");
+        optionParser.accepts(PROXY_CACHE_MAX_BYTES, "The most bytes of proxied response bodies cached at once").withRequiredArg().defaultsTo(String.valueOf(ProxyCacheSettings.DEFAULT_MAX_BYTES));
+        optionParser.accepts(PROXY_CACHE_DEFAULT_TTL, "Seconds to cache proxied responses that don't say how long they may be cached for").withRequiredArg().defaultsTo("0");
+        optionParser.accepts(PROXY_CACHE_KEY_HEADERS, "Request headers that, along with the method and URL, distinguish cached proxy responses, comma separated").withRequiredArg();
+        optionParser.accepts(PROXY_COALESCE_REQUESTS, "Send concurrent identical GET and HEAD requests being proxied to the target only once, giving each the same response");
 
         optionParser.accepts(HELP, "Print this message");
 
@@ -139,10 +188,13 @@ public class CommandLineOptions implements Options {
         validate();
 		captureHelpTextIfRequested(optionParser);
 
-        fileSource = new SingleRootFileSource((String) optionSet.valueOf(ROOT_DIR));
+        fileSource = new SingleRootFileSource(new File((String) optionSet.valueOf(ROOT_DIR)), getBodyFileCacheSettings());
         mappingsSource = new JsonFileMappingsSource(fileSource.child(MAPPINGS_ROOT));
 
         resultingPort = Optional.absent();
+
+        Notifier consoleNotifier = new ConsoleNotifier(verboseLoggingEnabled());
+        notifier = asynchronousLoggingEnabled() ? new AsynchronousNotifier(consoleNotifier) : consoleNotifier;
 	}
 
     private void validate() {
@@ -172,10 +224,18 @@ public class CommandLineOptions implements Options {
 		return optionSet.has(VERBOSE);
 	}
 
+    public boolean asynchronousLoggingEnabled() {
+        return optionSet.has(ASYNCHRONOUS_LOGGING);
+    }
+
 	public boolean recordMappingsEnabled() {
 		return optionSet.has(RECORD_MAPPINGS);
 	}
 
+    public boolean asynchronousRecordMappingsEnabled() {
+        return optionSet.has(ASYNCHRONOUS_RECORD_MAPPINGS);
+    }
+
 	@Override
 	public List<CaseInsensitiveKey> matchingHeaders() {
 		if (optionSet.hasArgument(MATCH_HEADERS)) {
@@ -385,7 +445,7 @@ public class CommandLineOptions implements Options {
 
     @Override
     public Notifier notifier() {
-        return new ConsoleNotifier(verboseLoggingEnabled());
+        return notifier;
     }
 
     @Override
@@ -437,6 +497,30 @@ public class CommandLineOptions implements Options {
                    .put(PRESERVE_HOST_HEADER, shouldPreserveHostHeader());
         }
 
+        if (getProxyStreamingSettings().isEnabled()) {
+            builder.put(STREAM_PROXY_RESPONSES, true);
+        }
+
+        if (getAsynchronousProxySettings().isEnabled()) {
+            builder.put(ASYNCHRONOUS_PROXY_ENABLED, true);
+        }
+
+        if (getProxyCacheSettings().isEnabled()) {
+            builder.put(PROXY_CACHE, true);
+        }
+
+        if (shouldCoalesceProxyRequests()) {
+            builder.put(PROXY_COALESCE_REQUESTS, true);
+        }
+
+        if (asynchronousLoggingEnabled()) {
+            builder.put(ASYNCHRONOUS_LOGGING, true);
+        }
+
+        if (getUnmatchedRequestReportingSettings().isAsynchronous()) {
+            builder.put(ASYNCHRONOUS_UNMATCHED_REQUEST_REPORTING, true);
+        }
+
         builder.put(ENABLE_BROWSER_PROXYING, browserProxyingEnabled());
         
         builder.put(DISABLE_BANNER, bannerDisabled());
@@ -444,6 +528,9 @@ public class CommandLineOptions implements Options {
         if (recordMappingsEnabled()) {
             builder.put(RECORD_MAPPINGS, recordMappingsEnabled())
                     .put(MATCH_HEADERS, matchingHeaders());
+            if (asynchronousRecordMappingsEnabled()) {
+                builder.put(ASYNCHRONOUS_RECORD_MAPPINGS, true);
+            }
         }
 
         builder.put(DISABLE_REQUEST_JOURNAL, requestJournalDisabled())
@@ -505,4 +592,90 @@ public class CommandLineOptions implements Options {
         return Integer.valueOf((String) optionSet.valueOf(ASYNCHRONOUS_RESPONSE_THREADS));
     }
 
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        ProxyConnectionPoolSettings.Builder builder = ProxyConnectionPoolSettings.Builder.aProxyConnectionPoolSettings();
+
+        if (optionSet.hasArgument(PROXY_MAX_CONNECTIONS)) {
+            builder = builder.withMaxConnections(Integer.parseInt((String) optionSet.valueOf(PROXY_MAX_CONNECTIONS)));
+        }
+
+        if (optionSet.hasArgument(PROXY_MAX_CONNECTIONS_PER_ROUTE)) {
+            builder = builder.withMaxConnectionsPerRoute(Integer.parseInt((String) optionSet.valueOf(PROXY_MAX_CONNECTIONS_PER_ROUTE)));
+        }
+
+        if (optionSet.hasArgument(PROXY_CONNECT_TIMEOUT)) {
+            builder = builder.withConnectTimeout(Integer.parseInt((String) optionSet.valueOf(PROXY_CONNECT_TIMEOUT)));
+        }
+
+        if (optionSet.hasArgument(PROXY_CONNECTION_LEASE_TIMEOUT)) {
+            builder = builder.withLeaseTimeout(Integer.parseInt((String) optionSet.valueOf(PROXY_CONNECTION_LEASE_TIMEOUT)));
+        }
+
+        if (optionSet.hasArgument(PROXY_KEEP_ALIVE)) {
+            builder = builder.withKeepAlive(Long.parseLong((String) optionSet.valueOf(PROXY_KEEP_ALIVE)));
+        }
+
+        if (optionSet.hasArgument(PROXY_MAX_IDLE_TIME)) {
+            builder = builder.withMaxIdleTime(Long.parseLong((String) optionSet.valueOf(PROXY_MAX_IDLE_TIME)));
+        }
+
+        if (optionSet.hasArgument(PROXY_STALE_CHECK_AFTER_INACTIVITY)) {
+            builder = builder.withStaleCheckAfterInactivity(Integer.parseInt((String) optionSet.valueOf(PROXY_STALE_CHECK_AFTER_INACTIVITY)));
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return new ProxyStreamingSettings(
+            optionSet.has(STREAM_PROXY_RESPONSES),
+            Integer.valueOf((String) optionSet.valueOf(PROXY_STREAM_BUFFER_BYTES))
+        );
+    }
+
+    @Override
+    public AsynchronousProxySettings getAsynchronousProxySettings() {
+        return new AsynchronousProxySettings(
+            optionSet.has(ASYNCHRONOUS_PROXY_ENABLED),
+            optionSet.hasArgument(ASYNCHRONOUS_PROXY_THREADS) ? Integer.parseInt((String) optionSet.valueOf(ASYNCHRONOUS_PROXY_THREADS)) : 0
+        );
+    }
+
+    @Override
+    public ProxyCacheSettings getProxyCacheSettings() {
+        List<String> keyHeaders = optionSet.hasArgument(PROXY_CACHE_KEY_HEADERS) ?
+            asList(((String) optionSet.valueOf(PROXY_CACHE_KEY_HEADERS)).split(",")) :
+            Collections.<String>emptyList();
+        return new ProxyCacheSettings(
+            optionSet.has(PROXY_CACHE),
+            Long.parseLong((String) optionSet.valueOf(PROXY_CACHE_MAX_BYTES)),
+            Integer.parseInt((String) optionSet.valueOf(PROXY_CACHE_DEFAULT_TTL)),
+            keyHeaders
+        );
+    }
+
+    @Override
+    public boolean shouldCoalesceProxyRequests() {
+        return optionSet.has(PROXY_COALESCE_REQUESTS);
+    }
+
+    @Override
+    public BodyFileCacheSettings getBodyFileCacheSettings() {
+        return new BodyFileCacheSettings(
+            Long.parseLong((String) optionSet.valueOf(BODY_FILE_CACHE_MAX_HEAP_BYTES)),
+            Long.parseLong((String) optionSet.valueOf(BODY_FILE_CACHE_MAX_HEAP_FILE_BYTES)),
+            Integer.parseInt((String) optionSet.valueOf(BODY_FILE_CACHE_MAX_MAPPED_FILES))
+        );
+    }
+
+    @Override
+    public UnmatchedRequestReportingSettings getUnmatchedRequestReportingSettings() {
+        return new UnmatchedRequestReportingSettings(
+            optionSet.has(ASYNCHRONOUS_UNMATCHED_REQUEST_REPORTING),
+            optionSet.hasArgument(MAX_UNMATCHED_REQUEST_REPORTS_PER_SECOND) ? Integer.parseInt((String) optionSet.valueOf(MAX_UNMATCHED_REQUEST_REPORTS_PER_SECOND)) : 0
+        );
+    }
+
 }
@@ -63,11 +63,9 @@ public class InMemoryStubMappings implements StubMappings {
 	@Override
 	public ServeEvent serveFor(Request request) {
 		StubMapping matchingMapping = find(
-				mappings,
+				mappings.findCandidatesFor(request),
 				mappingMatchingAndInCorrectScenarioState(request),
 				StubMapping.NOT_CONFIGURED);
-		
-		scenarios.onStubServed(matchingMapping);
 
         ResponseDefinition responseDefinition = applyTransformations(request,
             matchingMapping.getResponse(),
@@ -180,8 +178,10 @@ public class InMemoryStubMappings implements StubMappings {
     private Predicate<StubMapping> mappingMatchingAndInCorrectScenarioStateNew(final Request request) {
 		return new Predicate<StubMapping>() {
 			public boolean apply(StubMapping mapping) {
-				return mapping.getRequest().match(request, customMatchers).isExactMatch() &&
-				(mapping.isIndependentOfScenarioState() || scenarios.mappingMatchesScenarioState(mapping));
+				// The scenario transition happens as part of the match, so that only one of several concurrent
+				// requests can match a given scenario state. find() stops at the first match so only it transitions.
+				return mapping.getRequest().isMatchedBy(request, customMatchers) &&
+				scenarios.matchAndTransition(mapping);
 			}
 		};
 	}
@@ -16,96 +16,102 @@
 package com.github.tomakehurst.wiremock.stubbing;
 
 import com.google.common.base.Function;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Maps;
 
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.collect.FluentIterable.from;
 
+/**
+ * Holds the current state of each scenario in its own atomic cell, so that checking a mapping's required state
+ * and moving to its new state is a single compare-and-set. Concurrent requests against the same state therefore
+ * can't both transition it, and requests to different scenarios never contend.
+ */
 public class Scenarios {
 
-    private final ConcurrentHashMap<String, Scenario> scenarioMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicReference<Scenario>> scenarioMap = new ConcurrentHashMap<>();
 
     public Scenario getByName(String name) {
-        return scenarioMap.get(name);
+        AtomicReference<Scenario> cell = scenarioMap.get(name);
+        return cell != null ? cell.get() : null;
     }
 
     public List<Scenario> getAll() {
-        return ImmutableList.copyOf(scenarioMap.values());
+        return from(scenarioMap.values()).transform(new Function<AtomicReference<Scenario>, Scenario>() {
+            @Override
+            public Scenario apply(AtomicReference<Scenario> input) {
+                return input.get();
+            }
+        }).toList();
     }
 
-    public void onStubMappingAdded(StubMapping mapping) {
+    public synchronized void onStubMappingAdded(StubMapping mapping) {
         if (mapping.isInScenario()) {
-            String scenarioName = mapping.getScenarioName();
-            Scenario scenario =
-                firstNonNull(scenarioMap.get(scenarioName), Scenario.inStartedState(scenarioName))
-                .withStubMapping(mapping);
-            scenarioMap.put(scenarioName, scenario);
+            addToScenario(mapping);
         }
     }
 
-    public void onStubMappingUpdated(StubMapping oldMapping, StubMapping newMapping) {
+    public synchronized void onStubMappingUpdated(StubMapping oldMapping, StubMapping newMapping) {
         if (oldMapping.isInScenario() && !newMapping.getScenarioName().equals(oldMapping.getScenarioName())) {
-            Scenario scenarioForOldMapping =
-                scenarioMap.get(oldMapping.getScenarioName())
-                    .withoutStubMapping(oldMapping);
-
-            if (scenarioForOldMapping.getMappings().isEmpty()) {
-                scenarioMap.remove(scenarioForOldMapping.getName());
-            } else {
-                scenarioMap.put(oldMapping.getScenarioName(), scenarioForOldMapping);
-            }
+            removeFromScenario(oldMapping);
         }
 
         if (newMapping.isInScenario()) {
-            String scenarioName = newMapping.getScenarioName();
-            Scenario scenario =
-                firstNonNull(scenarioMap.get(scenarioName), Scenario.inStartedState(scenarioName))
-                .withStubMapping(newMapping);
-            scenarioMap.put(scenarioName, scenario);
+            addToScenario(newMapping);
         }
     }
 
-    public void onStubMappingRemoved(StubMapping mapping) {
+    public synchronized void onStubMappingRemoved(StubMapping mapping) {
         if (mapping.isInScenario()) {
-            final String scenarioName = mapping.getScenarioName();
-            Scenario scenario =
-                scenarioMap.get(scenarioName)
-                .withoutStubMapping(mapping);
-
-            if (scenario.getMappings().isEmpty()) {
-                scenarioMap.remove(scenarioName);
-            } else {
-                scenarioMap.put(scenarioName, scenario);
-            }
+            removeFromScenario(mapping);
         }
     }
 
     public void onStubServed(StubMapping mapping) {
-        if (mapping.isInScenario()) {
-            final String scenarioName = mapping.getScenarioName();
-            Scenario scenario = scenarioMap.get(scenarioName);
-            if (mapping.modifiesScenarioState() &&
-                (mapping.getRequiredScenarioState() == null || scenario.getState().equals(mapping.getRequiredScenarioState()))) {
-                Scenario newScenario = scenario.setState(mapping.getNewScenarioState());
-                scenarioMap.put(scenarioName, newScenario);
+        matchAndTransition(mapping);
+    }
+
+    /**
+     * Atomically checks that the mapping's scenario is in the state it requires, if any, and moves the scenario
+     * to the mapping's new state, if any. Returns false, leaving the scenario untouched, if it wasn't in the
+     * required state, in which case the mapping must not be served.
+     */
+    public boolean matchAndTransition(StubMapping mapping) {
+        if (!mapping.isInScenario()) {
+            return true;
+        }
+
+        AtomicReference<Scenario> cell = scenarioMap.get(mapping.getScenarioName());
+        if (cell == null) {
+            return mapping.isIndependentOfScenarioState();
+        }
+
+        String requiredState = mapping.getRequiredScenarioState();
+        while (true) {
+            Scenario current = cell.get();
+            if (requiredState != null && !requiredState.equals(current.getState())) {
+                return false;
+            }
+
+            if (!mapping.modifiesScenarioState() || cell.compareAndSet(current, current.setState(mapping.getNewScenarioState()))) {
+                return true;
             }
         }
     }
 
     public void reset() {
-        scenarioMap.putAll(Maps.transformValues(scenarioMap, new Function<Scenario, Scenario>() {
-            @Override
-            public Scenario apply(Scenario input) {
-                return input.reset();
-            }
-        }));
+        for (AtomicReference<Scenario> cell: scenarioMap.values()) {
+            update(cell, new Function<Scenario, Scenario>() {
+                @Override
+                public Scenario apply(Scenario input) {
+                    return input.reset();
+                }
+            });
+        }
     }
 
-    public void clear() {
+    public synchronized void clear() {
         scenarioMap.clear();
     }
 
@@ -114,4 +120,44 @@ public class Scenarios {
         return mapping.getRequiredScenarioState().equals(currentScenarioState);
     }
 
+    private void addToScenario(final StubMapping mapping) {
+        String scenarioName = mapping.getScenarioName();
+        AtomicReference<Scenario> cell = scenarioMap.get(scenarioName);
+        if (cell == null) {
+            scenarioMap.put(scenarioName, new AtomicReference<>(Scenario.inStartedState(scenarioName).withStubMapping(mapping)));
+            return;
+        }
+
+        update(cell, new Function<Scenario, Scenario>() {
+            @Override
+            public Scenario apply(Scenario input) {
+                return input.withStubMapping(mapping);
+            }
+        });
+    }
+
+    private void removeFromScenario(final StubMapping mapping) {
+        String scenarioName = mapping.getScenarioName();
+        AtomicReference<Scenario> cell = scenarioMap.get(scenarioName);
+        Scenario scenario = update(cell, new Function<Scenario, Scenario>() {
+            @Override
+            public Scenario apply(Scenario input) {
+                return input.withoutStubMapping(mapping);
+            }
+        });
+
+        if (scenario.getMappings().isEmpty()) {
+            scenarioMap.remove(scenarioName);
+        }
+    }
+
+    private static Scenario update(AtomicReference<Scenario> cell, Function<Scenario, Scenario> change) {
+        while (true) {
+            Scenario current = cell.get();
+            Scenario updated = change.apply(current);
+            if (cell.compareAndSet(current, updated)) {
+                return updated;
+            }
+        }
+    }
 }
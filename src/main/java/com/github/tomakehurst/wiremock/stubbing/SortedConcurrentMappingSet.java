@@ -15,23 +15,26 @@
  */
 package com.github.tomakehurst.wiremock.stubbing;
 
+import com.github.tomakehurst.wiremock.http.Request;
 import com.google.common.base.Predicate;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static com.google.common.collect.Iterables.removeIf;
-
 public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
 
 	private AtomicLong insertionCount;
 	private ConcurrentSkipListSet<StubMapping> mappingSet;
+	private StubMappingIndex index;
 	
 	public SortedConcurrentMappingSet() {
 		insertionCount = new AtomicLong();
 		mappingSet = new ConcurrentSkipListSet<StubMapping>(sortedByPriorityThenReverseInsertionOrder());
+		index = new StubMappingIndex(sortedByPriorityThenReverseInsertionOrder());
 	}
 	
 	private Comparator<StubMapping> sortedByPriorityThenReverseInsertionOrder() {
@@ -51,10 +54,19 @@ public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
 	public Iterator<StubMapping> iterator() {
 		return mappingSet.iterator();
 	}
+
+	/**
+	 * Returns the mappings that could possibly match the request, in the same order as {@link #iterator()}.
+	 * Mappings not returned are guaranteed not to match, so callers can treat this as a narrowed full scan.
+	 */
+	public Iterable<StubMapping> findCandidatesFor(Request request) {
+		return index.candidatesFor(request);
+	}
 	
 	public void add(StubMapping mapping) {
 		mapping.setInsertionIndex(insertionCount.getAndIncrement());
 		mappingSet.add(mapping);
+		index.add(mapping);
 	}
 
 	public boolean remove(final StubMapping mappingToRemove) {
@@ -77,10 +89,27 @@ public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
         return removedByUuid || removedByRequestPattern;
 	}
 
+	private boolean removeIf(ConcurrentSkipListSet<StubMapping> mappings, Predicate<StubMapping> predicate) {
+		List<StubMapping> removed = new ArrayList<>();
+		for (StubMapping mapping: mappings) {
+			if (predicate.apply(mapping) && mappings.remove(mapping)) {
+				removed.add(mapping);
+			}
+		}
+
+		for (StubMapping mapping: removed) {
+			index.remove(mapping);
+		}
+
+		return !removed.isEmpty();
+	}
+
 	public boolean replace(StubMapping existingStubMapping, StubMapping newStubMapping) {
 
 		if ( mappingSet.remove(existingStubMapping) ) {
+			index.remove(existingStubMapping);
 			mappingSet.add(newStubMapping);
+			index.add(newStubMapping);
 			return true;
 		}
 		return false;
@@ -88,6 +117,7 @@ public class SortedConcurrentMappingSet implements Iterable<StubMapping> {
 
 	public void clear() {
 		mappingSet.clear();
+		index.clear();
 	}
 	
 	@Override
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.stubbing;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.EqualToPattern;
+import com.github.tomakehurst.wiremock.matching.RegexPattern;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+import com.github.tomakehurst.wiremock.matching.UrlPathPattern;
+import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import com.google.common.collect.Iterables;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Narrows the set of stub mappings that need to be evaluated for a request.
+ *
+ * Stubs with an exact URL or URL path are bucketed by method and URL. Stubs whose URL regex starts with a literal
+ * first path segment (e.g. <code>/things/.*</code>) are bucketed by method and that segment. Everything else
+ * goes into a fallback bucket that is always included. Each bucket is kept in the same priority then reverse
+ * insertion order as {@link SortedConcurrentMappingSet}, and the candidate buckets are merged lazily so that
+ * the first exact match found is the same one a full scan would have found.
+ */
+class StubMappingIndex {
+
+    private final Comparator<StubMapping> comparator;
+
+    private final KeyedBuckets exactUrls = new KeyedBuckets();
+    private final KeyedBuckets exactPaths = new KeyedBuckets();
+    private final KeyedBuckets urlPrefixes = new KeyedBuckets();
+    private final KeyedBuckets pathPrefixes = new KeyedBuckets();
+    private final ConcurrentSkipListSet<StubMapping> fallback;
+
+    StubMappingIndex(Comparator<StubMapping> comparator) {
+        this.comparator = comparator;
+        this.fallback = new ConcurrentSkipListSet<>(comparator);
+    }
+
+    synchronized void add(StubMapping mapping) {
+        update(mapping, true);
+    }
+
+    synchronized void remove(StubMapping mapping) {
+        update(mapping, false);
+    }
+
+    synchronized void clear() {
+        exactUrls.clear();
+        exactPaths.clear();
+        urlPrefixes.clear();
+        pathPrefixes.clear();
+        fallback.clear();
+    }
+
+    Iterable<StubMapping> candidatesFor(Request request) {
+        RequestMethod method = request.getMethod();
+        String url = request.getUrl();
+
+        List<Iterable<StubMapping>> buckets = new ArrayList<>();
+        exactUrls.collect(method, url, buckets);
+        urlPrefixes.collect(method, firstPathSegment(url), buckets);
+
+        String path = pathOf(url);
+        exactPaths.collect(method, path, buckets);
+        pathPrefixes.collect(method, firstPathSegment(path), buckets);
+
+        if (buckets.isEmpty()) {
+            return fallback;
+        }
+
+        buckets.add(fallback);
+        return Iterables.mergeSorted(buckets, comparator);
+    }
+
+    private void update(StubMapping mapping, boolean adding) {
+        RequestPattern requestPattern = mapping.getRequest();
+        RequestMethod method = requestPattern.getMethod();
+        UrlPattern urlPattern = requestPattern.getUrlMatcher();
+        StringValuePattern valuePattern = urlPattern.getPattern();
+
+        if (isCaseSensitiveEqualTo(valuePattern)) {
+            String url = valuePattern.getValue();
+            if (urlPattern.getClass() == UrlPattern.class) {
+                exactUrls.update(method, url, mapping, adding);
+                return;
+            } else if (urlPattern.getClass() == UrlPathPattern.class) {
+                exactPaths.update(method, url, mapping, adding);
+                return;
+            }
+        } else if (valuePattern.getClass() == RegexPattern.class) {
+            String segment = firstPathSegment(literalPrefixOf(valuePattern.getValue()));
+            if (segment != null) {
+                if (urlPattern.getClass() == UrlPattern.class) {
+                    urlPrefixes.update(method, segment, mapping, adding);
+                    return;
+                } else if (urlPattern.getClass() == UrlPathPattern.class) {
+                    pathPrefixes.update(method, segment, mapping, adding);
+                    return;
+                }
+            }
+        }
+
+        if (adding) {
+            fallback.add(mapping);
+        } else {
+            fallback.remove(mapping);
+        }
+    }
+
+    private static boolean isCaseSensitiveEqualTo(StringValuePattern pattern) {
+        if (pattern.getClass() != EqualToPattern.class) {
+            return false;
+        }
+
+        Boolean caseInsensitive = ((EqualToPattern) pattern).getCaseInsensitive();
+        return caseInsensitive == null || !caseInsensitive;
+    }
+
+    private static String pathOf(String url) {
+        if (url == null) {
+            return null;
+        }
+
+        try {
+            return URI.create(url).getRawPath();
+        } catch (IllegalArgumentException e) {
+            // A path pattern can't match a URL that won't parse, so there's nothing to look up
+            return null;
+        }
+    }
+
+    static String firstPathSegment(String value) {
+        if (value == null || !value.startsWith("/")) {
+            return null;
+        }
+
+        int end = value.indexOf('/', 1);
+        return end > 0 ? value.substring(1, end) : null;
+    }
+
+    /**
+     * Returns the part of the regex that any matching string must start with verbatim,
+     * or null if that can't be worked out safely (e.g. there's a top level alternation).
+     */
+    static String literalPrefixOf(String regex) {
+        if (regex == null || hasTopLevelAlternation(regex)) {
+            return null;
+        }
+
+        int start = regex.startsWith("^") ? 1 : 0;
+        StringBuilder prefix = new StringBuilder();
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if ("*+?{".indexOf(c) != -1) {
+                // The preceding character is optional or repeated, so can't be part of the prefix
+                if (prefix.length() > 0) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                break;
+            }
+
+            if ("\\.[](){}^$|".indexOf(c) != -1) {
+                break;
+            }
+
+            prefix.append(c);
+        }
+
+        return prefix.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inCharacterClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inCharacterClass) {
+                inCharacterClass = c != ']';
+            } else if (c == '[') {
+                inCharacterClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth <= 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private class KeyedBuckets {
+
+        private final Map<RequestMethod, Map<String, ConcurrentSkipListSet<StubMapping>>> bucketsByMethod =
+            new ConcurrentHashMap<>();
+
+        void update(RequestMethod method, String key, StubMapping mapping, boolean adding) {
+            if (adding) {
+                add(method, key, mapping);
+            } else {
+                remove(method, key, mapping);
+            }
+        }
+
+        private void add(RequestMethod method, String key, StubMapping mapping) {
+            Map<String, ConcurrentSkipListSet<StubMapping>> buckets = bucketsByMethod.get(method);
+            if (buckets == null) {
+                buckets = new ConcurrentHashMap<>();
+                bucketsByMethod.put(method, buckets);
+            }
+
+            ConcurrentSkipListSet<StubMapping> bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new ConcurrentSkipListSet<>(comparator);
+                buckets.put(key, bucket);
+            }
+
+            bucket.add(mapping);
+        }
+
+        private void remove(RequestMethod method, String key, StubMapping mapping) {
+            Map<String, ConcurrentSkipListSet<StubMapping>> buckets = bucketsByMethod.get(method);
+            if (buckets == null) {
+                return;
+            }
+
+            ConcurrentSkipListSet<StubMapping> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(mapping) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+
+        void clear() {
+            bucketsByMethod.clear();
+        }
+
+        void collect(RequestMethod method, String key, List<Iterable<StubMapping>> candidates) {
+            if (key == null) {
+                return;
+            }
+
+            addIfPresent(bucketsByMethod.get(method), key, candidates);
+            if (!RequestMethod.ANY.equals(method)) {
+                addIfPresent(bucketsByMethod.get(RequestMethod.ANY), key, candidates);
+            }
+        }
+
+        private void addIfPresent(Map<String, ConcurrentSkipListSet<StubMapping>> buckets,
+                                  String key,
+                                  List<Iterable<StubMapping>> candidates) {
+            if (buckets == null) {
+                return;
+            }
+
+            ConcurrentSkipListSet<StubMapping> bucket = buckets.get(key);
+            if (bucket != null) {
+                candidates.add(bucket);
+            }
+        }
+    }
+}
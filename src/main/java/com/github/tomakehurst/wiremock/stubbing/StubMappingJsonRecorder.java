@@ -20,43 +20,75 @@ import com.github.tomakehurst.wiremock.common.*;
 import com.github.tomakehurst.wiremock.core.Admin;
 import com.github.tomakehurst.wiremock.http.*;
 import com.github.tomakehurst.wiremock.matching.*;
-import com.github.tomakehurst.wiremock.verification.VerificationResult;
 import com.google.common.base.Predicate;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.responseDefinition;
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.common.Json.write;
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.newRequestPattern;
+import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.collect.Iterables.filter;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * Records proxied requests and their responses as mapping and body files, once per distinct request. Requests are
+ * told apart by a hash of their method, URL, matched headers and body, so checking whether one has been seen before
+ * doesn't depend on how many have been received. A hash is kept for each mapping recorded, for as long as the
+ * recorder is, so memory use grows with the number of mapping files written rather than with the requests received.
+ *
+ * When writing asynchronously, files are written in order on a single background thread. Requests wait for room
+ * once it falls too far behind, rather than writing their own files out of turn.
+ */
 public class StubMappingJsonRecorder implements RequestListener {
 
+    private static final int MAX_WAITING_WRITES = 1000;
+
     private final FileSource mappingsFileSource;
     private final FileSource filesFileSource;
-    private final Admin admin;
     private final List<CaseInsensitiveKey> headersToMatch;
+    private final Set<HashCode> receivedRequests = Collections.newSetFromMap(new ConcurrentHashMap<HashCode, Boolean>());
+    private final boolean writeAsynchronously;
+    private final Semaphore waitingWrites = new Semaphore(MAX_WAITING_WRITES);
+    private ExecutorService fileWriter;
     private IdGenerator idGenerator;
 
+    /**
+     * @deprecated Already received requests are no longer looked for in the journal, so the admin isn't needed
+     */
+    @Deprecated
     public StubMappingJsonRecorder(FileSource mappingsFileSource, FileSource filesFileSource, Admin admin, List<CaseInsensitiveKey> headersToMatch) {
+        this(mappingsFileSource, filesFileSource, headersToMatch, false);
+    }
+
+    public StubMappingJsonRecorder(FileSource mappingsFileSource, FileSource filesFileSource, List<CaseInsensitiveKey> headersToMatch, boolean writeAsynchronously) {
         this.mappingsFileSource = mappingsFileSource;
         this.filesFileSource = filesFileSource;
-        this.admin = admin;
         this.headersToMatch = headersToMatch;
+        this.writeAsynchronously = writeAsynchronously;
         idGenerator = new VeryShortIdGenerator();
     }
 
     @Override
     public void requestReceived(Request request, Response response) {
-        RequestPattern requestPattern = buildRequestPatternFrom(request);
-
-        if (requestNotAlreadyReceived(requestPattern) && response.isFromProxy()) {
+        if (response.isFromProxy() && requestNotAlreadyReceived(request)) {
             notifier().info(String.format("Recording mappings for %s", request.getUrl()));
-            writeToMappingAndBodyFile(request, response, requestPattern);
+            writeToMappingAndBodyFile(request, response, buildRequestPatternFrom(request));
         } else {
             notifier().info(String.format("Not recording mapping for %s as this has already been received", request.getUrl()));
         }
@@ -154,10 +186,40 @@ public class StubMappingJsonRecorder implements RequestListener {
         StubMapping mapping = new StubMapping(requestPattern, responseToWrite);
         mapping.setUuid(UUID.nameUUIDFromBytes(fileId.getBytes()));
 
+        if (writeAsynchronously) {
+            writeFilesInTurn(mappingFileName, mapping, bodyFileName, body);
+        } else {
+            writeFiles(mappingFileName, mapping, bodyFileName, body);
+        }
+    }
+
+    private void writeFiles(String mappingFileName, StubMapping mapping, String bodyFileName, byte[] body) {
         filesFileSource.writeBinaryFile(bodyFileName, body);
         mappingsFileSource.writeTextFile(mappingFileName, write(mapping));
     }
 
+    // Waits for room rather than writing on this thread, which could overtake writes already waiting
+    private void writeFilesInTurn(final String mappingFileName, final StubMapping mapping, final String bodyFileName, final byte[] body) {
+        final Notifier notifier = notifier();
+        waitingWrites.acquireUninterruptibly();
+        Runnable write = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    writeFiles(mappingFileName, mapping, bodyFileName, body);
+                } catch (RuntimeException e) {
+                    notifier.error("Failed to write recorded mapping " + mappingFileName, e);
+                } finally {
+                    waitingWrites.release();
+                }
+            }
+        };
+
+        synchronized (this) {
+            fileWriter().execute(write);
+        }
+    }
+
     private HttpHeaders withoutContentEncodingAndContentLength(HttpHeaders httpHeaders) {
         return new HttpHeaders(filter(httpHeaders.all(), new Predicate<HttpHeader>() {
             public boolean apply(HttpHeader header) {
@@ -174,14 +236,81 @@ public class StubMappingJsonRecorder implements RequestListener {
         return response.getBody();
     }
 
-    private boolean requestNotAlreadyReceived(RequestPattern requestPattern) {
-        VerificationResult verificationResult = admin.countRequestsMatching(requestPattern);
-        verificationResult.assertRequestJournalEnabled();
-        return (verificationResult.getCount() < 1);
+    private boolean requestNotAlreadyReceived(Request request) {
+        return receivedRequests.add(signatureOf(request));
+    }
+
+    private HashCode signatureOf(Request request) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        putString(hasher, request.getMethod().getName());
+        putString(hasher, request.getUrl());
+        putMatchedHeaders(hasher, request.getHeaders());
+
+        if (request.isMultipart()) {
+            for (Request.Part part : request.getParts()) {
+                putString(hasher, part.getName());
+                putMatchedHeaders(hasher, part.getHeaders());
+                putBytes(hasher, part.getBody().asBytes());
+            }
+        } else {
+            putBytes(hasher, request.getBody());
+        }
+
+        return hasher.hash();
+    }
+
+    private void putMatchedHeaders(Hasher hasher, HttpHeaders headers) {
+        for (CaseInsensitiveKey key : headersToMatch) {
+            HttpHeader header = headers.getHeader(key.value());
+            if (header.isPresent()) {
+                putString(hasher, key.value().toLowerCase());
+                putString(hasher, header.firstValue());
+            }
+        }
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        putBytes(hasher, value.getBytes(UTF_8));
+    }
+
+    private static void putBytes(Hasher hasher, byte[] value) {
+        hasher.putInt(value.length).putBytes(value);
+    }
+
+    /**
+     * Waits for any mapping and body files still waiting to be written, then stops the background writer. Another
+     * is started if more are recorded afterwards, as they are once a stopped server is started again.
+     */
+    public synchronized void stop() {
+        if (fileWriter != null) {
+            fileWriter.shutdown();
+            try {
+                fileWriter.awaitTermination(Long.MAX_VALUE, SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            fileWriter = null;
+        }
     }
 
     public void setIdGenerator(IdGenerator idGenerator) {
         this.idGenerator = idGenerator;
     }
 
+    // The queue needn't be bounded, since no more than MAX_WAITING_WRITES are let into it at once
+    private synchronized ExecutorService fileWriter() {
+        if (fileWriter == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1, 1,
+                10, SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("wiremock-mapping-writer").setDaemon(true).build()
+            );
+            executor.allowCoreThreadTimeOut(true);
+            fileWriter = executor;
+        }
+
+        return fileWriter;
+    }
+
 }
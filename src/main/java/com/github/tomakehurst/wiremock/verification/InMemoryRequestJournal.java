@@ -15,27 +15,25 @@
  */
 package com.github.tomakehurst.wiremock.verification;
 
-import com.github.tomakehurst.wiremock.http.Request;
-import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
 import com.github.tomakehurst.wiremock.matching.RequestPattern;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
-import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
-import static com.github.tomakehurst.wiremock.matching.RequestPattern.thatMatch;
 import static com.google.common.collect.Iterables.*;
+import static com.google.common.collect.Iterators.unmodifiableIterator;
 
 public class InMemoryRequestJournal implements RequestJournal {
 
 	private final Queue<ServeEvent> serveEvents = new ConcurrentLinkedQueue<ServeEvent>();
+	private final RequestJournalIndex index = new RequestJournalIndex();
 
 	private final Optional<Integer> maxEntries;
 
@@ -48,25 +46,18 @@ public class InMemoryRequestJournal implements RequestJournal {
 
 	@Override
 	public int countRequestsMatching(RequestPattern requestPattern) {
-		return size(filter(getRequests(), thatMatch(requestPattern)));
+		return size(index.requestsMatching(requestPattern, serveEvents));
 	}
 
 	@Override
 	public List<LoggedRequest> getRequestsMatching(RequestPattern requestPattern) {
-		return ImmutableList.copyOf(filter(getRequests(), thatMatch(requestPattern)));
-	}
-
-    private Predicate<Request> matchedBy(final RequestPattern requestPattern) {
-		return new Predicate<Request>() {
-			public boolean apply(Request input) {
-				return requestPattern.isMatchedBy(input, Collections.<String, RequestMatcherExtension>emptyMap());
-			}
-		};
+		return ImmutableList.copyOf(index.requestsMatching(requestPattern, serveEvents));
 	}
 
 	@Override
 	public void requestReceived(ServeEvent serveEvent) {
 		serveEvents.add(serveEvent);
+		index.add(serveEvent);
         removeOldEntries();
 	}
 
@@ -85,23 +76,42 @@ public class InMemoryRequestJournal implements RequestJournal {
 		});
 	}
 
+	/**
+	 * The serve events received after the given one, oldest first, without copying the rest of the journal. Events
+	 * only leave the journal oldest first, or all at once on a reset, so if the given one has gone every event still
+	 * here came after it and all of them are returned. They are too if it's null.
+	 */
+	public Iterable<ServeEvent> getServeEventsAfter(final ServeEvent lastSeen) {
+		return new Iterable<ServeEvent>() {
+			@Override
+			public Iterator<ServeEvent> iterator() {
+				if (lastSeen != null) {
+					Iterator<ServeEvent> iterator = serveEvents.iterator();
+					while (iterator.hasNext()) {
+						if (iterator.next() == lastSeen) {
+							return unmodifiableIterator(iterator);
+						}
+					}
+				}
+
+				return unmodifiableIterator(serveEvents.iterator());
+			}
+		};
+	}
+
 	@Override
 	public void reset() {
 		serveEvents.clear();
-	}
-
-	private Iterable<LoggedRequest> getRequests() {
-		return transform(serveEvents, new Function<ServeEvent, LoggedRequest>() {
-			public LoggedRequest apply(ServeEvent input) {
-				return input.getRequest();
-			}
-		});
+		index.clear();
 	}
 
 	private void removeOldEntries() {
 		if (maxEntries.isPresent()) {
 			while (serveEvents.size() > maxEntries.get()) {
-				serveEvents.poll();
+				ServeEvent removed = serveEvents.poll();
+				if (removed != null) {
+					index.remove(removed);
+				}
 			}
 		}
 	}
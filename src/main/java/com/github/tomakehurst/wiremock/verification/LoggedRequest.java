@@ -23,10 +23,12 @@ import com.github.tomakehurst.wiremock.common.Dates;
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.common.Urls;
 import com.github.tomakehurst.wiremock.http.*;
+import com.github.tomakehurst.wiremock.matching.ParsedBody;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMap;
 
+import java.lang.ref.SoftReference;
 import java.net.URI;
 import java.net.URL;
 import java.util.Collection;
@@ -49,7 +51,7 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.collect.FluentIterable.from;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class LoggedRequest implements Request {
+public class LoggedRequest implements Request, ParsedBody.Holder {
 
     private final String scheme;
     private final String host;
@@ -62,11 +64,16 @@ public class LoggedRequest implements Request {
     private final Map<String, Cookie> cookies;
     private final Map<String, QueryParameter> queryParams;
     private final byte[] body;
+    private volatile SoftReference<ParsedBody> parsedBody;
     private final boolean isBrowserProxyRequest;
     private final Date loggedDate;
     private final Collection<Part> multiparts;
 
     public static LoggedRequest createFrom(Request request) {
+        if (request instanceof LoggedRequest) {
+            return (LoggedRequest) request;
+        }
+
         return new LoggedRequest(request.getUrl(),
             request.getAbsoluteUrl(),
             request.getMethod(),
@@ -220,6 +227,21 @@ public class LoggedRequest implements Request {
         return stringFromBytes(body, encodingFromContentTypeHeaderOrUtf8());
     }
 
+    /**
+     * Held softly so that the parsed forms of bodies in the request journal can be reclaimed under memory pressure.
+     */
+    @Override
+    public ParsedBody parsedBody() {
+        SoftReference<ParsedBody> reference = parsedBody;
+        ParsedBody parsed = reference != null ? reference.get() : null;
+        if (parsed == null) {
+            parsed = new ParsedBody(getBodyAsString());
+            parsedBody = new SoftReference<>(parsed);
+        }
+
+        return parsed;
+    }
+
     @Override
     @JsonProperty("bodyAsBase64")
     public String getBodyAsBase64() {
@@ -20,59 +20,279 @@ import com.github.tomakehurst.wiremock.matching.RequestPattern;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.github.tomakehurst.wiremock.stubbing.StubMappings;
-import com.google.common.base.Function;
-import com.google.common.collect.FluentIterable;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-
-import static com.google.common.collect.FluentIterable.from;
-import static java.lang.Math.min;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class NearMissCalculator {
 
     public static final int NEAR_MISS_COUNT = 3;
 
+    /**
+     * @deprecated No longer used, as the nearest misses are now kept in a bounded heap rather than sorted. Use
+     * {@link NearMiss#compareTo(NearMiss)} instead
+     */
+    @Deprecated
     public static final Comparator<NearMiss> NEAR_MISS_ASCENDING_COMPARATOR = new Comparator<NearMiss>() {
         public int compare(NearMiss o1, NearMiss o2) {
             return o1.compareTo(o2);
         }
     };
 
+    // Matching is cheap enough per candidate that fewer than this aren't worth handing to another thread
+    private static final int CANDIDATES_PER_TASK = 256;
+    private static final int REQUESTS_PER_TASK = 16;
+
     private final StubMappings stubMappings;
     private final RequestJournal requestJournal;
 
+    private ForkJoinPool forkJoinPool;
+
     public NearMissCalculator(StubMappings stubMappings, RequestJournal requestJournal) {
         this.stubMappings = stubMappings;
         this.requestJournal = requestJournal;
     }
 
     public List<NearMiss> findNearestTo(final LoggedRequest request) {
+        return findNearest(stubMappings.getAll(), new StubCandidates(request));
+    }
+
+    public List<NearMiss> findNearestTo(final RequestPattern requestPattern) {
+        return findNearest(requestJournal.getAllServeEvents(), new ServeEventCandidates(requestPattern));
+    }
+
+    /**
+     * The nearest stubs to each of the requests in turn, with the requests divided between threads rather than the stubs
+     */
+    public List<NearMiss> findNearestToEach(final List<LoggedRequest> requests) {
         List<StubMapping> allMappings = stubMappings.getAll();
+        return requests.size() <= REQUESTS_PER_TASK ?
+            new NearestToEachTask(requests, allMappings, 0, requests.size()).compute() :
+            forkJoinPool().invoke(new NearestToEachTask(requests, allMappings, 0, requests.size()));
+    }
+
+    /**
+     * Releases the threads used to find near misses. They're started again if more are looked for afterwards.
+     */
+    public synchronized void stop() {
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdown();
+            forkJoinPool = null;
+        }
+    }
+
+    // Only made once there's enough to look through to be worth dividing between threads
+    private synchronized ForkJoinPool forkJoinPool() {
+        if (forkJoinPool == null) {
+            forkJoinPool = new ForkJoinPool();
+        }
+
+        return forkJoinPool;
+    }
+
+    private <T> List<NearMiss> findNearest(List<T> candidates, Candidates<T> matcher) {
+        NearestMisses<T> nearest = candidates.size() <= CANDIDATES_PER_TASK ?
+            new NearestTask<>(candidates, matcher, 0, candidates.size()).compute() :
+            forkJoinPool().invoke(new NearestTask<>(candidates, matcher, 0, candidates.size()));
+        return nearest.toNearMisses(matcher);
+    }
 
-        return sortAndTruncate(from(allMappings).transform(new Function<StubMapping, NearMiss>() {
-            public NearMiss apply(StubMapping stubMapping) {
-                MatchResult matchResult = stubMapping.getRequest().match(request);
-                return new NearMiss(request, stubMapping, matchResult);
+    private static <T> NearestMisses<T> nearestIn(List<T> candidates, Candidates<T> matcher, int from, int to) {
+        NearestMisses<T> nearest = new NearestMisses<>(NEAR_MISS_COUNT);
+        for (int i = from; i < to; i++) {
+            T candidate = candidates.get(i);
+            nearest.offer(i, candidate, matcher.match(candidate));
+        }
+        return nearest;
+    }
+
+    private interface Candidates<T> {
+        MatchResult match(T candidate);
+        NearMiss nearMiss(T candidate, MatchResult matchResult);
+    }
+
+    private static class StubCandidates implements Candidates<StubMapping> {
+
+        private final LoggedRequest request;
+
+        StubCandidates(LoggedRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public MatchResult match(StubMapping stubMapping) {
+            return stubMapping.getRequest().match(request);
+        }
+
+        @Override
+        public NearMiss nearMiss(StubMapping stubMapping, MatchResult matchResult) {
+            return new NearMiss(request, stubMapping, matchResult);
+        }
+    }
+
+    private static class ServeEventCandidates implements Candidates<ServeEvent> {
+
+        private final RequestPattern requestPattern;
+
+        ServeEventCandidates(RequestPattern requestPattern) {
+            this.requestPattern = requestPattern;
+        }
+
+        @Override
+        public MatchResult match(ServeEvent serveEvent) {
+            return requestPattern.match(serveEvent.getRequest());
+        }
+
+        @Override
+        public NearMiss nearMiss(ServeEvent serveEvent, MatchResult matchResult) {
+            return new NearMiss(serveEvent.getRequest(), requestPattern, matchResult);
+        }
+    }
+
+    private static class NearestTask<T> extends RecursiveTask<NearestMisses<T>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> candidates;
+        private final Candidates<T> matcher;
+        private final int from;
+        private final int to;
+
+        NearestTask(List<T> candidates, Candidates<T> matcher, int from, int to) {
+            this.candidates = candidates;
+            this.matcher = matcher;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected NearestMisses<T> compute() {
+            if (to - from <= CANDIDATES_PER_TASK) {
+                return nearestIn(candidates, matcher, from, to);
             }
-        }), allMappings.size());
+
+            int middle = (from + to) >>> 1;
+            NearestTask<T> second = new NearestTask<>(candidates, matcher, middle, to);
+            second.fork();
+            NearestMisses<T> nearest = new NearestTask<>(candidates, matcher, from, middle).compute();
+            nearest.addAll(second.join());
+            return nearest;
+        }
     }
 
-    public List<NearMiss> findNearestTo(final RequestPattern requestPattern) {
-        List<ServeEvent> serveEvents = requestJournal.getAllServeEvents();
-        return sortAndTruncate(from(serveEvents).transform(new Function<ServeEvent, NearMiss>() {
-            public NearMiss apply(ServeEvent serveEvent) {
-                MatchResult matchResult = requestPattern.match(serveEvent.getRequest());
-                return new NearMiss(serveEvent.getRequest(), requestPattern, matchResult);
+    private static class NearestToEachTask extends RecursiveTask<List<NearMiss>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<LoggedRequest> requests;
+        private final List<StubMapping> stubMappings;
+        private final int from;
+        private final int to;
+
+        NearestToEachTask(List<LoggedRequest> requests, List<StubMapping> stubMappings, int from, int to) {
+            this.requests = requests;
+            this.stubMappings = stubMappings;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<NearMiss> compute() {
+            if (to - from <= REQUESTS_PER_TASK) {
+                List<NearMiss> nearMisses = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    StubCandidates matcher = new StubCandidates(requests.get(i));
+                    nearMisses.addAll(nearestIn(stubMappings, matcher, 0, stubMappings.size()).toNearMisses(matcher));
+                }
+                return nearMisses;
             }
-        }), serveEvents.size());
+
+            int middle = (from + to) >>> 1;
+            NearestToEachTask second = new NearestToEachTask(requests, stubMappings, middle, to);
+            second.fork();
+            List<NearMiss> nearMisses = new NearestToEachTask(requests, stubMappings, from, middle).compute();
+            nearMisses.addAll(second.join());
+            return nearMisses;
+        }
     }
 
-    private static List<NearMiss> sortAndTruncate(FluentIterable<NearMiss> nearMisses, int originalSize) {
-        return nearMisses
-            .toSortedList(NEAR_MISS_ASCENDING_COMPARATOR)
-            .subList(0, min(NEAR_MISS_COUNT, originalSize));
+    /**
+     * The nearest few candidates offered, kept in a heap with the furthest on top so that any further away than
+     * all of them can be discarded as soon as that's known. Candidates the same distance away are ordered by
+     * position, as a stable sort would leave them.
+     */
+    private static class NearestMisses<T> {
+
+        private final int count;
+        private final PriorityQueue<Entry<T>> heap;
+
+        NearestMisses(int count) {
+            this.count = count;
+            heap = new PriorityQueue<>(count + 1, Collections.reverseOrder(NEAREST_FIRST));
+        }
+
+        void offer(int index, T candidate, MatchResult matchResult) {
+            if (heap.size() < count) {
+                heap.add(new Entry<>(index, candidate, matchResult, matchResult.getDistance()));
+                return;
+            }
+
+            Entry<T> furthest = heap.peek();
+            double distance = matchResult.getDistanceBelow(furthest.distance);
+            if (distance < furthest.distance) {
+                heap.poll();
+                heap.add(new Entry<>(index, candidate, matchResult, distance));
+            }
+        }
+
+        void addAll(NearestMisses<T> other) {
+            for (Entry<T> entry: other.heap) {
+                if (heap.size() < count) {
+                    heap.add(entry);
+                } else if (NEAREST_FIRST.compare(entry, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(entry);
+                }
+            }
+        }
+
+        List<NearMiss> toNearMisses(Candidates<T> matcher) {
+            List<Entry<T>> entries = new ArrayList<>(heap);
+            Collections.sort(entries, NEAREST_FIRST);
+
+            List<NearMiss> nearMisses = new ArrayList<>(entries.size());
+            for (Entry<T> entry: entries) {
+                nearMisses.add(matcher.nearMiss(entry.candidate, entry.matchResult));
+            }
+            return nearMisses;
+        }
     }
 
+    private static final Comparator<Entry<?>> NEAREST_FIRST = new Comparator<Entry<?>>() {
+        @Override
+        public int compare(Entry<?> one, Entry<?> other) {
+            int byDistance = Double.compare(one.distance, other.distance);
+            return byDistance != 0 ? byDistance : Integer.compare(one.index, other.index);
+        }
+    };
 
+    private static class Entry<T> {
+
+        final int index;
+        final T candidate;
+        final MatchResult matchResult;
+        final double distance;
+
+        Entry(int index, T candidate, MatchResult matchResult, double distance) {
+            this.index = index;
+            this.candidate = candidate;
+            this.matchResult = matchResult;
+            this.distance = distance;
+        }
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification;
+
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.matching.EqualToPattern;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+import com.github.tomakehurst.wiremock.matching.UrlPathPattern;
+import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static com.google.common.collect.Iterables.filter;
+import static com.google.common.collect.Iterables.transform;
+
+/**
+ * Secondary indexes over a request journal's serve events, by exact URL, URL path and method, so that
+ * verification only needs to evaluate the entries that could possibly match. Buckets hold their serve
+ * events oldest first, as the journals do.
+ */
+class RequestJournalIndex {
+
+    private static final Map<String, RequestMatcherExtension> NO_CUSTOM_MATCHERS = Collections.emptyMap();
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    void add(ServeEvent serveEvent) {
+        LoggedRequest request = serveEvent.getRequest();
+        addTo(urlKey(request.getUrl()), serveEvent);
+        addTo(methodKey(request.getMethod()), serveEvent);
+
+        String path = pathOf(request.getUrl());
+        if (path != null) {
+            addTo(pathKey(path), serveEvent);
+        }
+    }
+
+    void remove(ServeEvent serveEvent) {
+        LoggedRequest request = serveEvent.getRequest();
+        removeFrom(urlKey(request.getUrl()), serveEvent);
+        removeFrom(methodKey(request.getMethod()), serveEvent);
+
+        String path = pathOf(request.getUrl());
+        if (path != null) {
+            removeFrom(pathKey(path), serveEvent);
+        }
+    }
+
+    void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * Returns the requests matching the pattern, taking candidates from the narrowest applicable index
+     * and falling back to <code>allServeEvents</code> when the pattern has no exact URL, URL path or method.
+     */
+    Iterable<LoggedRequest> requestsMatching(final RequestPattern requestPattern, Iterable<ServeEvent> allServeEvents) {
+        Iterable<ServeEvent> candidates = allServeEvents;
+        Predicate<LoggedRequest> predicate = matchedBy(requestPattern);
+
+        UrlPattern urlPattern = requestPattern.getUrlMatcher();
+        String exactUrl = caseSensitiveEqualToValueOf(urlPattern.getPattern());
+        if (exactUrl != null && urlPattern.getClass() == UrlPattern.class) {
+            candidates = bucket(urlKey(exactUrl));
+            if (isMethodAndUrlOnly(requestPattern)) {
+                // The bucket already guarantees the URL, so only the method is left to check
+                predicate = methodMatchedBy(requestPattern.getMethod());
+            }
+        } else if (exactUrl != null && urlPattern.getClass() == UrlPathPattern.class) {
+            candidates = bucket(pathKey(exactUrl));
+        } else if (!RequestMethod.ANY.equals(requestPattern.getMethod())) {
+            candidates = bucket(methodKey(requestPattern.getMethod()));
+        }
+
+        return filter(transform(candidates, TO_REQUEST), predicate);
+    }
+
+    private void addTo(String key, ServeEvent serveEvent) {
+        while (true) {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                Bucket newBucket = new Bucket();
+                bucket = buckets.putIfAbsent(key, newBucket);
+                bucket = bucket != null ? bucket : newBucket;
+            }
+
+            synchronized (bucket) {
+                if (!bucket.retired) {
+                    bucket.serveEvents.add(serveEvent);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void removeFrom(String key, ServeEvent serveEvent) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+
+        synchronized (bucket) {
+            if (bucket.serveEvents.remove(serveEvent) && bucket.serveEvents.isEmpty()) {
+                bucket.retired = true;
+                buckets.remove(key, bucket);
+            }
+        }
+    }
+
+    private Iterable<ServeEvent> bucket(String key) {
+        Bucket bucket = buckets.get(key);
+        return bucket != null ? bucket.serveEvents : Collections.<ServeEvent>emptyList();
+    }
+
+    private static boolean isMethodAndUrlOnly(RequestPattern requestPattern) {
+        return isNullOrEmpty(requestPattern.getHeaders()) &&
+            isNullOrEmpty(requestPattern.getQueryParameters()) &&
+            isNullOrEmpty(requestPattern.getCookies()) &&
+            requestPattern.getBasicAuthCredentials() == null &&
+            (requestPattern.getBodyPatterns() == null || requestPattern.getBodyPatterns().isEmpty()) &&
+            (requestPattern.getMultipartPatterns() == null || requestPattern.getMultipartPatterns().isEmpty()) &&
+            !requestPattern.hasCustomMatcher();
+    }
+
+    private static boolean isNullOrEmpty(Map<?, ?> map) {
+        return map == null || map.isEmpty();
+    }
+
+    private static String caseSensitiveEqualToValueOf(StringValuePattern pattern) {
+        if (pattern.getClass() != EqualToPattern.class) {
+            return null;
+        }
+
+        Boolean caseInsensitive = ((EqualToPattern) pattern).getCaseInsensitive();
+        return caseInsensitive == null || !caseInsensitive ? pattern.getValue() : null;
+    }
+
+    private static String pathOf(String url) {
+        try {
+            return url != null ? URI.create(url).getRawPath() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String urlKey(String url) {
+        return "url:" + url;
+    }
+
+    private static String pathKey(String path) {
+        return "path:" + path;
+    }
+
+    private static String methodKey(RequestMethod method) {
+        return "method:" + method;
+    }
+
+    private static Predicate<LoggedRequest> matchedBy(final RequestPattern requestPattern) {
+        return new Predicate<LoggedRequest>() {
+            public boolean apply(LoggedRequest input) {
+                return requestPattern.isMatchedBy(input, NO_CUSTOM_MATCHERS);
+            }
+        };
+    }
+
+    private static Predicate<LoggedRequest> methodMatchedBy(final RequestMethod method) {
+        return new Predicate<LoggedRequest>() {
+            public boolean apply(LoggedRequest input) {
+                return method.match(input.getMethod()).isExactMatch();
+            }
+        };
+    }
+
+    private static final Function<ServeEvent, LoggedRequest> TO_REQUEST = new Function<ServeEvent, LoggedRequest>() {
+        public LoggedRequest apply(ServeEvent input) {
+            return input.getRequest();
+        }
+    };
+
+    private static class Bucket {
+        final ConcurrentLinkedQueue<ServeEvent> serveEvents = new ConcurrentLinkedQueue<>();
+        boolean retired;
+    }
+}
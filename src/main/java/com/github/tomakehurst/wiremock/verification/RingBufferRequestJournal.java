@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification;
+
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.google.common.collect.Iterables.*;
+import static com.google.common.collect.Lists.reverse;
+
+/**
+ * A fixed capacity journal for when a maximum number of entries has been set. Appending claims the next
+ * sequence number and writes into that slot, overwriting the oldest entry, so both append and eviction
+ * are constant time and lock free. Readers walk backwards from the newest sequence number without copying,
+ * skipping any slot that has been overwritten or not yet written. Entries overwritten on eviction are also
+ * dropped from the {@link RequestJournalIndex} used for verification.
+ */
+public class RingBufferRequestJournal implements RequestJournal {
+
+    private final int capacity;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final RequestJournalIndex index = new RequestJournalIndex();
+    private volatile Slots slots;
+
+    public RingBufferRequestJournal(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Maximum number of entries of journal must be greater than zero");
+        }
+
+        this.capacity = capacity;
+        this.slots = new Slots(capacity, 0);
+    }
+
+    @Override
+    public int countRequestsMatching(RequestPattern requestPattern) {
+        return size(index.requestsMatching(requestPattern, oldestFirst()));
+    }
+
+    @Override
+    public List<LoggedRequest> getRequestsMatching(RequestPattern requestPattern) {
+        return ImmutableList.copyOf(index.requestsMatching(requestPattern, oldestFirst()));
+    }
+
+    @Override
+    public void requestReceived(ServeEvent serveEvent) {
+        if (capacity == 0) {
+            return;
+        }
+
+        long sequence = nextSequence.getAndIncrement();
+        index.add(serveEvent);
+        ServeEvent evicted = slots.set(sequence, serveEvent);
+        if (evicted != null) {
+            index.remove(evicted);
+        }
+    }
+
+    @Override
+    public List<ServeEvent> getAllServeEvents() {
+        return ImmutableList.copyOf(newestFirst());
+    }
+
+    @Override
+    public Optional<ServeEvent> getServeEvent(final UUID id) {
+        return tryFind(newestFirst(), new Predicate<ServeEvent>() {
+            @Override
+            public boolean apply(ServeEvent input) {
+                return input.getId().equals(id);
+            }
+        });
+    }
+
+    /**
+     * The serve events received after the given one, oldest first, found by walking back from the newest entry so
+     * only the entries after it are visited. Entries are only overwritten oldest first, or all dropped on a reset, so
+     * if the given one has gone every entry still here came after it and all of them are returned. They are too if
+     * it's null.
+     */
+    public Iterable<ServeEvent> getServeEventsAfter(final ServeEvent lastSeen) {
+        return new Iterable<ServeEvent>() {
+            @Override
+            public Iterator<ServeEvent> iterator() {
+                if (lastSeen != null) {
+                    List<ServeEvent> newer = new ArrayList<>();
+                    for (ServeEvent serveEvent : newestFirst()) {
+                        if (serveEvent == lastSeen) {
+                            return reverse(newer).iterator();
+                        }
+                        newer.add(serveEvent);
+                    }
+                }
+
+                return oldestFirst().iterator();
+            }
+        };
+    }
+
+    @Override
+    public void reset() {
+        slots = new Slots(capacity, nextSequence.get());
+        index.clear();
+    }
+
+    private Iterable<ServeEvent> newestFirst() {
+        return inOrder(true);
+    }
+
+    private Iterable<ServeEvent> oldestFirst() {
+        return inOrder(false);
+    }
+
+    private Iterable<ServeEvent> inOrder(final boolean newestFirst) {
+        return new Iterable<ServeEvent>() {
+            @Override
+            public Iterator<ServeEvent> iterator() {
+                final Slots current = slots;
+                final long newest = nextSequence.get() - 1;
+                final long oldest = Math.max(current.firstSequence, newest - capacity + 1);
+
+                return new AbstractIterator<ServeEvent>() {
+                    private long sequence = newestFirst ? newest : oldest;
+
+                    @Override
+                    protected ServeEvent computeNext() {
+                        while (sequence >= oldest && sequence <= newest) {
+                            ServeEvent serveEvent = current.get(sequence);
+                            sequence += newestFirst ? -1 : 1;
+                            if (serveEvent != null) {
+                                return serveEvent;
+                            }
+                        }
+
+                        return endOfData();
+                    }
+                };
+            }
+        };
+    }
+
+    private static class Slots {
+
+        private final AtomicReferenceArray<Entry> entries;
+        private final long firstSequence;
+
+        Slots(int capacity, long firstSequence) {
+            this.entries = new AtomicReferenceArray<>(capacity);
+            this.firstSequence = firstSequence;
+        }
+
+        /**
+         * Writes the serve event into its slot and returns whichever event was evicted as a result. If a writer
+         * for a later lap of the buffer has already filled the slot then this event is the one evicted.
+         */
+        ServeEvent set(long sequence, ServeEvent serveEvent) {
+            int index = indexOf(sequence);
+            Entry entry = new Entry(sequence, serveEvent);
+            while (true) {
+                Entry previous = entries.get(index);
+                if (previous != null && previous.sequence > sequence) {
+                    return serveEvent;
+                }
+
+                if (entries.compareAndSet(index, previous, entry)) {
+                    return previous != null ? previous.serveEvent : null;
+                }
+            }
+        }
+
+        ServeEvent get(long sequence) {
+            Entry entry = entries.get(indexOf(sequence));
+            return entry != null && entry.sequence == sequence ? entry.serveEvent : null;
+        }
+
+        private int indexOf(long sequence) {
+            return (int) (sequence % entries.length());
+        }
+    }
+
+    private static class Entry {
+
+        final long sequence;
+        final ServeEvent serveEvent;
+
+        Entry(long sequence, ServeEvent serveEvent) {
+            this.sequence = sequence;
+            this.serveEvent = serveEvent;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.common.UnmatchedRequestReportingSettings;
+import com.github.tomakehurst.wiremock.verification.diff.PlainTextDiffRenderer;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Reports requests no stub matched to the notifier, with a diff against the nearest stub. Finding that stub means
+ * matching the request against every one, so when configured to, this is done on a single background thread rather
+ * than holding up the response, and only up to a given number of requests a second are diffed. Requests that aren't,
+ * because of the limit or because too many are waiting to be diffed, are counted and the count included in the next
+ * report.
+ */
+public class UnmatchedRequestReporter {
+
+    private static final int MAX_WAITING_REPORTS = 1000;
+
+    private final NearMissCalculator nearMissCalculator;
+    private final PlainTextDiffRenderer diffRenderer;
+    private final ExecutorService executor;
+    private final RateLimiter rateLimiter;
+    private final AtomicLong unreportedCount = new AtomicLong();
+
+    public UnmatchedRequestReporter(NearMissCalculator nearMissCalculator,
+                                    PlainTextDiffRenderer diffRenderer,
+                                    UnmatchedRequestReportingSettings settings) {
+        this.nearMissCalculator = nearMissCalculator;
+        this.diffRenderer = diffRenderer;
+        executor = settings.isAsynchronous() ? reportingExecutor() : null;
+        rateLimiter = settings.getMaxReportsPerSecond() > 0 ? RateLimiter.create(settings.getMaxReportsPerSecond()) : null;
+    }
+
+    public void report(final LoggedRequest request) {
+        if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+            unreportedCount.incrementAndGet();
+            return;
+        }
+
+        final Notifier notifier = notifier();
+        if (executor == null) {
+            notifier.error(describe(request));
+            return;
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    notifier.error(describe(request));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            unreportedCount.incrementAndGet();
+        }
+    }
+
+    private String describe(LoggedRequest request) {
+        List<NearMiss> nearest = nearMissCalculator.findNearestTo(request);
+        String message;
+        if (!nearest.isEmpty()) {
+            message = diffRenderer.render(nearest.get(0).getDiff());
+        } else {
+            message = "Request was not matched as there were no stubs registered:\n" + request;
+        }
+
+        long unreported = unreportedCount.getAndSet(0);
+        if (unreported > 0) {
+            message += "\n" + unreported + " other unmatched requests since the last report were not diffed";
+        }
+
+        return message;
+    }
+
+    private static ExecutorService reportingExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1,
+            10, SECONDS,
+            new ArrayBlockingQueue<Runnable>(MAX_WAITING_REPORTS),
+            new ThreadFactoryBuilder().setNameFormat("wiremock-unmatched-request-reporter").setDaemon(true).build()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
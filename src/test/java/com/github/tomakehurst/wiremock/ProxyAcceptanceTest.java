@@ -19,32 +19,57 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.github.tomakehurst.wiremock.admin.model.GetProxyConnectionPoolStatsResult;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.client.WireMockBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
+import com.github.tomakehurst.wiremock.http.HttpClientFactory;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
 import com.github.tomakehurst.wiremock.testsupport.TestHttpHeader;
 import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
 import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.hamcrest.Matchers;
 import org.junit.After;
 import org.junit.Test;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.testsupport.Network.findFreePort;
 import static com.github.tomakehurst.wiremock.testsupport.TestHttpHeader.withHeader;
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
@@ -53,6 +78,7 @@ import static org.apache.http.entity.ContentType.TEXT_PLAIN;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 
@@ -479,6 +505,210 @@ public class ProxyAcceptanceTest {
         assertThat(stopwatch.elapsed(MILLISECONDS), greaterThanOrEqualTo(300L));
     }
 
+    @Test
+    public void streamsProxiedResponseBodiesAsTheyArriveWhenEnabled() throws Exception {
+        init(wireMockConfig().streamProxyResponses(true));
+
+        final CountDownLatch firstPartReceived = new CountDownLatch(1);
+        final AtomicBoolean sentRestAfterFirstPartReceived = new AtomicBoolean(false);
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/streamed", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream out = exchange.getResponseBody();
+                out.write("first part\n".getBytes());
+                out.flush();
+                try {
+                    sentRestAfterFirstPartReceived.set(firstPartReceived.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write("second part".getBytes());
+                out.close();
+            }
+        });
+        server.start();
+
+        try {
+            proxyingServiceAdmin.register(get(urlEqualTo("/streamed"))
+                .willReturn(aResponse().proxiedFrom("http://localhost:" + server.getAddress().getPort())));
+
+            CloseableHttpClient client = HttpClientFactory.createClient();
+            try (CloseableHttpResponse response = client.execute(new HttpGet("http://localhost:" + proxyingService.port() + "/streamed"))) {
+                InputStream body = response.getEntity().getContent();
+                byte[] firstPart = new byte["first part\n".length()];
+                ByteStreams.readFully(body, firstPart);
+                firstPartReceived.countDown();
+
+                assertThat(new String(firstPart) + new String(ByteStreams.toByteArray(body)), is("first part\nsecond part"));
+            }
+
+            assertThat(sentRestAfterFirstPartReceived.get(), is(true));
+            assertThat(proxyingService.getAllServeEvents().get(0).getResponse().getBodyAsString(), is("first part\nsecond part"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void keepsOnlyTheConfiguredAmountOfAStreamedBodyInTheJournal() {
+        init(wireMockConfig().streamProxyResponses(true).proxyStreamBufferBytes(10));
+
+        String body = Strings.repeat("0123456789", 10000);
+        targetServiceAdmin.register(get(urlEqualTo("/large")).willReturn(aResponse().withStatus(200).withBody(body)));
+        proxyingServiceAdmin.register(get(urlEqualTo("/large")).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        WireMockResponse response = testClient.get("/large");
+
+        assertThat(response.content(), is(body));
+        assertThat(proxyingService.getAllServeEvents().get(0).getResponse().getBodyAsString(), is("0123456789"));
+    }
+
+    @Test
+    public void readsStreamedBodiesInFullWhenAResponseTransformerNeedsThem() {
+        init(wireMockConfig().streamProxyResponses(true).proxyStreamBufferBytes(10).extensions(new ResponseTransformer() {
+            @Override
+            public Response transform(Request request, Response response, FileSource files, Parameters parameters) {
+                return Response.Builder.like(response).but().body(response.getBodyAsString().toUpperCase()).build();
+            }
+
+            @Override
+            public String getName() {
+                return "upper-case";
+            }
+        }));
+
+        targetServiceAdmin.register(get(urlEqualTo("/transformed")).willReturn(aResponse().withStatus(200).withBody("streamed and transformed")));
+        proxyingServiceAdmin.register(get(urlEqualTo("/transformed")).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        assertThat(testClient.get("/transformed").content(), is("STREAMED AND TRANSFORMED"));
+        assertThat(testClient.get("/transformed").content(), is("STREAMED AND TRANSFORMED"));
+    }
+
+    @Test
+    public void proxiesManyConcurrentRequestsToOneTargetAtOnce() throws Exception {
+        final int concurrentRequests = 12;
+        init(wireMockConfig().containerThreads(concurrentRequests + 10));
+
+        millisToProxySlowRequestsConcurrently(concurrentRequests);
+
+        assertThat(proxyingServiceAdmin.getProxyConnectionPool().getPeakLeased(), is(concurrentRequests));
+    }
+
+    @Test
+    public void proxiesMoreConcurrentRequestsThanThereAreContainerThreadsWhenAsynchronous() throws Exception {
+        init(wireMockConfig().containerThreads(10).asynchronousProxyEnabled(true));
+
+        assertThat(millisToProxySlowRequestsConcurrently(12), lessThan(1000L));
+    }
+
+    @Test
+    public void proxiesAsynchronouslyAfterTheServerIsRestarted() {
+        init(wireMockConfig().asynchronousProxyEnabled(true));
+        register200StubOnProxyAndTarget("/restarted");
+        assertThat(testClient.get("/restarted").statusCode(), is(200));
+
+        proxyingService.stop();
+        proxyingService.start();
+
+        assertThat(new WireMockTestClient(proxyingService.port()).get("/restarted").statusCode(), is(200));
+    }
+
+    @Test
+    public void closesTheProxyConnectionPoolWhenTheServerIsStopped() throws Exception {
+        Set<Thread> evictorsAlreadyRunning = connectionEvictorThreads();
+        init(wireMockConfig().proxyMaxIdleTime(60000));
+        register200StubOnProxyAndTarget("/pooled");
+        testClient.get("/pooled");
+        assertThat(proxyingServiceAdmin.getProxyConnectionPool().getTotal().getAvailable(), is(1));
+        Set<Thread> evictors = Sets.difference(connectionEvictorThreads(), evictorsAlreadyRunning);
+        assertThat(evictors.isEmpty(), is(false));
+
+        proxyingService.stop();
+
+        for (Thread evictor: evictors) {
+            evictor.join(5000);
+            assertThat(evictor.isAlive(), is(false));
+        }
+
+        proxyingService.start();
+        assertThat(new WireMockTestClient(proxyingService.port()).get("/pooled").statusCode(), is(200));
+    }
+
+    private static Set<Thread> connectionEvictorThreads() {
+        Set<Thread> evictors = new HashSet<>();
+        for (Thread thread: Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("Connection evictor")) {
+                evictors.add(thread);
+            }
+        }
+        return evictors;
+    }
+
+    @Test
+    public void returnsAServerErrorWhenAnAsynchronousProxyRequestFails() throws Exception {
+        init(wireMockConfig().asynchronousProxyEnabled(true));
+
+        int unusedPort = findFreePort();
+        proxyingServiceAdmin.register(get(urlEqualTo("/unreachable")).willReturn(aResponse().proxiedFrom("http://localhost:" + unusedPort)));
+
+        assertThat(testClient.get("/unreachable").statusCode(), is(500));
+    }
+
+    private long millisToProxySlowRequestsConcurrently(int concurrentRequests) throws Exception {
+        targetServiceAdmin.register(get(urlEqualTo("/slow")).willReturn(aResponse().withStatus(200).withFixedDelay(500)));
+        proxyingServiceAdmin.register(get(urlEqualTo("/slow")).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        final CloseableHttpClient client = HttpClientBuilder.create()
+            .setMaxConnPerRoute(concurrentRequests)
+            .setMaxConnTotal(concurrentRequests)
+            .build();
+        List<Callable<Integer>> requests = new ArrayList<>();
+        for (int i = 0; i < concurrentRequests; i++) {
+            requests.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    try (CloseableHttpResponse response = client.execute(new HttpGet("http://localhost:" + proxyingService.port() + "/slow"))) {
+                        return response.getStatusLine().getStatusCode();
+                    }
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrentRequests);
+        try {
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            for (Future<Integer> status: executor.invokeAll(requests)) {
+                assertThat(status.get(), is(200));
+            }
+
+            return stopwatch.elapsed(MILLISECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void reportsProxyConnectionPoolStatsViaTheAdminApi() {
+        init(wireMockConfig().proxyMaxConnections(20).proxyMaxConnectionsPerRoute(10));
+
+        register200StubOnProxyAndTarget("/pooled");
+        testClient.get("/pooled");
+
+        GetProxyConnectionPoolStatsResult stats = proxyingServiceAdmin.getProxyConnectionPool();
+
+        assertThat(stats.getTotal().getMax(), is(20));
+        assertThat(stats.getTotal().getLeased(), is(0));
+        assertThat(stats.getTotal().getAvailable(), is(1));
+        assertThat(stats.getPeakLeased(), is(1));
+        assertThat(stats.getRoutes().size(), is(1));
+        assertThat(stats.getRoutes().get(0).getRoute(), is(targetServiceBaseUrl));
+        assertThat(stats.getRoutes().get(0).getMax(), is(10));
+        assertThat(stats.getRoutes().get(0).getAvailable(), is(1));
+        assertThat(stats.getRoutes().get(0).getPending(), is(0));
+    }
+
     private void register200StubOnProxyAndTarget(String url) {
         targetServiceAdmin.register(get(urlEqualTo(url)).willReturn(aResponse().withStatus(200)));
         proxyingServiceAdmin.register(get(urlEqualTo(url)).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
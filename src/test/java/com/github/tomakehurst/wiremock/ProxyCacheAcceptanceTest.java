@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.admin.model.GetProxyCacheResult;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import com.google.common.base.Strings;
+import org.junit.After;
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.testsupport.TestHttpHeader.withHeader;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+public class ProxyCacheAcceptanceTest {
+
+    private String targetServiceBaseUrl;
+
+    private WireMockServer targetService;
+    private WireMock targetServiceAdmin;
+
+    private WireMockServer proxyingService;
+    private WireMock proxyingServiceAdmin;
+
+    private WireMockTestClient testClient;
+
+    private void init(WireMockConfiguration proxyingServiceOptions) {
+        targetService = new WireMockServer(wireMockConfig().dynamicPort());
+        targetService.start();
+        targetServiceAdmin = WireMock.create().port(targetService.port()).build();
+        targetServiceBaseUrl = "http://localhost:" + targetService.port();
+
+        proxyingService = new WireMockServer(proxyingServiceOptions.dynamicPort());
+        proxyingService.start();
+        proxyingServiceAdmin = WireMock.create().port(proxyingService.port()).build();
+        proxyingServiceAdmin.register(any(anyUrl()).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        testClient = new WireMockTestClient(proxyingService.port());
+    }
+
+    @After
+    public void stop() {
+        targetService.stop();
+        proxyingService.stop();
+    }
+
+    @Test
+    public void servesAFreshResponseFromTheCacheWithoutAskingTheTarget() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        targetServiceAdmin.register(get("/cacheable").willReturn(ok("Cached content").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/cacheable");
+        WireMockResponse response = testClient.get("/cacheable");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), is("Cached content"));
+        assertThat(response.firstHeader("Age"), notNullValue());
+        targetServiceAdmin.verifyThat(1, getRequestedFor(urlEqualTo("/cacheable")));
+    }
+
+    @Test
+    public void doesNotCacheWhenTheCacheIsNotEnabled() {
+        init(wireMockConfig());
+        targetServiceAdmin.register(get("/cacheable").willReturn(ok("Content").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/cacheable");
+        testClient.get("/cacheable");
+
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/cacheable")));
+    }
+
+    @Test
+    public void doesNotCacheResponsesThatForbidIt() {
+        init(wireMockConfig().proxyCacheEnabled(true).proxyCacheDefaultTtl(60));
+        targetServiceAdmin.register(get("/no-store").willReturn(ok("Content").withHeader("Cache-Control", "no-store")));
+        targetServiceAdmin.register(get("/private").willReturn(ok("Content").withHeader("Cache-Control", "private, max-age=60")));
+        targetServiceAdmin.register(get("/error").willReturn(serverError().withHeader("Cache-Control", "max-age=60")));
+
+        for (String url: new String[] { "/no-store", "/private", "/error" }) {
+            testClient.get(url);
+            testClient.get(url);
+
+            targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo(url)));
+        }
+    }
+
+    @Test
+    public void cachesResponsesWithoutFreshnessInformationForTheDefaultTtl() {
+        init(wireMockConfig().proxyCacheEnabled(true).proxyCacheDefaultTtl(60));
+        targetServiceAdmin.register(get("/plain").willReturn(ok("Content")));
+
+        testClient.get("/plain");
+        testClient.get("/plain");
+
+        targetServiceAdmin.verifyThat(1, getRequestedFor(urlEqualTo("/plain")));
+    }
+
+    @Test
+    public void servesAStaleResponseTheTargetConfirmsIsStillCurrent() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        targetServiceAdmin.register(get("/etag")
+            .willReturn(ok("Versioned content").withHeader("ETag", "\"v1\"").withHeader("Cache-Control", "no-cache")));
+        targetServiceAdmin.register(get("/etag").withHeader("If-None-Match", equalTo("\"v1\""))
+            .willReturn(aResponse().withStatus(304).withHeader("ETag", "\"v1\"")));
+
+        testClient.get("/etag");
+        WireMockResponse response = testClient.get("/etag");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), is("Versioned content"));
+        targetServiceAdmin.verifyThat(1, getRequestedFor(urlEqualTo("/etag")).withHeader("If-None-Match", equalTo("\"v1\"")));
+        assertThat(proxyingServiceAdmin.getProxyCacheContents().getRevalidations(), is(1L));
+    }
+
+    @Test
+    public void replacesAStaleResponseWhenTheTargetSendsANewOne() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        targetServiceAdmin.register(get("/etag")
+            .willReturn(ok("First version").withHeader("ETag", "\"v1\"").withHeader("Cache-Control", "no-cache")));
+
+        testClient.get("/etag");
+        targetServiceAdmin.register(get("/etag")
+            .willReturn(ok("Second version").withHeader("ETag", "\"v2\"").withHeader("Cache-Control", "max-age=60")));
+
+        assertThat(testClient.get("/etag").content(), is("Second version"));
+        assertThat(testClient.get("/etag").content(), is("Second version"));
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/etag")));
+    }
+
+    @Test
+    public void countsTheAgeTheTargetGivesTowardsTheResponsesFreshness() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        targetServiceAdmin.register(get("/aged").willReturn(ok("Content")
+            .withHeader("Cache-Control", "max-age=60")
+            .withHeader("Age", "100")));
+
+        testClient.get("/aged");
+        testClient.get("/aged");
+
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/aged")));
+    }
+
+    @Test
+    public void replacesTheAgeTheTargetGaveWithTheCurrentAge() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        targetServiceAdmin.register(get("/aged").willReturn(ok("Content")
+            .withHeader("Cache-Control", "max-age=600")
+            .withHeader("Age", "100")));
+
+        testClient.get("/aged");
+        WireMockResponse response = testClient.get("/aged");
+
+        assertThat(response.headers().get("Age").size(), is(1));
+        assertThat(Integer.parseInt(response.firstHeader("Age")), greaterThanOrEqualTo(100));
+        targetServiceAdmin.verifyThat(1, getRequestedFor(urlEqualTo("/aged")));
+    }
+
+    @Test
+    public void doesNotShareCachedResponsesBetweenStubsAddingDifferentRequestHeaders() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        proxyingServiceAdmin.register(get("/tenant").withHeader("X-Route", equalTo("a")).willReturn(
+            aResponse().proxiedFrom(targetServiceBaseUrl).withAdditionalRequestHeader("X-Tenant", "a")));
+        proxyingServiceAdmin.register(get("/tenant").withHeader("X-Route", equalTo("b")).willReturn(
+            aResponse().proxiedFrom(targetServiceBaseUrl).withAdditionalRequestHeader("X-Tenant", "b")));
+        targetServiceAdmin.register(get("/tenant").withHeader("X-Tenant", equalTo("a"))
+            .willReturn(ok("Tenant A").withHeader("Cache-Control", "max-age=60")));
+        targetServiceAdmin.register(get("/tenant").withHeader("X-Tenant", equalTo("b"))
+            .willReturn(ok("Tenant B").withHeader("Cache-Control", "max-age=60")));
+
+        assertThat(testClient.get("/tenant", withHeader("X-Route", "a")).content(), is("Tenant A"));
+        assertThat(testClient.get("/tenant", withHeader("X-Route", "b")).content(), is("Tenant B"));
+        assertThat(testClient.get("/tenant", withHeader("X-Route", "a")).content(), is("Tenant A"));
+
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/tenant")));
+    }
+
+    @Test
+    public void distinguishesCachedResponsesByTheConfiguredKeyHeaders() {
+        init(wireMockConfig().proxyCacheEnabled(true).proxyCacheKeyHeaders("Accept-Language"));
+        targetServiceAdmin.register(get("/greeting").withHeader("Accept-Language", equalTo("fr"))
+            .willReturn(ok("Bonjour").withHeader("Cache-Control", "max-age=60")));
+        targetServiceAdmin.register(get("/greeting").withHeader("Accept-Language", equalTo("en"))
+            .willReturn(ok("Hello").withHeader("Cache-Control", "max-age=60")));
+
+        assertThat(testClient.get("/greeting", withHeader("Accept-Language", "fr")).content(), is("Bonjour"));
+        assertThat(testClient.get("/greeting", withHeader("Accept-Language", "en")).content(), is("Hello"));
+        assertThat(testClient.get("/greeting", withHeader("Accept-Language", "fr")).content(), is("Bonjour"));
+
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/greeting")));
+    }
+
+    @Test
+    public void onlyServesACachedResponseToRequestsItDoesNotVaryFrom() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        targetServiceAdmin.register(get("/varies").willReturn(ok("Content")
+            .withHeader("Cache-Control", "max-age=60")
+            .withHeader("Vary", "X-Variant")));
+
+        testClient.get("/varies", withHeader("X-Variant", "a"));
+        testClient.get("/varies", withHeader("X-Variant", "b"));
+        testClient.get("/varies", withHeader("X-Variant", "b"));
+
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/varies")));
+    }
+
+    @Test
+    public void doesNotServeACachedResponseAfterAnUnsafeRequestToTheSameUrl() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        targetServiceAdmin.register(any(urlEqualTo("/resource")).willReturn(ok("Content").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/resource");
+        testClient.postWithBody("/resource", "change", "text/plain", "utf-8");
+        testClient.get("/resource");
+
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/resource")));
+    }
+
+    @Test
+    public void evictsResponsesOnceTheMemoryBoundIsReached() {
+        init(wireMockConfig().proxyCacheEnabled(true).proxyCacheMaxBytes(1500));
+        String body = Strings.repeat("x", 1000);
+        targetServiceAdmin.register(get(urlPathMatching("/large/.*")).willReturn(ok(body).withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/large/1");
+        testClient.get("/large/2");
+        testClient.get("/large/3");
+
+        GetProxyCacheResult cache = proxyingServiceAdmin.getProxyCacheContents();
+        assertThat(cache.getEntries().size(), is(1));
+        assertThat(cache.getEntries().get(0).getUrl(), is(targetServiceBaseUrl + "/large/3"));
+    }
+
+    @Test
+    public void listsAndPurgesTheCacheViaTheAdminApi() {
+        init(wireMockConfig().proxyCacheEnabled(true));
+        targetServiceAdmin.register(get("/cacheable").willReturn(ok("Cached content").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/cacheable");
+        testClient.get("/cacheable");
+
+        GetProxyCacheResult cache = proxyingServiceAdmin.getProxyCacheContents();
+        assertThat(cache.getEntries().size(), is(1));
+        assertThat(cache.getEntries().get(0).getMethod(), is("GET"));
+        assertThat(cache.getEntries().get(0).getUrl(), is(targetServiceBaseUrl + "/cacheable"));
+        assertThat(cache.getEntries().get(0).getStatus(), is(200));
+        assertThat(cache.getEntries().get(0).getSizeBytes(), is(14));
+        assertThat(cache.getEntries().get(0).getTtlSeconds(), is(60L));
+        assertThat(cache.getSizeBytes(), is(14L));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+
+        proxyingServiceAdmin.purgeProxyCacheContents();
+        assertThat(proxyingServiceAdmin.getProxyCacheContents().getEntries().size(), is(0));
+
+        testClient.get("/cacheable");
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/cacheable")));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.testsupport.TestHttpHeader;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.testsupport.TestHttpHeader.withHeader;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ProxyRequestCoalescingAcceptanceTest {
+
+    private static final int CONCURRENT_REQUESTS = 5;
+
+    private String targetServiceBaseUrl;
+
+    private WireMockServer targetService;
+    private WireMock targetServiceAdmin;
+
+    private WireMockServer proxyingService;
+    private WireMock proxyingServiceAdmin;
+
+    private WireMockTestClient testClient;
+
+    private void init(WireMockConfiguration proxyingServiceOptions) {
+        targetService = new WireMockServer(wireMockConfig().dynamicPort());
+        targetService.start();
+        targetServiceAdmin = WireMock.create().port(targetService.port()).build();
+        targetServiceBaseUrl = "http://localhost:" + targetService.port();
+
+        proxyingService = new WireMockServer(proxyingServiceOptions.dynamicPort());
+        proxyingService.start();
+        proxyingServiceAdmin = WireMock.create().port(proxyingService.port()).build();
+        proxyingServiceAdmin.register(any(anyUrl()).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
+
+        testClient = new WireMockTestClient(proxyingService.port());
+    }
+
+    @After
+    public void stop() {
+        targetService.stop();
+        proxyingService.stop();
+    }
+
+    @Test
+    public void sendsConcurrentIdenticalGetRequestsToTheTargetOnce() throws Exception {
+        init(wireMockConfig().proxyRequestCoalescingEnabled(true));
+        targetServiceAdmin.register(get("/slow").willReturn(ok("Shared content").withFixedDelay(500)));
+
+        for (WireMockResponse response: sendConcurrently("GET", "/slow")) {
+            assertThat(response.statusCode(), is(200));
+            assertThat(response.content(), is("Shared content"));
+        }
+
+        targetServiceAdmin.verifyThat(1, getRequestedFor(urlEqualTo("/slow")));
+        proxyingServiceAdmin.verifyThat(CONCURRENT_REQUESTS, getRequestedFor(urlEqualTo("/slow")));
+    }
+
+    @Test
+    public void sendsEachConcurrentRequestToTheTargetWhenCoalescingIsNotEnabled() throws Exception {
+        init(wireMockConfig());
+        targetServiceAdmin.register(get("/slow").willReturn(ok().withFixedDelay(500)));
+
+        sendConcurrently("GET", "/slow");
+
+        targetServiceAdmin.verifyThat(CONCURRENT_REQUESTS, getRequestedFor(urlEqualTo("/slow")));
+    }
+
+    @Test
+    public void doesNotCoalesceUnsafeRequests() throws Exception {
+        init(wireMockConfig().proxyRequestCoalescingEnabled(true));
+        targetServiceAdmin.register(post("/slow").willReturn(ok().withFixedDelay(500)));
+
+        sendConcurrently("POST", "/slow");
+
+        targetServiceAdmin.verifyThat(CONCURRENT_REQUESTS, postRequestedFor(urlEqualTo("/slow")));
+    }
+
+    @Test
+    public void sendsASubsequentRequestToTheTargetOnceTheSharedOneHasCompleted() throws Exception {
+        init(wireMockConfig().proxyRequestCoalescingEnabled(true));
+        targetServiceAdmin.register(get("/slow").willReturn(ok().withFixedDelay(200)));
+
+        sendConcurrently("GET", "/slow");
+        testClient.get("/slow");
+
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/slow")));
+    }
+
+    @Test
+    public void givesEachCoalescedRequestTheFailureOfTheSharedOne() throws Exception {
+        init(wireMockConfig().proxyRequestCoalescingEnabled(true));
+        targetServiceAdmin.register(get("/broken").willReturn(aResponse().withFixedDelay(500).withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        for (WireMockResponse response: sendConcurrently("GET", "/broken")) {
+            assertThat(response.statusCode(), is(500));
+        }
+
+        targetServiceAdmin.verifyThat(1, getRequestedFor(urlEqualTo("/broken")));
+    }
+
+    @Test
+    public void doesNotCoalesceRequestsCarryingCookies() throws Exception {
+        init(wireMockConfig().proxyRequestCoalescingEnabled(true));
+        targetServiceAdmin.register(get("/slow").willReturn(ok().withFixedDelay(500)));
+
+        List<TestHttpHeader[]> headers = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            headers.add(new TestHttpHeader[] { withHeader("Cookie", "session=" + i) });
+        }
+        sendConcurrently("GET", "/slow", headers);
+
+        targetServiceAdmin.verifyThat(CONCURRENT_REQUESTS, getRequestedFor(urlEqualTo("/slow")));
+    }
+
+    @Test
+    public void onlyCoalescesRequestsAcceptingTheSameEncoding() throws Exception {
+        init(wireMockConfig().proxyRequestCoalescingEnabled(true));
+        targetServiceAdmin.register(get("/slow").withHeader("Accept-Encoding", equalTo("identity"))
+            .willReturn(ok("Identity").withFixedDelay(500)));
+        targetServiceAdmin.register(get("/slow").withHeader("Accept-Encoding", equalTo("compress"))
+            .willReturn(ok("Compressed").withFixedDelay(500)));
+
+        List<WireMockResponse> responses = sendConcurrently("GET", "/slow", alternately("Accept-Encoding", "identity", "compress"));
+
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            assertThat(responses.get(i).content(), is(i % 2 == 0 ? "Identity" : "Compressed"));
+        }
+        targetServiceAdmin.verifyThat(2, getRequestedFor(urlEqualTo("/slow")));
+    }
+
+    @Test
+    public void doesNotShareAResponseWithRequestsDifferingInAHeaderItVariesOn() throws Exception {
+        init(wireMockConfig().proxyRequestCoalescingEnabled(true));
+        targetServiceAdmin.register(get("/slow").withHeader("X-Variant", equalTo("a"))
+            .willReturn(ok("Variant A").withHeader("Vary", "X-Variant").withFixedDelay(500)));
+        targetServiceAdmin.register(get("/slow").withHeader("X-Variant", equalTo("b"))
+            .willReturn(ok("Variant B").withHeader("Vary", "X-Variant").withFixedDelay(500)));
+
+        List<WireMockResponse> responses = sendConcurrently("GET", "/slow", alternately("X-Variant", "a", "b"));
+
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            assertThat(responses.get(i).content(), is(i % 2 == 0 ? "Variant A" : "Variant B"));
+        }
+    }
+
+    private static List<TestHttpHeader[]> alternately(String header, String evenValue, String oddValue) {
+        List<TestHttpHeader[]> headers = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            headers.add(new TestHttpHeader[] { withHeader(header, i % 2 == 0 ? evenValue : oddValue) });
+        }
+
+        return headers;
+    }
+
+    private List<WireMockResponse> sendConcurrently(String method, String url) throws Exception {
+        List<TestHttpHeader[]> noHeaders = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            noHeaders.add(new TestHttpHeader[0]);
+        }
+
+        return sendConcurrently(method, url, noHeaders);
+    }
+
+    private List<WireMockResponse> sendConcurrently(final String method, final String url, List<TestHttpHeader[]> headersForEach) throws Exception {
+        List<Callable<WireMockResponse>> requests = new ArrayList<>();
+        for (final TestHttpHeader[] headers: headersForEach) {
+            requests.add(new Callable<WireMockResponse>() {
+                @Override
+                public WireMockResponse call() {
+                    return testClient.request(method, url, headers);
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            List<WireMockResponse> responses = new ArrayList<>();
+            for (Future<WireMockResponse> response: executor.invokeAll(requests)) {
+                responses.add(response.get());
+            }
+
+            return responses;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.github.tomakehurst.wiremock;
 
+import com.github.tomakehurst.wiremock.admin.model.GetDelaySchedulerStatsResult;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.http.HttpClientFactory;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
@@ -79,6 +80,22 @@ public class ResponseDelayAcceptanceTest {
         assertThat(duration, greaterThanOrEqualTo(500));
     }
 
+    @Test
+    public void reportsDelaySchedulerStatsViaTheAdminApi() {
+        stubFor(get(urlEqualTo("/delayed/resource")).willReturn(
+            aResponse()
+                .withStatus(200)
+                .withFixedDelay(50)));
+
+        testClient.get("/delayed/resource");
+        testClient.get("/delayed/resource");
+
+        GetDelaySchedulerStatsResult stats = getDelaySchedulerStats();
+        assertThat(stats.getPending(), is(0));
+        assertThat(stats.getExpired(), is(2L));
+        assertThat(stats.getMaxLatenessMillis(), greaterThanOrEqualTo(0L));
+    }
+
     @Test
     public void responseWithByteDribble() {
         byte[] body = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
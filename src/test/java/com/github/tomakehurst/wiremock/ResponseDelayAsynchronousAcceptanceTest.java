@@ -22,6 +22,7 @@ import com.google.common.base.Stopwatch;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -84,6 +85,24 @@ public class ResponseDelayAsynchronousAcceptanceTest {
         }
     }
 
+    @Test
+    public void dribblesBodyAfterDelayingAsynchronously() throws Exception {
+        stubFor(get("/delayed").willReturn(
+            ok()
+                .withFixedDelay(100)
+                .withBody("Sent in two pieces")
+                .withChunkedDribbleDelay(2, 100)));
+
+        List<Future<TimedHttpResponse>> responses = httpClientExecutor.invokeAll(getHttpRequestCallables(5));
+
+        for (Future<TimedHttpResponse> response: responses) {
+            TimedHttpResponse timedResponse = response.get();
+            assertThat(timedResponse.response.getStatusLine().getStatusCode(), is(200));
+            assertThat(EntityUtils.toString(timedResponse.response.getEntity()), is("Sent in two pieces"));
+            assertThat(timedResponse.milliseconds, greaterThan(150.0));
+        }
+    }
+
     private List<Callable<TimedHttpResponse>> getHttpRequestCallables(int requestCount) throws IOException {
         List<Callable<TimedHttpResponse>> requests = new ArrayList<>();
         for (int i = 0; i < requestCount; i++) {
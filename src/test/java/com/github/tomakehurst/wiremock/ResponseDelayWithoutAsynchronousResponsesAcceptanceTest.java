@@ -24,11 +24,9 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -37,12 +35,10 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
-import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
-import static org.junit.Assert.fail;
 
-public class ResponseDelaySynchronousFailureAcceptanceTest {
+public class ResponseDelayWithoutAsynchronousResponsesAcceptanceTest {
 
     private static final int SOCKET_TIMEOUT_MILLISECONDS = 500;
     private static final int SHORTER_THAN_SOCKET_TIMEOUT = SOCKET_TIMEOUT_MILLISECONDS / 2;
@@ -60,21 +56,16 @@ public class ResponseDelaySynchronousFailureAcceptanceTest {
         return wireMockConfiguration;
     }
 
+    // Delays no longer hold a container thread, so more requests than there are threads can wait at once
     @Test
-    public void requestIsFailedWhenMultipleRequestsHitSynchronousServer() throws Exception {
+    public void delaysMoreRequestsThanThereAreContainerThreads() throws Exception {
         stubFor(get(urlEqualTo("/delayed")).willReturn(
                 aResponse()
                         .withStatus(200)
                         .withFixedDelay(SHORTER_THAN_SOCKET_TIMEOUT)));
         List<Future<HttpResponse>> responses = httpClientExecutor.invokeAll(getHttpRequestCallables(10));
-        try {
-            for (Future<HttpResponse> response : responses) {
-                assertThat(response.get().getStatusLine().getStatusCode(), is(200));
-            }
-            fail("A timeout exception expected reading multiple responses from synchronous WireMock server");
-        } catch (ExecutionException e) {
-            assertThat(e.getCause(), instanceOf(SocketTimeoutException.class));
-            assertThat(e.getCause().getMessage(), is("Read timed out"));
+        for (Future<HttpResponse> response : responses) {
+            assertThat(response.get().getStatusLine().getStatusCode(), is(200));
         }
     }
 
@@ -21,13 +21,21 @@ import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.util.EntityUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.Options.DYNAMIC_PORT;
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertThat;
@@ -101,4 +109,60 @@ public class ResponseDribbleAcceptanceTest {
         assertThat(BODY_BYTES, is(responseBody));
         assertThat(duration, lessThan(SOCKET_TIMEOUT_MILLISECONDS));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void servesABodyAtTheThrottledRate() throws Exception {
+        byte[] body = new byte[2000];
+        stubFor(get("/throttled").willReturn(
+            ok()
+                .withBody(body)
+                .withThrottleBytesPerSecond(4000)));
+
+        long start = System.currentTimeMillis();
+        HttpResponse response = httpClient.execute(new HttpGet(String.format("http://localhost:%d/throttled", wireMockRule.port())));
+        byte[] responseBody = IOUtils.toByteArray(response.getEntity().getContent());
+        double duration = (double) (System.currentTimeMillis() - start);
+
+        assertThat(response.getStatusLine().getStatusCode(), is(200));
+        assertThat(responseBody, is(body));
+        assertThat(duration, closeTo(500, 100.0));
+    }
+
+    @Test
+    public void dribblesManyResponsesAtOnceWithoutTyingUpContainerThreads() throws Exception {
+        final int TOTAL_TIME = 600;
+        final int CONCURRENT_REQUESTS = 30;
+
+        stubFor(get("/concurrentDribble").willReturn(
+            ok()
+                .withBody(BODY_BYTES)
+                .withChunkedDribbleDelay(2, TOTAL_TIME)));
+
+        final HttpClient concurrentClient = HttpClientBuilder.create()
+            .setMaxConnPerRoute(CONCURRENT_REQUESTS)
+            .setMaxConnTotal(CONCURRENT_REQUESTS)
+            .build();
+        ExecutorService executor = newFixedThreadPool(CONCURRENT_REQUESTS);
+        List<Callable<byte[]>> requests = newArrayList();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            requests.add(new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws Exception {
+                    HttpResponse response = concurrentClient.execute(new HttpGet(String.format("http://localhost:%d/concurrentDribble", wireMockRule.port())));
+                    return IOUtils.toByteArray(response.getEntity().getContent());
+                }
+            });
+        }
+
+        long start = System.currentTimeMillis();
+        List<Future<byte[]>> responses = executor.invokeAll(requests);
+        for (Future<byte[]> response: responses) {
+            assertThat(response.get(), is(BODY_BYTES));
+        }
+        int duration = (int) (System.currentTimeMillis() - start);
+        executor.shutdown();
+
+        // Far more requests than the container has threads, so this would take several times as long if each held one
+        assertThat(duration, lessThan(TOTAL_TIME * 2));
+    }
+}
@@ -371,6 +371,27 @@ public class SnapshotDslAcceptanceTest extends AcceptanceTestBase {
         assertThat(serverMappings, not(hasItem(WireMatchers.stubMappingWithUrl("/but-not-this"))));
     }
 
+    @Test
+    public void incrementalSnapshotOnlyRecordsRequestsSinceTheLastSnapshot() {
+        client.get("/before-first-snapshot");
+        List<StubMapping> first = adminClient.takeSnapshotRecording(recordSpec().onlySinceLastSnapshot());
+
+        client.get("/after-first-snapshot");
+        client.get("/after-first-snapshot");
+        List<StubMapping> second = adminClient.takeSnapshotRecording(recordSpec().onlySinceLastSnapshot());
+        List<StubMapping> third = adminClient.takeSnapshotRecording(recordSpec().onlySinceLastSnapshot());
+
+        assertThat(first.size(), is(1));
+        assertThat(first.get(0).getRequest().getUrl(), is("/before-first-snapshot"));
+
+        assertThat(second.size(), is(2));
+        assertThat(second.get(0).getRequest().getUrl(), is("/after-first-snapshot"));
+        assertThat(second.get(0).getRequiredScenarioState(), is(Scenario.STARTED));
+        assertThat(second.get(1).getRequiredScenarioState(), is(second.get(0).getNewScenarioState()));
+
+        assertThat(third.size(), is(0));
+    }
+
     public static class TestParameterisedTransformer extends StubMappingTransformer {
 
         @Override
@@ -433,6 +433,15 @@ public class StubbingAcceptanceTest extends AcceptanceTestBase {
         assertThat(testClient.get("/binary/content").binaryContent(), is(bytes));
     }
 
+    @Test
+    public void returningLargeBinaryBody() {
+        byte[] bytes = new byte[3 * 1024 * 1024 + 7];
+        new Random(1).nextBytes(bytes);
+        stubFor(get(urlEqualTo("/binary/large-content")).willReturn(aResponse().withBody(bytes)));
+
+        assertThat(testClient.get("/binary/large-content").binaryContent(), is(bytes));
+    }
+
     @Test
     public void listingAllStubMappings() {
         stubFor(get(urlEqualTo("/stub/one")).willReturn(aResponse().withBody("One")));
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class UnmatchedRequestReportingAcceptanceTest {
+
+    private final RecordingNotifier notifier = new RecordingNotifier();
+
+    private WireMockServer wm;
+    private WireMockTestClient client;
+
+    private void init(WireMockConfiguration options) {
+        wm = new WireMockServer(options.dynamicPort().notifier(notifier));
+        wm.start();
+        client = new WireMockTestClient(wm.port());
+        wm.stubFor(get(urlEqualTo("/near-miss")).willReturn(ok()));
+    }
+
+    @After
+    public void stop() {
+        wm.stop();
+    }
+
+    @Test
+    public void reportsUnmatchedRequestsWithTheNearestStubInTheBackground() throws Exception {
+        init(options().asynchronousUnmatchedRequestReporting(true));
+
+        assertThat(client.get("/a-near-mis").statusCode(), is(404));
+
+        String report = notifier.awaitError();
+        assertThat(report, allOf(
+            containsString("Request was not matched"),
+            containsString("/a-near-mis"),
+            containsString("/near-miss")
+        ));
+        assertThat(notifier.errorThreadNames.get(0), is("wiremock-unmatched-request-reporter"));
+    }
+
+    @Test
+    public void reportsOnlyAsManyUnmatchedRequestsAsTheLimitAllowsAndCountsTheRest() throws Exception {
+        init(options().maxUnmatchedRequestReportsPerSecond(1));
+
+        for (int i = 0; i < 5; i++) {
+            client.get("/a-near-mis-" + i);
+        }
+
+        assertThat(notifier.errors, hasSize(1));
+        assertThat(notifier.errors.get(0), not(containsString("were not diffed")));
+
+        Thread.sleep(1100);
+        client.get("/another-near-mis");
+
+        assertThat(notifier.errors, hasSize(2));
+        assertThat(notifier.errors.get(1), containsString("4 other unmatched requests since the last report were not diffed"));
+    }
+
+    private static class RecordingNotifier implements Notifier {
+
+        final List<String> errors = new CopyOnWriteArrayList<>();
+        final List<String> errorThreadNames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void info(String message) {
+        }
+
+        @Override
+        public void error(String message) {
+            errors.add(message);
+            errorThreadNames.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void error(String message, Throwable t) {
+            error(message);
+        }
+
+        String awaitError() throws InterruptedException {
+            for (int i = 0; i < 500 && errors.isEmpty(); i++) {
+                Thread.sleep(10);
+            }
+
+            return errors.get(0);
+        }
+    }
+}
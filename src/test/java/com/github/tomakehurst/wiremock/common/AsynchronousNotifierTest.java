@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2018 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class AsynchronousNotifierTest {
+
+    @Test
+    public void writesMessagesInOrderOnABackgroundThread() throws Exception {
+        RecordingNotifier delegate = new RecordingNotifier(true, 4);
+        AsynchronousNotifier notifier = new AsynchronousNotifier(delegate);
+
+        notifier.info("one");
+        notifier.info(message("two"));
+        notifier.error("three");
+        notifier.error("four", new RuntimeException());
+
+        assertTrue(delegate.written.await(5, SECONDS));
+        assertThat(delegate.messages, contains("one", "two", "three", "four"));
+        assertThat(delegate.threadNames, everyItem(is("wiremock-notifier")));
+    }
+
+    @Test
+    public void neitherQueuesNorFormatsInfoMessagesTheDelegateWouldDiscard() throws Exception {
+        RecordingNotifier delegate = new RecordingNotifier(false, 1);
+        AsynchronousNotifier notifier = new AsynchronousNotifier(delegate);
+        final AtomicInteger formatCount = new AtomicInteger();
+
+        notifier.info(new LogMessage() {
+            @Override
+            public String format() {
+                formatCount.incrementAndGet();
+                return "discarded";
+            }
+        });
+        notifier.error("written");
+
+        assertTrue(delegate.written.await(5, SECONDS));
+        assertThat(delegate.messages, contains("written"));
+        assertThat(formatCount.get(), is(0));
+    }
+
+    @Test
+    public void dropsInfoMessagesWhenTheQueueIsFullAndReportsHowMany() throws Exception {
+        BlockingNotifier delegate = new BlockingNotifier(4);
+        AsynchronousNotifier notifier = new AsynchronousNotifier(delegate, 2, false);
+
+        notifier.info("being written");
+        assertTrue(delegate.writing.await(5, SECONDS));
+        for (int i = 0; i < 5; i++) {
+            notifier.info("queued or dropped " + i);
+        }
+        assertThat(notifier.getDroppedCount(), is(3L));
+
+        delegate.release.countDown();
+
+        assertTrue(delegate.written.await(5, SECONDS));
+        assertThat(delegate.messages, contains(
+            "being written",
+            "queued or dropped 0",
+            "queued or dropped 1",
+            "Dropped 3 log messages because the queue was full"
+        ));
+    }
+
+    @Test
+    public void waitsForSpaceWhenConfiguredToBlock() throws Exception {
+        final BlockingNotifier delegate = new BlockingNotifier(4);
+        final AsynchronousNotifier notifier = new AsynchronousNotifier(delegate, 1, true);
+
+        notifier.info("being written");
+        assertTrue(delegate.writing.await(5, SECONDS));
+        notifier.info("queued");
+        Thread sender = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                notifier.info("waiting 1");
+                notifier.info("waiting 2");
+            }
+        });
+        sender.start();
+
+        while (sender.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        delegate.release.countDown();
+        sender.join(5000);
+
+        assertTrue(delegate.written.await(5, SECONDS));
+        assertThat(delegate.messages, contains("being written", "queued", "waiting 1", "waiting 2"));
+        assertThat(notifier.getDroppedCount(), is(0L));
+    }
+
+    @Test
+    public void carriesOnWritingWhenAMessageFailsToFormat() throws Exception {
+        RecordingNotifier delegate = new RecordingNotifier(true, 3);
+        AsynchronousNotifier notifier = new AsynchronousNotifier(delegate);
+
+        notifier.info(new LogMessage() {
+            @Override
+            public String format() {
+                throw new IllegalStateException("Unformattable");
+            }
+        });
+        notifier.info("after");
+        notifier.info("and after");
+
+        assertTrue(delegate.written.await(5, SECONDS));
+        assertThat(delegate.messages, hasItem("Failed to write log message"));
+        assertThat(delegate.messages, hasItem("and after"));
+    }
+
+    private static LogMessage message(final String text) {
+        return new LogMessage() {
+            @Override
+            public String format() {
+                return text;
+            }
+        };
+    }
+
+    private static class RecordingNotifier implements StructuredNotifier {
+
+        final boolean infoEnabled;
+        final CountDownLatch written;
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        final List<String> threadNames = new CopyOnWriteArrayList<>();
+
+        RecordingNotifier(boolean infoEnabled, int expectedMessages) {
+            this.infoEnabled = infoEnabled;
+            this.written = new CountDownLatch(expectedMessages);
+        }
+
+        @Override
+        public boolean isInfoEnabled() {
+            return infoEnabled;
+        }
+
+        @Override
+        public void info(LogMessage message) {
+            info(message.format());
+        }
+
+        @Override
+        public void info(String message) {
+            record(message);
+        }
+
+        @Override
+        public void error(String message) {
+            record(message);
+        }
+
+        @Override
+        public void error(String message, Throwable t) {
+            record(message);
+        }
+
+        void record(String message) {
+            messages.add(message);
+            threadNames.add(Thread.currentThread().getName());
+            written.countDown();
+        }
+    }
+
+    private static class BlockingNotifier extends RecordingNotifier {
+
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingNotifier(int expectedMessages) {
+            super(true, expectedMessages);
+        }
+
+        @Override
+        void record(String message) {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            super.record(message);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.github.tomakehurst.wiremock.security.NotAuthorisedException;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BodyFileCacheTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    private FileSource rootSource;
+    private FileSource filesRoot;
+
+    @Before
+    public void init() throws Exception {
+        tempDir.newFolder("__files");
+        rootSource = new SingleRootFileSource(tempDir.getRoot());
+        filesRoot = rootSource.child("__files");
+    }
+
+    @Test
+    public void servesRepeatedReadsOfTheSameFileFromOneVerifiedHandle() throws Exception {
+        writeDirectly("body.txt", "cached body");
+
+        BinaryFile first = filesRoot.getBinaryFileNamed("body.txt");
+        BinaryFile second = filesRoot.getBinaryFileNamed("body.txt");
+
+        assertThat(second, sameInstance(first));
+        assertThat(new String(first.readContents(), UTF_8), is("cached body"));
+        assertThat(new String(second.readContents(), UTF_8), is("cached body"));
+    }
+
+    @Test
+    public void reloadsFilesChangedOnDisk() throws Exception {
+        File file = writeDirectly("body.txt", "before");
+        BinaryFile binaryFile = filesRoot.getBinaryFileNamed("body.txt");
+        assertThat(new String(binaryFile.readContents(), UTF_8), is("before"));
+
+        Files.write("after", file, UTF_8);
+        file.setLastModified(file.lastModified() + 10000);
+
+        assertThat(new String(binaryFile.readContents(), UTF_8), is("after"));
+    }
+
+    @Test
+    public void dropsFilesWrittenThroughAnotherChildOfTheSameRoot() throws Exception {
+        File file = writeDirectly("body.txt", "before");
+        long lastModified = file.lastModified();
+        BinaryFile binaryFile = filesRoot.getBinaryFileNamed("body.txt");
+        assertThat(new String(binaryFile.readContents(), UTF_8), is("before"));
+
+        // As the admin API's edit file task does, so neither length nor (here) modification time give it away
+        rootSource.child("__files").writeTextFile("body.txt", "after!");
+        file.setLastModified(lastModified);
+
+        assertThat(new String(binaryFile.readContents(), UTF_8), is("after!"));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void failsAsBeforeWhenACachedFileIsDeleted() throws Exception {
+        File file = writeDirectly("body.txt", "soon gone");
+        BinaryFile binaryFile = filesRoot.getBinaryFileNamed("body.txt");
+        binaryFile.readContents();
+
+        assertTrue(file.delete());
+
+        binaryFile.readContents();
+    }
+
+    @Test
+    public void servesLargeFilesCorrectly() throws Exception {
+        byte[] contents = new byte[(int) BodyFileCacheSettings.DEFAULT_MAX_HEAP_FILE_BYTES * 3 + 17];
+        for (int i = 0; i < contents.length; i++) {
+            contents[i] = (byte) i;
+        }
+        Files.write(contents, new File(tempDir.getRoot(), "__files/large.bin"));
+
+        BinaryFile binaryFile = filesRoot.getBinaryFileNamed("large.bin");
+
+        assertTrue(Arrays.equals(binaryFile.readContents(), contents));
+        assertTrue(Arrays.equals(binaryFile.readContents(), contents));
+    }
+
+    @Test(expected = NotAuthorisedException.class)
+    public void stillRejectsPathsOutsideTheRootForAChildSharingTheCache() throws Exception {
+        tempDir.newFolder("__files", "sub");
+        writeDirectly("body.txt", "not for sub");
+        filesRoot.getBinaryFileNamed("sub/../body.txt");
+
+        filesRoot.child("sub").getBinaryFileNamed("../body.txt");
+    }
+
+    @Test
+    public void doesNotConfuseFilesWhoseRootAndNameJoinToTheSamePath() throws Exception {
+        tempDir.newFolder("__files", "r");
+        tempDir.newFolder("__files", "r:s");
+        writeDirectly("r/s:t.txt", "first");
+        writeDirectly("r:s/t.txt", "second");
+
+        assertThat(new String(filesRoot.child("r").getBinaryFileNamed("s:t.txt").readContents(), UTF_8), is("first"));
+        assertThat(new String(filesRoot.child("r:s").getBinaryFileNamed("t.txt").readContents(), UTF_8), is("second"));
+    }
+
+    @Test(expected = IOException.class)
+    public void failsReadingAMappedFileTruncatedPartWayThrough() throws Exception {
+        byte[] contents = new byte[(int) BodyFileCacheSettings.DEFAULT_MAX_HEAP_FILE_BYTES * 2];
+        File file = new File(tempDir.getRoot(), "__files/truncated.bin");
+        Files.write(contents, file);
+
+        InputStream stream = filesRoot.getBinaryFileNamed("truncated.bin").getStream();
+        stream.read(new byte[1024]);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(10);
+        }
+
+        ByteStreams.toByteArray(stream);
+    }
+
+    @Test
+    public void streamsFilesFromDiskWhenMappingIsDisabled() throws Exception {
+        FileSource unmapped = new SingleRootFileSource(new File(tempDir.getRoot(), "__files"), new BodyFileCacheSettings(1024, 16, 0));
+        byte[] contents = new byte[100];
+        Files.write(contents, new File(tempDir.getRoot(), "__files/unmapped.bin"));
+
+        InputStream stream = unmapped.getBinaryFileNamed("unmapped.bin").getStream();
+
+        assertThat(stream, not(instanceOf(ByteBufferInputStream.class)));
+        assertTrue(Arrays.equals(ByteStreams.toByteArray(stream), contents));
+    }
+
+    private File writeDirectly(String name, String contents) throws Exception {
+        File file = new File(tempDir.getRoot(), "__files/" + name);
+        Files.write(contents, file, UTF_8);
+        return file;
+    }
+}
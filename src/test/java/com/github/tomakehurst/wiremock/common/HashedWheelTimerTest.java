@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class HashedWheelTimerTest {
+
+    private final List<String> notifications = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void runsTasksInDueOrderAndNeverEarly() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("run-order-test", notifier());
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(3);
+        final long start = System.nanoTime();
+        final List<Long> elapsedMillis = new CopyOnWriteArrayList<>();
+
+        for (final int delay: new int[] { 60, 20, 40 }) {
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    elapsedMillis.add(NANOSECONDS.toMillis(System.nanoTime() - start) - delay);
+                    order.add(delay);
+                    latch.countDown();
+                }
+            }, delay, MILLISECONDS);
+        }
+
+        assertTrue(latch.await(5, SECONDS));
+        assertThat(order, contains(20, 40, 60));
+        for (long millisAfterDue: elapsedMillis) {
+            assertThat(millisAfterDue, greaterThanOrEqualTo(0L));
+        }
+    }
+
+    @Test
+    public void runsTasksDueAfterSeveralTurnsOfTheWheel() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("several-turns-test", notifier(), 1, MILLISECONDS, 8, 10000);
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timer.schedule(countDown(latch), 50, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertThat(NANOSECONDS.toMillis(System.nanoTime() - start), greaterThanOrEqualTo(50L));
+    }
+
+    @Test
+    public void reportsPendingCountAndLateness() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("metrics-test", notifier());
+        CountDownLatch latch = new CountDownLatch(1000);
+
+        for (int i = 0; i < 1000; i++) {
+            timer.schedule(countDown(latch), 200, MILLISECONDS);
+        }
+
+        assertThat(timer.getPendingCount(), is(1000));
+        assertTrue(latch.await(5, SECONDS));
+        assertThat(timer.getPendingCount(), is(0));
+        assertThat(timer.getExpiredCount(), is(1000L));
+        assertThat(timer.getMeanLatenessMillis(), greaterThanOrEqualTo(0.0));
+    }
+
+    @Test
+    public void notifiesWhenTasksRunSignificantlyLate() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("lateness-test", notifier());
+        CountDownLatch latch = new CountDownLatch(1);
+
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                sleep(150);
+            }
+        }, 1, MILLISECONDS);
+        timer.schedule(countDown(latch), 10, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertThat(timer.getMaxLatenessMillis(), greaterThanOrEqualTo(100L));
+
+        sleep(50);
+        assertThat(notifications, hasSize(1));
+        assertThat(notifications.get(0), containsString("lateness-test is running late"));
+    }
+
+    @Test
+    public void startsAgainAfterItsThreadHasExitedThroughIdleness() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("idle-test", notifier(), 1, MILLISECONDS, 64, 20);
+        CountDownLatch first = new CountDownLatch(1);
+        timer.schedule(countDown(first), 1, MILLISECONDS);
+        assertTrue(first.await(5, SECONDS));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (isThreadAlive("idle-test") && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+        assertThat(isThreadAlive("idle-test"), is(false));
+
+        CountDownLatch second = new CountDownLatch(1);
+        timer.schedule(countDown(second), 1, MILLISECONDS);
+        assertTrue(second.await(5, SECONDS));
+    }
+
+    private Notifier notifier() {
+        return new Notifier() {
+            @Override
+            public void info(String message) {
+                notifications.add(message);
+            }
+
+            @Override
+            public void error(String message) {
+                notifications.add(message);
+            }
+
+            @Override
+            public void error(String message, Throwable t) {
+                notifications.add(message);
+            }
+        };
+    }
+
+    private static Runnable countDown(final CountDownLatch latch) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+    }
+
+    private static boolean isThreadAlive(String name) {
+        for (Thread thread: Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name) && thread.isAlive()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -20,25 +20,37 @@ import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Helper;
 import com.github.jknack.handlebars.Options;
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.jknack.handlebars.Template;
 import com.github.tomakehurst.wiremock.common.ClasspathFileSource;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.google.common.io.Files;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
 import static com.github.tomakehurst.wiremock.testsupport.NoFileSource.noFileSource;
+import static com.google.common.base.Charsets.UTF_8;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
 public class ResponseTemplateTransformerTest {
 
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
     private ResponseTemplateTransformer transformer;
 
     @Before
@@ -543,6 +555,48 @@ public class ResponseTemplateTransformerTest {
         ));
     }
 
+    @Test
+    public void compilesEachDistinctTemplateOnlyOnce() {
+        final AtomicInteger compilations = new AtomicInteger();
+        transformer = new ResponseTemplateTransformer(true, new Handlebars() {
+            @Override
+            public Template compileInline(String input) throws IOException {
+                compilations.incrementAndGet();
+                return super.compileInline(input);
+            }
+        }, Collections.<String, Helper>emptyMap());
+
+        for (int i = 0; i < 3; i++) {
+            ResponseDefinition transformedResponseDef = transform(mockRequest().url("/things/" + i),
+                aResponse()
+                    .withHeader("X-Path", "{{request.path}}")
+                    .withBody("Path: {{request.path}}")
+            );
+
+            assertThat(transformedResponseDef.getBody(), is("Path: /things/" + i));
+            assertThat(transformedResponseDef.getHeaders().getHeader("X-Path").firstValue(), is("/things/" + i));
+        }
+
+        assertThat(compilations.get(), is(2));
+    }
+
+    @Test
+    public void recompilesBodyFileTemplateWhenTheFileChanges() throws Exception {
+        File bodyFile = tempDir.newFile("greeting.txt");
+        Files.write("Hello {{request.query.name}}", bodyFile, UTF_8);
+        FileSource files = new SingleRootFileSource(tempDir.getRoot());
+
+        ResponseDefinition responseDefinition = aResponse().withBodyFile("greeting.txt").build();
+        Request request = mockRequest().url("/greet?name=Ram");
+
+        assertThat(transformer.transform(request, responseDefinition, files, Parameters.empty()).getBody(), is("Hello Ram"));
+
+        Files.write("Goodbye {{request.query.name}}", bodyFile, UTF_8);
+        bodyFile.setLastModified(bodyFile.lastModified() + 10000);
+
+        assertThat(transformer.transform(request, responseDefinition, files, Parameters.empty()).getBody(), is("Goodbye Ram"));
+    }
+
     private ResponseDefinition transform(Request request, ResponseDefinitionBuilder responseDefinitionBuilder) {
         return transformer.transform(
             request,
@@ -16,7 +16,9 @@
 package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.LogMessage;
 import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.common.StructuredNotifier;
 import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
 import org.apache.http.entity.StringEntity;
 import org.jmock.Expectations;
@@ -85,4 +87,22 @@ public class AdminRequestHandlerTest {
 
         context.assertIsSatisfied();
     }
+
+    @Test
+    public void shouldNotFormatTheRequestWhenInfoIsDisabled() {
+        final StructuredNotifier notifier = context.mock(StructuredNotifier.class);
+        context.checking(new Expectations() {{
+            allowing(notifier).isInfoEnabled(); will(returnValue(false));
+            never(notifier).info(with(any(String.class)));
+            never(notifier).info(with(any(LogMessage.class)));
+        }});
+
+        wm = new WireMockServer(options().dynamicPort().notifier(notifier));
+        wm.start();
+        client = new WireMockTestClient(wm.port());
+
+        client.get("/__admin/mappings");
+
+        context.assertIsSatisfied();
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.http.HttpHeader.httpHeader;
+import static com.github.tomakehurst.wiremock.http.ProxyResponseCache.freshnessLifetimeMillis;
+import static com.github.tomakehurst.wiremock.http.ProxyResponseCache.hasDirective;
+import static com.github.tomakehurst.wiremock.http.ProxyResponseCache.initialAgeMillis;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ProxyResponseCacheTest {
+
+    @Test
+    public void takesFreshnessFromMaxAge() {
+        HttpHeaders headers = new HttpHeaders(httpHeader("Cache-Control", "public, max-age=30"));
+
+        assertThat(freshnessLifetimeMillis(headers, 0), is(30000L));
+    }
+
+    @Test
+    public void prefersSharedMaxAgeToMaxAge() {
+        HttpHeaders headers = new HttpHeaders(httpHeader("Cache-Control", "max-age=30, s-maxage=10"));
+
+        assertThat(freshnessLifetimeMillis(headers, 0), is(10000L));
+    }
+
+    @Test
+    public void takesFreshnessFromExpiresRelativeToDate() {
+        HttpHeaders headers = new HttpHeaders(
+            httpHeader("Date", "Wed, 21 Oct 2015 07:28:00 GMT"),
+            httpHeader("Expires", "Wed, 21 Oct 2015 07:29:00 GMT")
+        );
+
+        assertThat(freshnessLifetimeMillis(headers, 0), is(60000L));
+    }
+
+    @Test
+    public void treatsAnUnparseableExpiresAsAlreadyExpired() {
+        HttpHeaders headers = new HttpHeaders(httpHeader("Expires", "0"));
+
+        assertThat(freshnessLifetimeMillis(headers, 60), is(0L));
+    }
+
+    @Test
+    public void alwaysRevalidatesNoCacheResponses() {
+        HttpHeaders headers = new HttpHeaders(httpHeader("Cache-Control", "no-cache, max-age=30"));
+
+        assertThat(freshnessLifetimeMillis(headers, 60), is(0L));
+    }
+
+    @Test
+    public void fallsBackToTheDefaultTtl() {
+        assertThat(freshnessLifetimeMillis(new HttpHeaders(), 5), is(5000L));
+    }
+
+    @Test
+    public void takesTheInitialAgeFromTheAgeHeader() {
+        assertThat(initialAgeMillis(new HttpHeaders(httpHeader("Age", "100"))), is(100000L));
+        assertThat(initialAgeMillis(new HttpHeaders(httpHeader("Age", "soon"))), is(0L));
+        assertThat(initialAgeMillis(new HttpHeaders()), is(0L));
+    }
+
+    @Test
+    public void findsDirectivesRegardlessOfCaseAndArguments() {
+        HttpHeader cacheControl = httpHeader("Cache-Control", "Private=\"Set-Cookie\", max-age=5");
+
+        assertThat(hasDirective(cacheControl, "private"), is(true));
+        assertThat(hasDirective(cacheControl, "no-store"), is(false));
+        assertThat(hasDirective(HttpHeader.absent("Cache-Control"), "no-store"), is(false));
+    }
+}
@@ -15,10 +15,12 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import org.jmock.Mockery;
 import org.jmock.integration.junit4.JMock;
@@ -29,8 +31,11 @@ import org.junit.runner.RunWith;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 @RunWith(JMock.class)
@@ -112,6 +117,64 @@ public class StubResponseRendererTest {
         assertThat(response.getInitialDelay(), is(2123L));
     }
 
+    @Test
+    public void reusesTheSameResponseForRepeatedHitsOnAStaticStub() {
+        StubMapping stubMapping = get("/static")
+            .willReturn(aResponse().withHeader("Content-Type", "text/plain").withBody("static body"))
+            .withName("Static")
+            .build();
+
+        Response first = stubResponseRenderer.render(serveEventFor(stubMapping));
+        Response second = stubResponseRenderer.render(serveEventFor(stubMapping));
+
+        assertThat(second, sameInstance(first));
+        assertThat(second.getBodyAsString(), is("static body"));
+        assertThat(second.getHeaders().getHeader("Matched-Stub-Id").firstValue(), is(stubMapping.getId().toString()));
+        assertThat(second.getHeaders().getHeader("Matched-Stub-Name").firstValue(), is("Static"));
+    }
+
+    @Test
+    public void appliesDelaysToPlannedResponses() {
+        StubMapping stubMapping = get("/static").willReturn(aResponse().withBody("static body")).build();
+        stubResponseRenderer.render(serveEventFor(stubMapping));
+
+        globalSettingsHolder.get().setFixedDelay(10);
+        Response response = stubResponseRenderer.render(serveEventFor(stubMapping));
+
+        assertThat(response.getInitialDelay(), is(10L));
+        assertThat(response.getBodyAsString(), is("static body"));
+    }
+
+    @Test
+    public void doesNotUseThePlanWhenTheServedResponseHasBeenTransformed() {
+        StubMapping stubMapping = get("/static").willReturn(aResponse().withBody("static body")).build();
+        stubResponseRenderer.render(serveEventFor(stubMapping));
+
+        ResponseDefinition transformed = ResponseDefinitionBuilder.like(stubMapping.getResponse()).withBody("transformed").build();
+        Response response = stubResponseRenderer.render(
+            ServeEvent.of(LoggedRequest.createFrom(mockRequest()), transformed, stubMapping));
+
+        assertThat(response.getBodyAsString(), is("transformed"));
+    }
+
+    @Test
+    public void buildsANewPlanWhenTheStubIsEdited() {
+        StubMapping original = get("/static").willReturn(aResponse().withBody("original")).build();
+        StubMapping edited = get("/static").willReturn(aResponse().withBody("edited")).build();
+        edited.setId(original.getId());
+
+        assertThat(stubResponseRenderer.render(serveEventFor(original)).getBodyAsString(), is("original"));
+        assertThat(stubResponseRenderer.render(serveEventFor(edited)).getBodyAsString(), is("edited"));
+    }
+
+    private static ServeEvent serveEventFor(StubMapping stubMapping) {
+        return ServeEvent.of(
+            LoggedRequest.createFrom(mockRequest()),
+            ResponseDefinition.copyOf(stubMapping.getResponse()),
+            stubMapping
+        );
+    }
+
     private ServeEvent createServeEvent(Integer fixedDelayMillis) {
         return ServeEvent.of(LoggedRequest.createFrom(mockRequest()),
             new ResponseDefinition(
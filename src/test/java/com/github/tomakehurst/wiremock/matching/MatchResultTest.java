@@ -17,6 +17,7 @@ package com.github.tomakehurst.wiremock.matching;
 
 import org.junit.Test;
 
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -66,6 +67,27 @@ public class MatchResultTest {
         assertThat(matchResult.isExactMatch(), is(false));
     }
 
+    @Test
+    public void givesTheExactAggregateDistanceWhenItIsBelowTheCeiling() {
+        MatchResult matchResult = MatchResult.aggregateWeighted(
+            WeightedMatchResult.weight(MatchResult.partialMatch(0.5), 10.0),
+            WeightedMatchResult.weight(MatchResult.partialMatch(0.2), 3.0),
+            WeightedMatchResult.weight(MatchResult.partialMatch(0.9))
+        );
+
+        assertThat(matchResult.getDistanceBelow(0.5), is(matchResult.getDistance()));
+    }
+
+    @Test
+    public void stopsEvaluatingAnAggregateOnceItsDistanceReachesTheCeiling() {
+        MatchResult matchResult = MatchResult.aggregateWeighted(
+            WeightedMatchResult.weight(MatchResult.partialMatch(0.8), 10.0),
+            WeightedMatchResult.weight(new ExceptionThrowingMatchResult())
+        );
+
+        assertThat(matchResult.getDistanceBelow(0.5), greaterThanOrEqualTo(0.5));
+    }
+
     public static class ExceptionThrowingMatchResult extends MatchResult {
 
         @Override
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.matching;
+
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
+import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.newRequestPattern;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParsedBodyTest {
+
+    @Test
+    public void parsesEachFormOnlyOnce() throws Exception {
+        ParsedBody jsonBody = new ParsedBody("{ \"name\": \"Tom\" }");
+        assertThat(jsonBody.asJsonNode(), sameInstance(jsonBody.asJsonNode()));
+        assertThat(jsonBody.asJsonPathDocument(), sameInstance(jsonBody.asJsonPathDocument()));
+
+        ParsedBody xmlBody = new ParsedBody("<things><thing/></things>");
+        assertThat(xmlBody.asXmlDocument(), sameInstance(xmlBody.asXmlDocument()));
+    }
+
+    @Test
+    public void rethrowsTheOriginalFailureWhenTheBodyCannotBeParsed() throws Exception {
+        ParsedBody body = new ParsedBody("not xml");
+
+        SAXException first = null;
+        try {
+            body.asXmlDocument();
+            fail("Expected a parse failure");
+        } catch (SAXException e) {
+            first = e;
+        }
+
+        try {
+            body.asXmlDocument();
+            fail("Expected a parse failure");
+        } catch (SAXException e) {
+            assertThat(e, sameInstance(first));
+        }
+    }
+
+    @Test
+    public void loggedRequestKeepsItsParsedBodyBetweenMatches() {
+        LoggedRequest request = LoggedRequest.createFrom(mockRequest()
+            .method(POST)
+            .url("/things")
+            .body("{ \"name\": \"Tom\", \"things\": [1, 2] }"));
+
+        RequestPattern byJson = newRequestPattern(POST, urlEqualTo("/things"))
+            .withRequestBody(equalToJson("{ \"things\": [1, 2], \"name\": \"Tom\" }"))
+            .build();
+        RequestPattern byJsonPath = newRequestPattern(POST, urlEqualTo("/things"))
+            .withRequestBody(matchingJsonPath("$.things[?(@ == 2)]"))
+            .withRequestBody(matchingJsonPath("$.name", equalTo("Tom")))
+            .build();
+
+        ParsedBody parsedBody = request.parsedBody();
+
+        assertTrue(byJson.match(request).isExactMatch());
+        assertTrue(byJsonPath.match(request).isExactMatch());
+        assertThat(request.parsedBody(), sameInstance(parsedBody));
+        assertThat(parsedBody.asJsonNode().get("name").textValue(), is("Tom"));
+    }
+
+    @Test
+    public void xPathPatternsShareTheParsedDocument() throws Exception {
+        ParsedBody body = new ParsedBody("<things><thing id=\"1\">one</thing><thing id=\"2\">two</thing></things>");
+
+        assertTrue(matchingXPath("//thing[@id='2']").matchBody(body).isExactMatch());
+        assertTrue(matchingXPath("//thing[@id='1']/text()", equalTo("one")).matchBody(body).isExactMatch());
+        assertThat(matchingXPath("//thing[@id='3']").matchBody(body).isExactMatch(), is(false));
+    }
+}
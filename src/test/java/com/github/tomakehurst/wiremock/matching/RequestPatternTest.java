@@ -16,6 +16,7 @@
 package com.github.tomakehurst.wiremock.matching;
 
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -23,6 +24,10 @@ import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.*;
@@ -422,6 +427,61 @@ public class RequestPatternTest {
         assertFalse(matchResult.isExactMatch());
     }
 
+    @Test
+    public void isMatchedByAgreesWithFullMatchForAllCriteria() {
+        RequestPattern requestPattern =
+            newRequestPattern(POST, urlPathEqualTo("/my/url"))
+            .withHeader("My-Header", equalTo("my-header-value"))
+            .withQueryParam("q", equalTo("1"))
+            .withCookie("my_cookie", equalTo("my-cookie-value"))
+            .withRequestBody(equalToJson("{ \"thing\": 1 }"))
+            .build();
+
+        MockRequest matching = mockRequest()
+            .method(POST)
+            .url("/my/url?q=1")
+            .header("My-Header", "my-header-value")
+            .cookie("my_cookie", "other-value", "my-cookie-value")
+            .body("{ \"thing\": 1 }");
+        MockRequest wrongBody = mockRequest()
+            .method(POST)
+            .url("/my/url?q=1")
+            .header("My-Header", "my-header-value")
+            .cookie("my_cookie", "my-cookie-value")
+            .body("{ \"thing\": 2 }");
+
+        Map<String, RequestMatcherExtension> noCustomMatchers = Collections.emptyMap();
+        assertTrue(requestPattern.isMatchedBy(matching, noCustomMatchers));
+        assertTrue(requestPattern.match(matching).isExactMatch());
+        assertFalse(requestPattern.isMatchedBy(wrongBody, noCustomMatchers));
+        assertFalse(requestPattern.match(wrongBody).isExactMatch());
+    }
+
+    @Test
+    public void isMatchedByStopsAtTheFirstFailedCriterion() {
+        final AtomicInteger customMatcherCalls = new AtomicInteger();
+        RequestPattern requestPattern =
+            newRequestPattern(POST, urlPathEqualTo("/my/url"))
+            .andMatching(new ValueMatcher<Request>() {
+                @Override
+                public MatchResult match(Request value) {
+                    customMatcherCalls.incrementAndGet();
+                    return MatchResult.exactMatch();
+                }
+            })
+            .build();
+
+        assertFalse(requestPattern.isMatchedBy(
+            mockRequest().method(POST).url("/other/url"),
+            Collections.<String, RequestMatcherExtension>emptyMap()));
+        assertThat(customMatcherCalls.get(), is(0));
+
+        assertTrue(requestPattern.isMatchedBy(
+            mockRequest().method(POST).url("/my/url"),
+            Collections.<String, RequestMatcherExtension>emptyMap()));
+        assertThat(customMatcherCalls.get(), is(1));
+    }
+
     @Test
     public void doesNotMatchWhenRequiredCookieValueIsWrong() {
         RequestPattern requestPattern =
@@ -18,10 +18,12 @@ package com.github.tomakehurst.wiremock.recording;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.google.common.collect.ImmutableList;
 import org.junit.Test;
 
+import java.util.Iterator;
 import java.util.List;
 
 import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.newRequestPattern;
@@ -101,6 +103,51 @@ public class SnapshotStubMappingPostProcessorTest {
         assertThat(actual.get(1).getRequest().getUrl(), is("/extracted"));
     }
 
+    @Test
+    public void processLazilyPutsRepeatedRequestsInScenariosOneAtATime() {
+        final List<StubMapping> stubMappings = ImmutableList.of(
+            WireMock.get("/foo").build(),
+            WireMock.get("/bar").build(),
+            WireMock.get("/foo").build()
+        );
+
+        Iterator<StubMapping> actual = new SnapshotStubMappingPostProcessor(
+            true, noopTransformerRunner(), null, null
+        ).processLazily(stubMappings).iterator();
+
+        StubMapping first = actual.next();
+        assertThat(first.getRequiredScenarioState(), is(Scenario.STARTED));
+        assertThat(first.getNewScenarioState(), is("scenario-foo-2"));
+        assertThat(stubMappings.get(2).getScenarioName(), nullValue());
+
+        assertThat(actual.next().getScenarioName(), nullValue());
+
+        StubMapping last = actual.next();
+        assertThat(last.getRequiredScenarioState(), is("scenario-foo-2"));
+        assertThat(last.getNewScenarioState(), nullValue());
+        assertThat(actual.hasNext(), is(false));
+    }
+
+    @Test
+    public void processLazilyOnlyIteratesTheStubMappingsGivenOnce() {
+        final int[] iterations = { 0 };
+        Iterable<StubMapping> stubMappings = new Iterable<StubMapping>() {
+            @Override
+            public Iterator<StubMapping> iterator() {
+                iterations[0]++;
+                return ImmutableList.of(WireMock.get("/foo").build(), WireMock.get("/foo").build()).iterator();
+            }
+        };
+
+        List<StubMapping> actual = ImmutableList.copyOf(new SnapshotStubMappingPostProcessor(
+            true, noopTransformerRunner(), null, null
+        ).processLazily(stubMappings));
+
+        assertThat(actual.size(), is(2));
+        assertThat(actual.get(1).getRequiredScenarioState(), is("scenario-foo-2"));
+        assertThat(iterations[0], is(1));
+    }
+
     private static SnapshotStubMappingTransformerRunner noopTransformerRunner() {
         return new SnapshotStubMappingTransformerRunner(null) {
             @Override
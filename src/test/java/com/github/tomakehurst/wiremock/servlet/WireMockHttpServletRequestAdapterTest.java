@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.servlet;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.jmock.integration.junit4.JMock;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.enumeration;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(JMock.class)
+public class WireMockHttpServletRequestAdapterTest {
+
+    private Mockery context;
+    private HttpServletRequest httpServletRequest;
+
+    @Before
+    public void init() {
+        context = new Mockery();
+        httpServletRequest = context.mock(HttpServletRequest.class);
+    }
+
+    @Test
+    public void readsHeadersFromTheServletRequestOnlyOnce() {
+        context.checking(new Expectations() {{
+            oneOf(httpServletRequest).getHeaderNames(); will(returnValue(enumeration(asList("Content-Type", "X-Things"))));
+            oneOf(httpServletRequest).getHeaders("Content-Type"); will(returnValue(enumeration(asList("text/plain"))));
+            oneOf(httpServletRequest).getHeaders("X-Things"); will(returnValue(enumeration(asList("one", "two"))));
+        }});
+
+        Request request = new WireMockHttpServletRequestAdapter(httpServletRequest);
+
+        assertThat(request.getHeader("content-type"), is("text/plain"));
+        assertThat(request.header("X-THINGS").values(), contains("one", "two"));
+        assertThat(request.header("Missing").isPresent(), is(false));
+        assertThat(request.getHeader("Missing"), nullValue());
+        assertThat(request.getAllHeaderKeys(), contains("Content-Type", "X-Things"));
+    }
+
+    @Test
+    public void parsesQueryStringAndCookiesOnlyOnce() {
+        context.checking(new Expectations() {{
+            oneOf(httpServletRequest).getQueryString(); will(returnValue("one=1&two=2&two=3"));
+            oneOf(httpServletRequest).getCookies(); will(returnValue(new Cookie[] { new Cookie("session", "abc") }));
+        }});
+
+        Request request = new WireMockHttpServletRequestAdapter(httpServletRequest);
+
+        assertThat(request.queryParameter("one").firstValue(), is("1"));
+        assertThat(request.queryParameter("two").values(), contains("2", "3"));
+        assertThat(request.queryParameter("three").isPresent(), is(false));
+        assertThat(request.getCookies().get("session").getValue(), is("abc"));
+        assertThat(request.getCookies().get("session").getValue(), is("abc"));
+    }
+}
@@ -16,8 +16,15 @@
 package com.github.tomakehurst.wiremock.standalone;
 
 import com.github.tomakehurst.wiremock.client.BasicCredentials;
+import com.github.tomakehurst.wiremock.common.AsynchronousNotifier;
+import com.github.tomakehurst.wiremock.common.AsynchronousProxySettings;
+import com.github.tomakehurst.wiremock.common.BodyFileCacheSettings;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
 import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.ProxyCacheSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.UnmatchedRequestReportingSettings;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
@@ -65,6 +72,12 @@ public class CommandLineOptionsTest {
 		assertThat(options.recordMappingsEnabled(), is(true));
 	}
 
+    @Test
+    public void returnsAsynchronousRecordMappingsWhenOptionPresent() {
+        assertThat(new CommandLineOptions("--record-mappings", "--async-record-mappings").asynchronousRecordMappingsEnabled(), is(true));
+        assertThat(new CommandLineOptions("--record-mappings").asynchronousRecordMappingsEnabled(), is(false));
+    }
+
     @Test
     public void returnsHeaderMatchingEnabledWhenOptionPresent() {
     	CommandLineOptions options =  new CommandLineOptions("--match-headers", "Accept,Content-Type");
@@ -393,6 +406,147 @@ public class CommandLineOptionsTest {
         assertThat(options.getAsynchronousResponseSettings().getThreads(), is(10));
     }
 
+    @Test
+    public void enablesProxyResponseStreaming() {
+        CommandLineOptions options = new CommandLineOptions("--stream-proxy-responses", "--proxy-stream-buffer-bytes", "2048");
+        assertThat(options.getProxyStreamingSettings().isEnabled(), is(true));
+        assertThat(options.getProxyStreamingSettings().getBufferBytes(), is(2048));
+    }
+
+    @Test
+    public void disablesProxyResponseStreamingByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getProxyStreamingSettings().isEnabled(), is(false));
+        assertThat(options.getProxyStreamingSettings().getBufferBytes(), is(1024 * 1024));
+    }
+
+    @Test
+    public void setsProxyConnectionPoolOptions() {
+        CommandLineOptions options = new CommandLineOptions(
+            "--proxy-max-connections", "200",
+            "--proxy-max-connections-per-route", "50",
+            "--proxy-connect-timeout", "1000",
+            "--proxy-connection-lease-timeout", "2000",
+            "--proxy-keep-alive", "30000",
+            "--proxy-max-idle-time", "60000",
+            "--proxy-stale-check-after-inactivity", "500");
+
+        ProxyConnectionPoolSettings poolSettings = options.getProxyConnectionPoolSettings();
+        assertThat(poolSettings.getMaxConnections(), is(200));
+        assertThat(poolSettings.getMaxConnectionsPerRoute(), is(50));
+        assertThat(poolSettings.getConnectTimeout().get(), is(1000));
+        assertThat(poolSettings.getLeaseTimeout().get(), is(2000));
+        assertThat(poolSettings.getKeepAlive().get(), is(30000L));
+        assertThat(poolSettings.getMaxIdleTime().get(), is(60000L));
+        assertThat(poolSettings.getStaleCheckAfterInactivity(), is(500));
+    }
+
+    @Test
+    public void letsOneProxyRouteUseTheWholeConnectionPoolByDefault() {
+        CommandLineOptions options = new CommandLineOptions("--proxy-max-connections", "200");
+
+        ProxyConnectionPoolSettings poolSettings = options.getProxyConnectionPoolSettings();
+        assertThat(poolSettings.getMaxConnectionsPerRoute(), is(200));
+        assertThat(poolSettings.getConnectTimeout().isPresent(), is(false));
+        assertThat(poolSettings.getStaleCheckAfterInactivity(), is(0));
+    }
+
+    @Test
+    public void enablesAsynchronousProxyingWithThreadsSizedToTheConnectionPoolByDefault() {
+        CommandLineOptions options = new CommandLineOptions("--async-proxy-enabled", "--proxy-max-connections", "200");
+
+        AsynchronousProxySettings settings = options.getAsynchronousProxySettings();
+        assertThat(settings.isEnabled(), is(true));
+        assertThat(settings.threadsFor(options.getProxyConnectionPoolSettings()), is(200));
+        assertThat(options.toString(), containsString("async-proxy-enabled"));
+    }
+
+    @Test
+    public void setsAsynchronousProxyThreads() {
+        CommandLineOptions options = new CommandLineOptions("--async-proxy-enabled", "--async-proxy-threads", "50");
+
+        assertThat(options.getAsynchronousProxySettings().threadsFor(options.getProxyConnectionPoolSettings()), is(50));
+    }
+
+    @Test
+    public void disablesAsynchronousProxyingByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+
+        assertThat(options.getAsynchronousProxySettings().isEnabled(), is(false));
+    }
+
+    @Test
+    public void setsProxyCacheOptions() {
+        CommandLineOptions options = new CommandLineOptions(
+            "--proxy-cache",
+            "--proxy-cache-max-bytes", "1000000",
+            "--proxy-cache-default-ttl", "30",
+            "--proxy-cache-key-headers", "Accept,Accept-Language");
+
+        ProxyCacheSettings cacheSettings = options.getProxyCacheSettings();
+        assertThat(cacheSettings.isEnabled(), is(true));
+        assertThat(cacheSettings.getMaxBytes(), is(1000000L));
+        assertThat(cacheSettings.getDefaultTtlSeconds(), is(30));
+        assertThat(cacheSettings.getKeyHeaders(), hasItems("Accept", "Accept-Language"));
+        assertThat(options.toString(), containsString("proxy-cache"));
+    }
+
+    @Test
+    public void disablesTheProxyCacheByDefault() {
+        ProxyCacheSettings cacheSettings = new CommandLineOptions().getProxyCacheSettings();
+
+        assertThat(cacheSettings.isEnabled(), is(false));
+        assertThat(cacheSettings.getMaxBytes(), is(ProxyCacheSettings.DEFAULT_MAX_BYTES));
+        assertThat(cacheSettings.getDefaultTtlSeconds(), is(0));
+        assertThat(cacheSettings.getKeyHeaders().isEmpty(), is(true));
+    }
+
+    @Test
+    public void configuresUnmatchedRequestReporting() {
+        UnmatchedRequestReportingSettings settings = new CommandLineOptions(
+            "--async-unmatched-request-reporting",
+            "--max-unmatched-request-reports-per-second", "10"
+        ).getUnmatchedRequestReportingSettings();
+
+        assertThat(settings.isAsynchronous(), is(true));
+        assertThat(settings.getMaxReportsPerSecond(), is(10));
+    }
+
+    @Test
+    public void reportsUnmatchedRequestsSynchronouslyWithoutLimitByDefault() {
+        UnmatchedRequestReportingSettings settings = new CommandLineOptions().getUnmatchedRequestReportingSettings();
+
+        assertThat(settings.isAsynchronous(), is(false));
+        assertThat(settings.getMaxReportsPerSecond(), is(0));
+    }
+
+    @Test
+    public void writesLogMessagesAsynchronouslyWhenEnabled() {
+        assertThat(new CommandLineOptions("--async-logging").notifier(), instanceOf(AsynchronousNotifier.class));
+        assertThat(new CommandLineOptions().notifier(), instanceOf(ConsoleNotifier.class));
+    }
+
+    @Test
+    public void configuresTheBodyFileCache() {
+        BodyFileCacheSettings settings = new CommandLineOptions(
+            "--body-file-cache-max-heap-bytes", "1000",
+            "--body-file-cache-max-heap-file-bytes", "100",
+            "--body-file-cache-max-mapped-files", "0"
+        ).getBodyFileCacheSettings();
+
+        assertThat(settings.getMaxHeapBytes(), is(1000L));
+        assertThat(settings.getMaxHeapFileBytes(), is(100L));
+        assertThat(settings.getMaxMappedFiles(), is(0));
+    }
+
+    @Test
+    public void enablesProxyRequestCoalescing() {
+        CommandLineOptions options = new CommandLineOptions("--proxy-coalesce-requests");
+
+        assertThat(options.shouldCoalesceProxyRequests(), is(true));
+        assertThat(new CommandLineOptions().shouldCoalesceProxyRequests(), is(false));
+    }
+
     @Test
     public void usesPortInToString() {
         CommandLineOptions options = new CommandLineOptions("--port", "1337");
@@ -22,6 +22,12 @@ import org.junit.Test;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.ok;
@@ -394,4 +400,51 @@ public class ScenariosTest {
         assertThat(possibleStates, hasItems("A", "B", "C", "D"));
         assertThat(possibleStates.size(), is(4));
     }
+
+    @Test
+    public void onlyOneOfManyConcurrentRequestsTransitionsFromTheRequiredState() throws Exception {
+        final StubMapping mapping = get("/scenarios/1").inScenario("one")
+            .whenScenarioStateIs(STARTED)
+            .willSetStateTo("step_2")
+            .willReturn(ok())
+            .build();
+        scenarios.onStubMappingAdded(mapping);
+
+        int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger transitions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    if (scenarios.matchAndTransition(mapping)) {
+                        transitions.incrementAndGet();
+                    }
+                    return null;
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(transitions.get(), is(1));
+        assertThat(scenarios.getByName("one").getState(), is("step_2"));
+    }
+
+    @Test
+    public void matchesWithoutTransitioningWhenMappingDoesNotSetState() {
+        StubMapping mapping = get("/scenarios/1").inScenario("one")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(ok())
+            .build();
+        scenarios.onStubMappingAdded(mapping);
+
+        assertThat(scenarios.matchAndTransition(mapping), is(true));
+        assertThat(scenarios.matchAndTransition(mapping), is(true));
+        assertThat(scenarios.getByName("one").getState(), is(STARTED));
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.stubbing;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import com.google.common.collect.ImmutableList;
+import org.jmock.Mockery;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToIgnoreCase;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.ANY;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
+import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.newRequestPattern;
+import static com.github.tomakehurst.wiremock.testsupport.MockRequestBuilder.aRequest;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class StubMappingIndexTest {
+
+    private Mockery context;
+    private SortedConcurrentMappingSet mappingSet;
+    private int requestCount;
+
+    @Before
+    public void init() {
+        context = new Mockery();
+        mappingSet = new SortedConcurrentMappingSet();
+    }
+
+    @Test
+    public void returnsOnlyCandidatesWithMatchingMethodAndUrlPlusFallbackInPriorityThenReverseInsertionOrder() {
+        StubMapping getThing = add(GET, urlEqualTo("/things/1"), null);
+        add(POST, urlEqualTo("/things/1"), null);
+        add(GET, urlEqualTo("/things/2"), null);
+        StubMapping anyThing = add(ANY, urlPathEqualTo("/things/1"), null);
+        StubMapping catchAll = add(ANY, anyUrl(), 10);
+        StubMapping thingsRegex = add(GET, urlMatching("/things/[0-9]+"), 1);
+        add(GET, urlPathMatching("/other/.*"), null);
+
+        assertThat(candidatesFor(GET, "/things/1?q=1"), contains(thingsRegex, anyThing, catchAll));
+        assertThat(candidatesFor(GET, "/things/1"), contains(thingsRegex, anyThing, getThing, catchAll));
+    }
+
+    @Test
+    public void putsUnindexablePatternsInTheFallbackBucket() {
+        StubMapping caseInsensitive = add(GET, new UrlPattern(equalToIgnoreCase("/THINGS/1"), false), null);
+        StubMapping alternation = add(GET, urlMatching("/things/1|/stuff/1"), null);
+        StubMapping noLiteralSegment = add(GET, urlMatching("/thin.*"), null);
+
+        assertThat(candidatesFor(GET, "/stuff/1"), contains(noLiteralSegment, alternation, caseInsensitive));
+    }
+
+    @Test
+    public void removesAndReplacesIndexedMappings() {
+        StubMapping first = add(GET, urlEqualTo("/things/1"), null);
+        StubMapping second = add(GET, urlEqualTo("/things/1"), null);
+
+        mappingSet.remove(first);
+        assertThat(candidatesFor(GET, "/things/1"), contains(second));
+
+        StubMapping replacement = new StubMapping(newRequestPattern(GET, urlEqualTo("/things/2")).build(), new ResponseDefinition());
+        replacement.setInsertionIndex(second.getInsertionIndex());
+        mappingSet.replace(second, replacement);
+
+        assertThat(candidatesFor(GET, "/things/1").iterator().hasNext(), is(false));
+        assertThat(candidatesFor(GET, "/things/2"), contains(replacement));
+
+        mappingSet.clear();
+        assertThat(candidatesFor(GET, "/things/2").iterator().hasNext(), is(false));
+    }
+
+    @Test
+    public void derivesLiteralPrefixFromRegex() {
+        assertThat(StubMappingIndex.literalPrefixOf("/things/[0-9]+"), is("/things/"));
+        assertThat(StubMappingIndex.literalPrefixOf("^/things/.*"), is("/things/"));
+        assertThat(StubMappingIndex.literalPrefixOf("/things/?"), is("/things"));
+        assertThat(StubMappingIndex.literalPrefixOf("/things/(a|b)"), is("/things/"));
+        assertThat(StubMappingIndex.literalPrefixOf("/things/a|/b"), nullValue());
+        assertThat(StubMappingIndex.firstPathSegment("/things/1"), is("things"));
+        assertThat(StubMappingIndex.firstPathSegment("/things"), nullValue());
+    }
+
+    private StubMapping add(RequestMethod method, UrlPattern urlPattern, Integer priority) {
+        StubMapping mapping = new StubMapping(newRequestPattern(method, urlPattern).build(), new ResponseDefinition());
+        mapping.setPriority(priority);
+        mappingSet.add(mapping);
+        return mapping;
+    }
+
+    private List<StubMapping> candidatesFor(RequestMethod method, String url) {
+        Request request = aRequest(context, method + " " + url + " " + requestCount++).withMethod(method).withUrl(url).build();
+        return ImmutableList.copyOf(mappingSet.findCandidatesFor(request));
+    }
+}
@@ -155,18 +155,90 @@ public class StubMappingJsonRecorderTest {
 	@Test
 	public void doesNotWriteFileIfRequestAlreadyReceived() {
 	    context.checking(new Expectations() {{
-            atLeast(1).of(admin).countRequestsMatching(with(any(RequestPattern.class))); will(returnValue(VerificationResult.withCount(1)));
-            never(mappingsFileSource).writeTextFile(with(any(String.class)), with(any(String.class)));
-            never(filesFileSource).writeTextFile(with(any(String.class)), with(any(String.class)));
+            one(mappingsFileSource).writeTextFile(with(any(String.class)), with(any(String.class)));
+            one(filesFileSource).writeBinaryFile(with(any(String.class)), with(any(byte[].class)));
         }});
 
-	    listener.requestReceived(new MockRequestBuilder(context)
+	    listener.requestReceived(new MockRequestBuilder(context, "first")
+                .withMethod(RequestMethod.GET)
+                .withUrl("/headered/content")
+                .build(),
+            response().fromProxy(true).status(200).build());
+	    listener.requestReceived(new MockRequestBuilder(context, "second")
                 .withMethod(RequestMethod.GET)
                 .withUrl("/headered/content")
                 .build(),
             response().fromProxy(true).status(200).build());
 	}
 
+	@Test
+	public void writesFileForEachRequestWithADifferentBody() {
+	    context.checking(new Expectations() {{
+            exactly(2).of(mappingsFileSource).writeTextFile(with(any(String.class)), with(any(String.class)));
+            exactly(2).of(filesFileSource).writeBinaryFile(with(any(String.class)), with(any(byte[].class)));
+        }});
+
+	    listener.requestReceived(new MockRequestBuilder(context, "first")
+                .withMethod(RequestMethod.POST)
+                .withUrl("/body/content")
+                .withHeader("Content-Type", "text/plain")
+                .withBody("one")
+                .build(),
+            response().fromProxy(true).status(200).build());
+	    listener.requestReceived(new MockRequestBuilder(context, "second")
+                .withMethod(RequestMethod.POST)
+                .withUrl("/body/content")
+                .withHeader("Content-Type", "text/plain")
+                .withBody("two")
+                .build(),
+            response().fromProxy(true).status(200).build());
+	}
+
+	@Test
+	public void writesFilesBeforeStoppingWhenWritingAsynchronously() {
+	    listener = new StubMappingJsonRecorder(mappingsFileSource, filesFileSource, Collections.<CaseInsensitiveKey>emptyList(), true);
+	    listener.setIdGenerator(fixedIdGenerator("1$2!3"));
+
+	    context.checking(new Expectations() {{
+            one(mappingsFileSource).writeTextFile(with("mapping-headered-content-1$2!3.json"), with(any(String.class)));
+            one(filesFileSource).writeBinaryFile(with("body-headered-content-1$2!3.txt"), with(any(byte[].class)));
+        }});
+
+	    listener.requestReceived(new MockRequestBuilder(context)
+                .withMethod(RequestMethod.GET)
+                .withUrl("/headered/content")
+                .build(),
+            response().fromProxy(true).status(200).body("content").build());
+	    listener.stop();
+	}
+
+	@Test
+	public void carriesOnWritingFilesAsynchronouslyAfterBeingStopped() {
+	    listener = new StubMappingJsonRecorder(mappingsFileSource, filesFileSource, Collections.<CaseInsensitiveKey>emptyList(), true);
+	    listener.setIdGenerator(fixedIdGenerator("1$2!3"));
+
+	    context.checking(new Expectations() {{
+            one(mappingsFileSource).writeTextFile(with("mapping-first-1$2!3.json"), with(any(String.class)));
+            one(filesFileSource).writeBinaryFile(with("body-first-1$2!3.txt"), with(any(byte[].class)));
+            one(mappingsFileSource).writeTextFile(with("mapping-second-1$2!3.json"), with(any(String.class)));
+            one(filesFileSource).writeBinaryFile(with("body-second-1$2!3.txt"), with(any(byte[].class)));
+        }});
+
+	    listener.requestReceived(new MockRequestBuilder(context, "first")
+                .withMethod(RequestMethod.GET)
+                .withUrl("/first")
+                .build(),
+            response().fromProxy(true).status(200).body("content").build());
+	    listener.stop();
+
+	    listener.requestReceived(new MockRequestBuilder(context, "second")
+                .withMethod(RequestMethod.GET)
+                .withUrl("/second")
+                .build(),
+            response().fromProxy(true).status(200).body("content").build());
+	    listener.stop();
+	}
+
 	@Test
 	public void doesNotWriteFileIfResponseNotFromProxy() {
 	    context.checking(new Expectations() {{
@@ -43,6 +43,7 @@ import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
 import static com.github.tomakehurst.wiremock.testsupport.MockRequestBuilder.aRequest;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 @RunWith(JMock.class)
@@ -95,6 +96,23 @@ public class StubRequestHandlerTest {
 		assertThat(response.getBodyAsString(), is("Body content"));
 	}
 
+	@Test
+	public void respondsWithTheJournalledCopyOfTheRequest() {
+		final Request request = aRequest(context).build();
+		final LoggedRequest loggedRequest = LoggedRequest.createFrom(request);
+
+		context.checking(new Expectations() {{
+			allowing(stubServer).serveStubFor(request);
+			    will(returnValue(ServeEvent.forUnmatchedRequest(loggedRequest)));
+			allowing(responseRenderer).render(with(any(ServeEvent.class)));
+			    will(returnValue(Response.notConfigured()));
+		}});
+
+		requestHandler.handle(request, httpResponder);
+
+		assertThat(httpResponder.request, sameInstance((Request) loggedRequest));
+	}
+
 	@Test
 	public void shouldNotifyListenersOnRequest() {
 		final Request request = aRequest(context).build();
@@ -21,10 +21,12 @@ import com.github.tomakehurst.wiremock.http.Response;
 
 public class MockHttpResponder implements HttpResponder {
 
+    public Request request;
     public Response response;
 
     @Override
     public void respond(Request request, Response response) {
+        this.request = request;
         this.response = response;
     }
 }
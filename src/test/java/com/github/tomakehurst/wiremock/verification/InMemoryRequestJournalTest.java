@@ -17,15 +17,25 @@ package com.github.tomakehurst.wiremock.verification;
 
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.google.common.base.Optional;
+import org.hamcrest.Matchers;
 import org.jmock.Mockery;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
 import static com.github.tomakehurst.wiremock.matching.RequestPattern.everything;
 import static com.github.tomakehurst.wiremock.testsupport.MockRequestBuilder.aRequest;
 import static com.github.tomakehurst.wiremock.verification.LoggedRequest.createFrom;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -82,6 +92,70 @@ public class InMemoryRequestJournalTest {
         assertOnlyLastTwoRequestsLeft(journal);
     }
 
+    @Test
+    public void findsRequestsByExactUrlUrlPathAndMethodInTheOrderTheyWereReceived() {
+        Mockery context = new Mockery();
+        ServeEvent postWithQuery = ServeEvent.of(createFrom(aRequest(context, "post")
+            .withMethod(POST)
+            .withUrl("/logging1?q=1")
+            .build()), null);
+
+        RequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(postWithQuery);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent1);
+
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(2));
+        assertThat(journal.countRequestsMatching(postRequestedFor(urlEqualTo("/logging1")).build()), is(0));
+        assertThat(journal.countRequestsMatching(anyRequestedFor(urlPathEqualTo("/logging1")).build()), is(3));
+        assertThat(journal.countRequestsMatching(postRequestedFor(urlMatching("/logging.*")).build()), is(1));
+        assertThat(journal.countRequestsMatching(
+            anyRequestedFor(urlPathEqualTo("/logging1")).withQueryParam("q", equalTo("1")).build()), is(1));
+
+        List<LoggedRequest> requests = journal.getRequestsMatching(anyRequestedFor(urlMatching("/logging[12]")).build());
+        assertThat(requests.get(0).getUrl(), is("/logging1"));
+        assertThat(requests.get(1).getUrl(), is("/logging2"));
+        assertThat(requests.get(2).getUrl(), is("/logging1"));
+    }
+
+    @Test
+    public void evictedRequestsAreNoLongerFoundByUrl() {
+        RequestJournal journal = new InMemoryRequestJournal(Optional.of(1));
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(0));
+        assertThat(journal.countRequestsMatching(anyRequestedFor(urlPathEqualTo("/logging1")).build()), is(0));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging2")).build()), is(1));
+    }
+
+    @Test
+    public void returnsServeEventsAfterTheLastOneSeenOldestFirst() {
+        InMemoryRequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getServeEventsAfter(serveEvent1), contains(serveEvent2, serveEvent3));
+        assertThat(journal.getServeEventsAfter(serveEvent3), Matchers.<ServeEvent>emptyIterable());
+        assertThat(journal.getServeEventsAfter(null), contains(serveEvent1, serveEvent2, serveEvent3));
+    }
+
+    @Test
+    public void returnsAllServeEventsWhenTheLastOneSeenIsNoLongerInTheJournal() {
+        InMemoryRequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+
+        journal.requestReceived(serveEvent1);
+        journal.reset();
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getServeEventsAfter(serveEvent1), contains(serveEvent2, serveEvent3));
+    }
+
     private void assertOnlyLastTwoRequestsLeft(RequestJournal journal) {
         assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(0));
         assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging2")).build()), is(1));
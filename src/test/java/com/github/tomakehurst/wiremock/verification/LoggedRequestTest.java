@@ -42,6 +42,7 @@ import static com.github.tomakehurst.wiremock.testsupport.MockRequestBuilder.aRe
 import static com.github.tomakehurst.wiremock.verification.LoggedRequest.createFrom;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.*;
 
 @RunWith(JMock.class)
@@ -78,6 +79,16 @@ public class LoggedRequestTest {
         assertNotNull(loggedRequest.getHeader("Accept"));
     }
 
+    @Test
+    public void createFromReusesAnExistingLoggedRequest() {
+        LoggedRequest loggedRequest = createFrom(aRequest(context)
+                .withUrl("/for/logging?one=1")
+                .build());
+
+        assertThat(createFrom(loggedRequest), sameInstance(loggedRequest));
+        assertThat(loggedRequest.queryParameter("one").firstValue(), is("1"));
+    }
+
     static  final String DATE = "2012-06-07T16:39:41Z";
     static final String JSON_EXAMPLE = "{\n" +
             "      \"url\" : \"/my/url\",\n" +
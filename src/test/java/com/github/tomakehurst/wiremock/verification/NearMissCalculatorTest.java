@@ -31,6 +31,8 @@ import org.jmock.Mockery;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
@@ -162,6 +164,86 @@ public class NearMissCalculatorTest {
         assertThat(nearestForIncorrectMethodAndUrl.get(0).getStubMapping().getName(), is("Correct"));
     }
 
+    @Test
+    public void findsTheSameNearestMissesAsAFullSortAmongManyStubs() {
+        List<MappingBuilder> mappingBuilders = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            mappingBuilders.add(get(urlEqualTo("/things/" + i)).withHeader("X-Thing", equalTo("thing-" + i)).willReturn(ok()));
+        }
+        givenStubMappings(mappingBuilders.toArray(new MappingBuilder[0]));
+        final LoggedRequest request = mockRequest().url("/things/1234").header("X-Thing", "thing-1234x").asLoggedRequest();
+
+        List<NearMiss> nearest = nearMissCalculator.findNearestTo(request);
+
+        List<StubMapping> sortedByDistance = from(stubMappings.getAll()).toSortedList(new Comparator<StubMapping>() {
+            @Override
+            public int compare(StubMapping one, StubMapping other) {
+                return Double.compare(one.getRequest().match(request).getDistance(), other.getRequest().match(request).getDistance());
+            }
+        });
+        assertThat(nearest.size(), is(NEAR_MISS_COUNT));
+        for (int i = 0; i < NEAR_MISS_COUNT; i++) {
+            assertThat(nearest.get(i).getStubMapping(), is(sortedByDistance.get(i)));
+        }
+    }
+
+    @Test
+    public void keepsNearMissesTheSameDistanceAwayInTheOrderTheyWereFound() {
+        List<MappingBuilder> mappingBuilders = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            mappingBuilders.add(get(urlEqualTo("/same")).withName("Stub " + i).willReturn(ok()));
+        }
+        givenStubMappings(mappingBuilders.toArray(new MappingBuilder[0]));
+
+        List<NearMiss> nearest = nearMissCalculator.findNearestTo(mockRequest().method(POST).url("/same").asLoggedRequest());
+
+        assertThat(nearest.get(0).getStubMapping().getName(), is("Stub 0"));
+        assertThat(nearest.get(1).getStubMapping().getName(), is("Stub 1"));
+        assertThat(nearest.get(2).getStubMapping().getName(), is("Stub 2"));
+    }
+
+    @Test
+    public void returnsTheNearestMissesForEachRequestInTurn() {
+        givenStubMappings(
+            get(urlEqualTo("/righ")).willReturn(aResponse()),
+            get(urlEqualTo("/totally-wrong1")).willReturn(aResponse()),
+            get(urlEqualTo("/rig")).willReturn(aResponse()),
+            get(urlEqualTo("/totally-wrong33333")).willReturn(aResponse())
+        );
+        List<LoggedRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(mockRequest().url(i % 2 == 0 ? "/right" : "/totally-wrong3333").asLoggedRequest());
+        }
+
+        List<NearMiss> nearest = nearMissCalculator.findNearestToEach(requests);
+
+        assertThat(nearest.size(), is(100 * NEAR_MISS_COUNT));
+        for (int i = 0; i < 100; i++) {
+            NearMiss first = nearest.get(i * NEAR_MISS_COUNT);
+            assertThat(first.getRequest(), is(requests.get(i)));
+            assertThat(first.getStubMapping().getRequest().getUrl(), is(i % 2 == 0 ? "/righ" : "/totally-wrong33333"));
+        }
+    }
+
+    @Test
+    public void findsNearMissesInParallelAgainAfterBeingStopped() {
+        givenStubMappings(
+            get(urlEqualTo("/righ")).willReturn(aResponse()),
+            get(urlEqualTo("/totally-wrong1")).willReturn(aResponse())
+        );
+        List<LoggedRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(mockRequest().url("/right").asLoggedRequest());
+        }
+
+        nearMissCalculator.findNearestToEach(requests);
+        nearMissCalculator.stop();
+        List<NearMiss> nearest = nearMissCalculator.findNearestToEach(requests);
+
+        assertThat(nearest.size(), is(100 * 2));
+        assertThat(nearest.get(0).getStubMapping().getRequest().getUrl(), is("/righ"));
+    }
+
     private void givenStubMappings(final MappingBuilder... mappingBuilders) {
         final List<StubMapping> mappings = from(mappingBuilders).transform(new Function<MappingBuilder, StubMapping>() {
             @Override
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.verification;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.hamcrest.Matchers;
+import org.jmock.Mockery;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.matching.RequestPattern.everything;
+import static com.github.tomakehurst.wiremock.testsupport.MockRequestBuilder.aRequest;
+import static com.github.tomakehurst.wiremock.verification.LoggedRequest.createFrom;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RingBufferRequestJournalTest {
+
+    private ServeEvent serveEvent1, serveEvent2, serveEvent3;
+
+    @Before
+    public void createTestRequests() {
+        Mockery context = new Mockery();
+        serveEvent1 = ServeEvent.of(createFrom(aRequest(context, "log1").withUrl("/logging1").build()), null);
+        serveEvent2 = ServeEvent.of(createFrom(aRequest(context, "log2").withUrl("/logging2").build()), null);
+        serveEvent3 = ServeEvent.of(createFrom(aRequest(context, "log3").withUrl("/logging3").build()), null);
+    }
+
+    @Test
+    public void discardsOldestRequestsOnceCapacityIsReached() {
+        RequestJournal journal = new RingBufferRequestJournal(2);
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        assertThat(journal.countRequestsMatching(everything()), is(2));
+
+        journal.requestReceived(serveEvent3);
+        assertThat(journal.countRequestsMatching(everything()), is(2));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(0));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging2")).build()), is(1));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging3")).build()), is(1));
+    }
+
+    @Test
+    public void findsRequestsMatchingInTheOrderTheyWereReceived() {
+        RequestJournal journal = new RingBufferRequestJournal(3);
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+        journal.requestReceived(serveEvent1);
+
+        List<LoggedRequest> requests = journal.getRequestsMatching(everything());
+        assertThat(requests.get(0).getUrl(), is("/logging2"));
+        assertThat(requests.get(1).getUrl(), is("/logging3"));
+        assertThat(requests.get(2).getUrl(), is("/logging1"));
+        assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(1));
+    }
+
+    @Test
+    public void returnsServeEventsNewestFirst() {
+        RequestJournal journal = new RingBufferRequestJournal(5);
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getAllServeEvents(), contains(serveEvent3, serveEvent2, serveEvent1));
+        assertThat(journal.getServeEvent(serveEvent2.getId()).get(), is(serveEvent2));
+        assertThat(journal.getServeEvent(serveEvent1.getId()).isPresent(), is(true));
+    }
+
+    @Test
+    public void resettingTheJournalClearsAllEntries() {
+        RequestJournal journal = new RingBufferRequestJournal(2);
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+
+        journal.reset();
+        assertThat(journal.countRequestsMatching(everything()), is(0));
+
+        journal.requestReceived(serveEvent3);
+        assertThat(journal.getAllServeEvents(), contains(serveEvent3));
+    }
+
+    @Test
+    public void recordsNothingWhenCapacityIsZero() {
+        RequestJournal journal = new RingBufferRequestJournal(0);
+        journal.requestReceived(serveEvent1);
+
+        assertThat(journal.getAllServeEvents().isEmpty(), is(true));
+    }
+
+    @Test
+    public void neverHoldsMoreThanCapacityUnderConcurrentAppends() throws Exception {
+        final RequestJournal journal = new RingBufferRequestJournal(100);
+        final List<ServeEvent> serveEvents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            serveEvents.add(ServeEvent.of(serveEvent1.getRequest(), null));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            final ServeEvent serveEvent = serveEvents.get(i % serveEvents.size());
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    journal.requestReceived(serveEvent);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(journal.getAllServeEvents().size(), is(100));
+    }
+
+    @Test
+    public void returnsServeEventsAfterTheLastOneSeenOldestFirst() {
+        RingBufferRequestJournal journal = new RingBufferRequestJournal(3);
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getServeEventsAfter(serveEvent1), contains(serveEvent2, serveEvent3));
+        assertThat(journal.getServeEventsAfter(serveEvent3), Matchers.<ServeEvent>emptyIterable());
+        assertThat(journal.getServeEventsAfter(null), contains(serveEvent1, serveEvent2, serveEvent3));
+    }
+
+    @Test
+    public void returnsAllServeEventsWhenTheLastOneSeenIsNoLongerInTheJournal() {
+        RingBufferRequestJournal journal = new RingBufferRequestJournal(3);
+
+        journal.requestReceived(serveEvent1);
+        journal.reset();
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getServeEventsAfter(serveEvent1), contains(serveEvent2, serveEvent3));
+    }
+
+    @Test
+    public void returnsOnlyTheServeEventsStillHeldWhenTheLastOneSeenHasBeenOverwritten() {
+        RingBufferRequestJournal journal = new RingBufferRequestJournal(2);
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getServeEventsAfter(serveEvent1), contains(serveEvent2, serveEvent3));
+    }
+}